@@ -0,0 +1,152 @@
+-- Per-vote cost of the V2 full-recount score trigger on votes versus the
+-- delta trigger on post_votes (V8/V9), for one post with 10k, 100k and 1M
+-- existing votes.
+--
+--   psql -d javaddit_scratch -f scripts/db/benchmark_score_triggers.sql
+--
+-- Works in a throw-away schema (score_bench) whose tables shadow posts,
+-- post_votes and post_counters through the search_path, so the migrated trigger
+-- functions run unchanged without touching real data. Each measured
+-- operation is one insert, one type flip and one delete of a vote on the
+-- loaded post; the reported figure is the mean per statement.
+
+\set ON_ERROR_STOP on
+
+DROP SCHEMA IF EXISTS score_bench CASCADE;
+CREATE SCHEMA score_bench;
+SET search_path = score_bench, public;
+
+CREATE TABLE score_bench.posts (
+    id             BIGINT   PRIMARY KEY,
+    score          INTEGER  NOT NULL DEFAULT 0,
+    counter_shards SMALLINT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE score_bench.post_counters (LIKE public.post_counters INCLUDING ALL);
+
+CREATE TABLE score_bench.votes (
+    id         BIGSERIAL   PRIMARY KEY,
+    user_id    BIGINT      NOT NULL,
+    post_id    BIGINT,
+    comment_id BIGINT,
+    vote_type  VARCHAR(10) NOT NULL
+);
+
+CREATE UNIQUE INDEX ON score_bench.votes (user_id, post_id) WHERE comment_id IS NULL;
+CREATE INDEX ON score_bench.votes (post_id) WHERE post_id IS NOT NULL;
+
+CREATE TABLE score_bench.post_votes (
+    user_id BIGINT   NOT NULL,
+    post_id BIGINT   NOT NULL,
+    value   SMALLINT NOT NULL,
+    PRIMARY KEY (user_id, post_id)
+);
+
+CREATE INDEX ON score_bench.post_votes (post_id);
+
+-- V2 trigger body, verbatim
+CREATE FUNCTION score_bench.v2_update_post_score()
+RETURNS TRIGGER AS $$
+DECLARE
+    target_post_id BIGINT;
+BEGIN
+    IF (TG_OP = 'DELETE') THEN
+        target_post_id := OLD.post_id;
+    ELSE
+        target_post_id := NEW.post_id;
+    END IF;
+
+    IF target_post_id IS NULL THEN
+        RETURN COALESCE(NEW, OLD);
+    END IF;
+
+    UPDATE posts
+    SET score = COALESCE((
+        SELECT SUM(
+            CASE
+                WHEN vote_type = 'UPVOTE' THEN 1
+                WHEN vote_type = 'DOWNVOTE' THEN -1
+                ELSE 0
+            END
+        )
+        FROM votes
+        WHERE post_id = target_post_id
+    ), 0)
+    WHERE id = target_post_id;
+
+    RETURN COALESCE(NEW, OLD);
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE PROCEDURE score_bench.run(votes_per_post BIGINT, mode TEXT, operations INTEGER)
+LANGUAGE plpgsql AS $$
+DECLARE
+    started  TIMESTAMPTZ;
+    elapsed  INTERVAL;
+    expected INTEGER;
+    actual   INTEGER;
+BEGIN
+    DROP TRIGGER IF EXISTS trg_bench_score ON score_bench.votes;
+    DROP TRIGGER IF EXISTS trg_bench_score ON score_bench.post_votes;
+    TRUNCATE score_bench.votes, score_bench.post_votes, score_bench.posts, score_bench.post_counters;
+
+    INSERT INTO score_bench.posts (id) VALUES (1);
+
+    IF mode = 'recount' THEN
+        INSERT INTO score_bench.votes (user_id, post_id, vote_type)
+        SELECT g, 1, CASE WHEN g % 3 = 0 THEN 'DOWNVOTE' ELSE 'UPVOTE' END
+        FROM generate_series(1, votes_per_post) g;
+        ANALYZE score_bench.votes;
+
+        CREATE TRIGGER trg_bench_score AFTER INSERT OR UPDATE OR DELETE ON score_bench.votes
+        FOR EACH ROW EXECUTE FUNCTION score_bench.v2_update_post_score();
+    ELSE
+        INSERT INTO score_bench.post_votes (user_id, post_id, value)
+        SELECT g, 1, CASE WHEN g % 3 = 0 THEN -1 ELSE 1 END
+        FROM generate_series(1, votes_per_post) g;
+        ANALYZE score_bench.post_votes;
+
+        CREATE TRIGGER trg_bench_score AFTER INSERT OR UPDATE OR DELETE ON score_bench.post_votes
+        FOR EACH ROW EXECUTE FUNCTION public.update_post_score();
+    END IF;
+
+    -- Both loads have the same score: every third vote is a downvote
+    UPDATE score_bench.posts
+    SET score = (SELECT SUM(CASE WHEN g % 3 = 0 THEN -1 ELSE 1 END) FROM generate_series(1, votes_per_post) g)
+    WHERE id = 1;
+
+    started := clock_timestamp();
+    FOR i IN 1..operations LOOP
+        IF mode = 'recount' THEN
+            INSERT INTO score_bench.votes (user_id, post_id, vote_type) VALUES (votes_per_post + i, 1, 'UPVOTE');
+            UPDATE score_bench.votes SET vote_type = 'DOWNVOTE'
+            WHERE user_id = votes_per_post + i AND post_id = 1 AND comment_id IS NULL;
+            DELETE FROM score_bench.votes
+            WHERE user_id = votes_per_post + i AND post_id = 1 AND comment_id IS NULL;
+        ELSE
+            INSERT INTO score_bench.post_votes (user_id, post_id, value) VALUES (votes_per_post + i, 1, 1);
+            UPDATE score_bench.post_votes SET value = -1 WHERE user_id = votes_per_post + i AND post_id = 1;
+            DELETE FROM score_bench.post_votes WHERE user_id = votes_per_post + i AND post_id = 1;
+        END IF;
+    END LOOP;
+    elapsed := clock_timestamp() - started;
+
+    SELECT SUM(CASE WHEN g % 3 = 0 THEN -1 ELSE 1 END) INTO expected FROM generate_series(1, votes_per_post) g;
+    SELECT score INTO actual FROM score_bench.posts WHERE id = 1;
+
+    RAISE NOTICE '% votes/post, % trigger: % us per vote statement (% statements, score %)',
+        lpad(votes_per_post::TEXT, 7), rpad(mode, 7),
+        round((extract(EPOCH FROM elapsed) * 1000000 / (operations * 3))::NUMERIC, 1),
+        operations * 3, CASE WHEN expected = actual THEN 'ok' ELSE 'MISMATCH' END;
+END;
+$$;
+
+CALL score_bench.run(10000, 'recount', 300);
+CALL score_bench.run(10000, 'delta', 3000);
+CALL score_bench.run(100000, 'recount', 50);
+CALL score_bench.run(100000, 'delta', 3000);
+CALL score_bench.run(1000000, 'recount', 10);
+CALL score_bench.run(1000000, 'delta', 3000);
+
+RESET search_path;
+DROP SCHEMA score_bench CASCADE;
@@ -0,0 +1,110 @@
+-- Validates the delta score trigger functions (V8, moved onto post_votes /
+-- comment_votes in V9) against the V2 full-recount semantics on a COPY of
+-- production data. Never run it against production: it attaches triggers
+-- and mutates votes, all inside one transaction that is rolled back at the
+-- end.
+--
+--   psql -d javaddit_copy -f scripts/db/validate_delta_score_triggers.sql
+--   psql -d javaddit_copy -v sample_size=5000 -f scripts/db/validate_delta_score_triggers.sql
+--
+-- Steps: sample voted posts and comments, reset their scores with the V2
+-- recount, attach the delta triggers, run a mixed workload (inserts, type
+-- flips, no-op updates, deletes) and compare every sampled score, including
+-- counter shards, with a fresh recount.
+
+\set ON_ERROR_STOP on
+\if :{?sample_size}
+\else
+    \set sample_size 1000
+\endif
+
+BEGIN;
+
+-- =============================
+-- Sample
+-- =============================
+CREATE TEMP TABLE sample_posts ON COMMIT DROP AS
+SELECT post_id AS id FROM post_votes GROUP BY post_id ORDER BY random() LIMIT :sample_size;
+
+CREATE TEMP TABLE sample_comments ON COMMIT DROP AS
+SELECT comment_id AS id FROM comment_votes GROUP BY comment_id ORDER BY random() LIMIT :sample_size;
+
+CREATE TEMP TABLE sample_users ON COMMIT DROP AS
+SELECT id FROM users ORDER BY random() LIMIT 50;
+
+-- =============================
+-- Baseline: V2 semantics
+-- =============================
+SELECT count(recount_post_score(id)) AS recounted_posts FROM sample_posts;
+SELECT count(recount_comment_score(id)) AS recounted_comments FROM sample_comments;
+
+-- =============================
+-- Attach the delta triggers (this transaction only)
+-- =============================
+CREATE TRIGGER trg_validate_post_votes_score
+AFTER INSERT OR UPDATE OR DELETE ON post_votes
+FOR EACH ROW EXECUTE FUNCTION update_post_score();
+
+CREATE TRIGGER trg_validate_comment_votes_score
+AFTER INSERT OR UPDATE OR DELETE ON comment_votes
+FOR EACH ROW EXECUTE FUNCTION update_comment_score();
+
+-- =============================
+-- Workload
+-- =============================
+UPDATE post_votes SET value = -value WHERE post_id IN (SELECT id FROM sample_posts) AND random() < 0.2;
+UPDATE comment_votes SET value = -value WHERE comment_id IN (SELECT id FROM sample_comments) AND random() < 0.2;
+
+UPDATE post_votes SET value = value WHERE post_id IN (SELECT id FROM sample_posts) AND random() < 0.05;
+UPDATE comment_votes SET value = value WHERE comment_id IN (SELECT id FROM sample_comments) AND random() < 0.05;
+
+DELETE FROM post_votes WHERE post_id IN (SELECT id FROM sample_posts) AND random() < 0.1;
+DELETE FROM comment_votes WHERE comment_id IN (SELECT id FROM sample_comments) AND random() < 0.1;
+
+INSERT INTO post_votes (user_id, post_id, value)
+SELECT u.id, s.id, CASE WHEN random() < 0.7 THEN 1 ELSE -1 END
+FROM sample_posts s CROSS JOIN sample_users u
+WHERE random() < 0.1
+ON CONFLICT DO NOTHING;
+
+INSERT INTO comment_votes (user_id, comment_id, value)
+SELECT u.id, s.id, CASE WHEN random() < 0.7 THEN 1 ELSE -1 END
+FROM sample_comments s CROSS JOIN sample_users u
+WHERE random() < 0.1
+ON CONFLICT DO NOTHING;
+
+UPDATE post_votes SET value = -value WHERE post_id IN (SELECT id FROM sample_posts) AND random() < 0.2;
+UPDATE comment_votes SET value = -value WHERE comment_id IN (SELECT id FROM sample_comments) AND random() < 0.2;
+
+-- =============================
+-- Compare with V2 semantics
+-- =============================
+CREATE TEMP TABLE score_mismatches ON COMMIT DROP AS
+SELECT 'POST' AS target_type, p.id,
+       p.score + COALESCE(c.score_delta, 0) AS delta_score,
+       COALESCE(v.recount, 0) AS recount
+FROM sample_posts s
+JOIN posts p ON p.id = s.id
+LEFT JOIN (SELECT post_id, SUM(score_delta) AS score_delta FROM post_counters GROUP BY post_id) c ON c.post_id = p.id
+LEFT JOIN (SELECT post_id, SUM(value) AS recount FROM post_votes GROUP BY post_id) v ON v.post_id = p.id
+WHERE p.score + COALESCE(c.score_delta, 0) <> COALESCE(v.recount, 0)
+UNION ALL
+SELECT 'COMMENT', cm.id, cm.score + COALESCE(c.score_delta, 0), COALESCE(v.recount, 0)
+FROM sample_comments s
+JOIN comments cm ON cm.id = s.id
+LEFT JOIN (SELECT comment_id, SUM(score_delta) AS score_delta FROM comment_counters GROUP BY comment_id) c
+    ON c.comment_id = cm.id
+LEFT JOIN (SELECT comment_id, SUM(value) AS recount FROM comment_votes GROUP BY comment_id) v
+    ON v.comment_id = cm.id
+WHERE cm.score + COALESCE(c.score_delta, 0) <> COALESCE(v.recount, 0);
+
+SELECT count(*) = 0 AS valid, count(*) AS mismatches FROM score_mismatches \gset
+
+\if :valid
+    \echo 'OK: delta triggers match the full recount on every sampled post and comment'
+\else
+    \echo 'FAILED:' :mismatches 'sampled targets differ from the full recount'
+    SELECT * FROM score_mismatches ORDER BY target_type, id LIMIT 20;
+\endif
+
+ROLLBACK;
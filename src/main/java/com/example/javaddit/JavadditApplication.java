@@ -1,12 +1,52 @@
 package com.example.javaddit;
 
 import com.example.javaddit.core.security.JwtProperties;
+import com.example.javaddit.features.community.service.CommunitySuggestProperties;
+import com.example.javaddit.features.community.trending.TrendingProperties;
+import com.example.javaddit.features.feed.service.HomeTimelineProperties;
+import com.example.javaddit.features.post.ranking.HotRankingProperties;
+import com.example.javaddit.features.post.ranking.RankingSnapshotProperties;
+import com.example.javaddit.features.post.ranking.RisingRankingProperties;
+import com.example.javaddit.features.post.ranking.TopRankingProperties;
+import com.example.javaddit.features.post.service.CommunityFeedCacheProperties;
+import com.example.javaddit.features.post.service.PostFeedProperties;
+import com.example.javaddit.features.post.views.PostViewProperties;
+import com.example.javaddit.features.search.service.SearchProperties;
+import com.example.javaddit.features.user.service.BlockListCacheProperties;
+import com.example.javaddit.features.vote.journal.VoteJournalProperties;
+import com.example.javaddit.features.vote.service.ScoreReconciliationProperties;
+import com.example.javaddit.features.vote.service.ShardedCounterProperties;
+import com.example.javaddit.features.vote.service.UserVoteCacheProperties;
+import com.example.javaddit.features.vote.service.VotePartitioningProperties;
+import com.example.javaddit.features.vote.service.VoteWriteBehindProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
-@EnableConfigurationProperties(JwtProperties.class)
+@EnableScheduling
+@EnableConfigurationProperties({
+        JwtProperties.class,
+        VoteWriteBehindProperties.class,
+        UserVoteCacheProperties.class,
+        ShardedCounterProperties.class,
+        VoteJournalProperties.class,
+        ScoreReconciliationProperties.class,
+        VotePartitioningProperties.class,
+        PostFeedProperties.class,
+        HotRankingProperties.class,
+        TopRankingProperties.class,
+        RisingRankingProperties.class,
+        RankingSnapshotProperties.class,
+        CommunityFeedCacheProperties.class,
+        HomeTimelineProperties.class,
+        BlockListCacheProperties.class,
+        SearchProperties.class,
+        CommunitySuggestProperties.class,
+        TrendingProperties.class,
+        PostViewProperties.class
+})
 public class JavadditApplication {
     public static void main(String[] args) {
         SpringApplication.run(JavadditApplication.class, args);
@@ -0,0 +1,42 @@
+package com.example.javaddit.core.util;
+
+import lombok.experimental.UtilityClass;
+
+import java.text.Normalizer;
+
+/**
+ * Utility class for folding free text to lowercase ASCII letters and digits, shared by post slugs
+ * and search terms so both treat accents and case the same way.
+ */
+@UtilityClass
+public class TextFolding {
+
+    /**
+     * Splits accented letters into the base letter and its combining marks (NFD); ASCII text is
+     * returned as is without normalizing.
+     *
+     * @param text the text to fold
+     * @return the decomposed text
+     */
+    public static String decompose(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 128) {
+                return Normalizer.normalize(text, Normalizer.Form.NFD);
+            }
+        }
+        return text;
+    }
+
+    /**
+     * Folds one character of decomposed text.
+     *
+     * @param c the character
+     * @return the lowercase ASCII letter or digit, or 0 for any other character
+     */
+    public static char lowerAlphanumeric(char c) {
+        if (c >= 'A' && c <= 'Z') {
+            return (char) (c + ('a' - 'A'));
+        }
+        return (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') ? c : 0;
+    }
+}
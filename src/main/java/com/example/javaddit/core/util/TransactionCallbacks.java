@@ -0,0 +1,31 @@
+package com.example.javaddit.core.util;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Utility class for deferring in-memory side effects of a write until its transaction commits,
+ * so caches, rankings and counters never reflect a rolled back change.
+ */
+@UtilityClass
+public class TransactionCallbacks {
+
+    /**
+     * Runs the action after the current transaction commits, or right away outside a transaction.
+     *
+     * @param action the side effect; skipped if the transaction rolls back
+     */
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -21,8 +21,10 @@ public class CommentController {
     private final CommentService commentService;
 
     @GetMapping
-    public ResponseEntity<List<CommentResponse>> getComments(@PathVariable Long postId) {
-        List<CommentResponse> comments = commentService.getCommentsByPostId(postId);
+    public ResponseEntity<List<CommentResponse>> getComments(@PathVariable Long postId,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        List<CommentResponse> comments = commentService.getCommentsByPostId(postId,
+                principal != null ? principal.getId() : null);
         return ResponseEntity.ok(comments);
     }
 
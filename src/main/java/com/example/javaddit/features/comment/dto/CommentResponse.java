@@ -1,5 +1,6 @@
 package com.example.javaddit.features.comment.dto;
 
+import com.example.javaddit.features.vote.entity.VoteType;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -19,4 +20,5 @@ public class CommentResponse {
     private Integer score;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private VoteType myVote;  // null if the current user has not voted
 }
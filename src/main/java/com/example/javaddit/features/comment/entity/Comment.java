@@ -39,7 +39,8 @@ public class Comment {
     @Column(nullable = false, columnDefinition = "TEXT")
     private String content;
 
-    @Column(nullable = false)
+    // Maintained by VoteScoreAggregator flushes; never written back from a loaded entity
+    @Column(nullable = false, updatable = false)
     private Integer score = 0;
 
     @CreationTimestamp
@@ -11,8 +11,15 @@
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-    @Query("SELECT c FROM Comment c WHERE c.post.id = :postId ORDER BY c.createdAt ASC")
-    List<Comment> findByPostIdOrderByCreatedAtAsc(@Param("postId") Long postId);
+    // One statement per thread: the author's username and the parent id come from joins, not lazy loads
+    @Query("""
+            SELECT new com.example.javaddit.features.comment.repository.CommentView(
+                c.id, c.post.id, a.id, a.username, parent.id, c.content, c.score, c.createdAt, c.updatedAt)
+            FROM Comment c JOIN c.author a LEFT JOIN c.parent parent
+            WHERE c.post.id = :postId
+            ORDER BY c.createdAt ASC
+            """)
+    List<CommentView> findViewsByPostId(@Param("postId") Long postId);
 
     @Query("SELECT c.score FROM Comment c WHERE c.id = :commentId")
     Integer findScoreById(@Param("commentId") Long commentId);
@@ -0,0 +1,28 @@
+package com.example.javaddit.features.comment.repository;
+
+import com.example.javaddit.features.comment.entity.Comment;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns of a comment that read endpoints return, selected together with the author's
+ * username so that listing a thread loads neither the authors nor their roles.
+ */
+public record CommentView(
+        Long id,
+        Long postId,
+        Long authorId,
+        String authorUsername,
+        Long parentId,
+        String content,
+        Integer score,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {
+
+    public static CommentView of(Comment comment) {
+        return new CommentView(comment.getId(), comment.getPost().getId(), comment.getAuthor().getId(),
+                comment.getAuthor().getUsername(), comment.getParent() != null ? comment.getParent().getId() : null,
+                comment.getContent(), comment.getScore(), comment.getCreatedAt(), comment.getUpdatedAt());
+    }
+}
@@ -6,15 +6,27 @@
 import com.example.javaddit.features.comment.dto.CommentResponse;
 import com.example.javaddit.features.comment.entity.Comment;
 import com.example.javaddit.features.comment.repository.CommentRepository;
+import com.example.javaddit.features.comment.repository.CommentView;
+import com.example.javaddit.features.community.trending.TrendingCommunities;
 import com.example.javaddit.features.post.entity.Post;
 import com.example.javaddit.features.post.repository.PostRepository;
+import com.example.javaddit.features.search.service.SearchIndexer;
 import com.example.javaddit.features.user.entity.User;
 import com.example.javaddit.features.user.repository.UserRepository;
+import com.example.javaddit.features.user.service.BlockListCache;
+import com.example.javaddit.features.user.service.BlockedUsers;
+import com.example.javaddit.features.vote.entity.VoteTargetType;
+import com.example.javaddit.features.vote.entity.VoteType;
+import com.example.javaddit.features.vote.repository.CounterShardTotals;
+import com.example.javaddit.features.vote.service.VoteScoreAggregator;
+import com.example.javaddit.features.vote.service.ShardedCounterService;
+import com.example.javaddit.features.vote.service.VoteService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,21 +36,32 @@ public class CommentService {
     private final CommentRepository commentRepository;
     private final PostRepository postRepository;
     private final UserRepository userRepository;
+    private final VoteScoreAggregator scoreAggregator;
+    private final VoteService voteService;
+    private final ShardedCounterService shardedCounters;
+    private final BlockListCache blockListCache;
+    private final SearchIndexer searchIndexer;
+    private final TrendingCommunities trendingCommunities;
 
     @Transactional(readOnly = true)
-    public List<CommentResponse> getCommentsByPostId(Long postId) {
+    public List<CommentResponse> getCommentsByPostId(Long postId, Long viewerId) {
         if (postId == null) {
             throw new ValidationException("Post ID cannot be null");
         }
 
-        postRepository.findById(postId)
-                .orElseThrow(() -> new NotFoundException("Post not found: " + postId));
-
-        List<Comment> comments = commentRepository.findByPostIdOrderByCreatedAtAsc(postId);
+        if (!postRepository.existsById(postId)) {
+            throw new NotFoundException("Post not found: " + postId);
+        }
 
-        return comments.stream()
+        // Comments by authors the viewer blocked are left out; replies to them stay
+        BlockedUsers blocked = blockListCache.blockedBy(viewerId);
+        List<CommentResponse> responses = commentRepository.findViewsByPostId(postId).stream()
+                .filter(comment -> !blocked.contains(comment.authorId()))
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
+        applyCounterShards(responses);
+        applyViewerVotes(responses, viewerId);
+        return responses;
     }
 
     @Transactional
@@ -74,19 +97,43 @@ public CommentResponse createComment(Long authorId, Long postId, CommentRequest
         comment.setContent(request.getContent());
 
         Comment saved = commentRepository.save(comment);
-        return mapToResponse(saved);
+        shardedCounters.recordActivity(VoteTargetType.POST, postId);
+        trendingCommunities.recordComment(post.getCommunity().getId());
+        searchIndexer.indexComment(saved.getId(), postId, post.getCommunity().getId(), saved.getContent());
+        return mapToResponse(CommentView.of(saved));
+    }
+
+    private void applyCounterShards(List<CommentResponse> responses) {
+        List<Long> commentIds = responses.stream().map(CommentResponse::getId).toList();
+        Map<Long, CounterShardTotals> totals = shardedCounters.findTotals(VoteTargetType.COMMENT, commentIds);
+        for (CommentResponse response : responses) {
+            CounterShardTotals shardTotals = totals.get(response.getId());
+            if (shardTotals != null) {
+                response.setScore(response.getScore() + shardTotals.scoreDelta());
+            }
+        }
+    }
+
+    private void applyViewerVotes(List<CommentResponse> responses, Long viewerId) {
+        if (viewerId == null || responses.isEmpty()) {
+            return;
+        }
+        List<Long> commentIds = responses.stream().map(CommentResponse::getId).toList();
+        Map<Long, VoteType> votes = voteService.findVotesByUserAndTargets(viewerId, VoteTargetType.COMMENT,
+                commentIds);
+        responses.forEach(response -> response.setMyVote(votes.get(response.getId())));
     }
 
-    private CommentResponse mapToResponse(Comment comment) {
+    private CommentResponse mapToResponse(CommentView comment) {
         CommentResponse response = new CommentResponse();
-        response.setId(comment.getId());
-        response.setPostId(comment.getPost().getId());
-        response.setAuthorUsername(comment.getAuthor().getUsername());
-        response.setParentId(comment.getParent() != null ? comment.getParent().getId() : null);
-        response.setContent(comment.getContent());
-        response.setScore(comment.getScore());
-        response.setCreatedAt(comment.getCreatedAt());
-        response.setUpdatedAt(comment.getUpdatedAt());
+        response.setId(comment.id());
+        response.setPostId(comment.postId());
+        response.setAuthorUsername(comment.authorUsername());
+        response.setParentId(comment.parentId());
+        response.setContent(comment.content());
+        response.setScore(scoreAggregator.mergedScore(VoteTargetType.COMMENT, comment.id(), comment.score()));
+        response.setCreatedAt(comment.createdAt());
+        response.setUpdatedAt(comment.updatedAt());
         return response;
     }
 }
@@ -2,6 +2,8 @@
 
 import com.example.javaddit.features.community.dto.CommunityRequest;
 import com.example.javaddit.features.community.dto.CommunityResponse;
+import com.example.javaddit.features.community.dto.CommunitySuggestionResponse;
+import com.example.javaddit.features.community.dto.TrendingCommunityResponse;
 import com.example.javaddit.features.community.service.CommunityService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -24,6 +26,18 @@ public ResponseEntity<List<CommunityResponse>> getAllCommunities() {
         return ResponseEntity.ok(communities);
     }
 
+    @GetMapping("/suggest")
+    public ResponseEntity<List<CommunitySuggestionResponse>> suggestCommunities(
+            @RequestParam(defaultValue = "") String prefix,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(communityService.suggestCommunities(prefix, limit));
+    }
+
+    @GetMapping("/trending")
+    public ResponseEntity<List<TrendingCommunityResponse>> getTrendingCommunities() {
+        return ResponseEntity.ok(communityService.getTrendingCommunities());
+    }
+
     @GetMapping("/{name}")
     public ResponseEntity<CommunityResponse> getCommunityByName(@PathVariable String name) {
         CommunityResponse community = communityService.getCommunityByName(name);
@@ -0,0 +1,14 @@
+package com.example.javaddit.features.community.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommunitySuggestionResponse {
+
+    private String name;
+    private String title;
+}
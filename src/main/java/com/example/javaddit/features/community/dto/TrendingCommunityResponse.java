@@ -0,0 +1,22 @@
+package com.example.javaddit.features.community.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for one trending community. Counts cover the trending window, {@code score} weighs them by
+ * type and age.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendingCommunityResponse {
+
+    private String name;
+    private String title;
+    private double score;
+    private long posts;
+    private long comments;
+    private long votes;
+}
@@ -0,0 +1,7 @@
+package com.example.javaddit.features.community.repository;
+
+/**
+ * A community with the number of posts it received recently, the ranking for name suggestions.
+ */
+public record CommunityActivity(String name, String title, long activity) {
+}
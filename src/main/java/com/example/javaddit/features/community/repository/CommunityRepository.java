@@ -2,8 +2,12 @@
 
 import com.example.javaddit.features.community.entity.Community;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +16,13 @@ public interface CommunityRepository extends JpaRepository<Community, Long> {
     Optional<Community> findByName(String name);
 
     boolean existsByName(String name);
+
+    // Post counts come from posts_community_created_at_idx, one range per community.
+    @Query("""
+            SELECT new com.example.javaddit.features.community.repository.CommunityActivity(
+                c.name, c.title, COUNT(p.id))
+            FROM Community c LEFT JOIN Post p ON p.community = c AND p.createdAt >= :since
+            GROUP BY c.id, c.name, c.title
+            """)
+    List<CommunityActivity> findActivitySince(@Param("since") LocalDateTime since);
 }
@@ -0,0 +1,163 @@
+package com.example.javaddit.features.community.service;
+
+import com.example.javaddit.features.community.repository.CommunityActivity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable prefix index over community names, ranked by activity.
+ * <p>
+ * Names are kept sorted, so the names under any prefix, i.e. any node of the implied trie, are one
+ * contiguous range found by two binary searches. Ranges of at most {@link #SCAN_LIMIT} names are
+ * ranked by scanning them. The few prefixes with wider ranges have their top names precomputed,
+ * so no lookup touches more than {@code SCAN_LIMIT} entries.
+ */
+final class CommunityPrefixIndex {
+
+    static final CommunityPrefixIndex EMPTY = build(List.of(), 1);
+
+    private static final int SCAN_LIMIT = 256;
+
+    private final String[] names;
+    private final String[] titles;
+    private final long[] activity;
+    private final int width;
+    private final Map<String, int[]> widePrefixes = new HashMap<>();
+
+    private CommunityPrefixIndex(String[] names, String[] titles, long[] activity, int width) {
+        this.names = names;
+        this.titles = titles;
+        this.activity = activity;
+        this.width = width;
+        collectWidePrefixes(0, 0, names.length);
+    }
+
+    /**
+     * @param width suggestions kept per wide prefix, the most a lookup can return
+     */
+    static CommunityPrefixIndex build(List<CommunityActivity> communities, int width) {
+        CommunityActivity[] sorted = communities.toArray(new CommunityActivity[0]);
+        Arrays.sort(sorted, Comparator.comparing(CommunityActivity::name));
+        String[] names = new String[sorted.length];
+        String[] titles = new String[sorted.length];
+        long[] activity = new long[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            names[i] = sorted[i].name();
+            titles[i] = sorted[i].title();
+            activity[i] = sorted[i].activity();
+        }
+        return new CommunityPrefixIndex(names, titles, activity, width);
+    }
+
+    int size() {
+        return names.length;
+    }
+
+    boolean contains(String name) {
+        return Arrays.binarySearch(names, name) >= 0;
+    }
+
+    /**
+     * A copy of this index with the given communities added; names already indexed are skipped.
+     */
+    CommunityPrefixIndex with(List<CommunityActivity> added) {
+        List<CommunityActivity> communities = new ArrayList<>(names.length + added.size());
+        for (int i = 0; i < names.length; i++) {
+            communities.add(new CommunityActivity(names[i], titles[i], activity[i]));
+        }
+        for (CommunityActivity community : added) {
+            if (!contains(community.name())) {
+                communities.add(community);
+            }
+        }
+        return build(communities, width);
+    }
+
+    /**
+     * Up to {@code limit} names starting with {@code prefix}, most active first, then by name.
+     *
+     * @param prefix lowercase, as names are stored
+     */
+    List<CommunityActivity> suggest(String prefix, int limit) {
+        int lo = lowerBound(prefix);
+        int hi = lowerBound(prefix + Character.MAX_VALUE);
+        int[] top = hi - lo > SCAN_LIMIT ? widePrefixes.get(prefix) : top(lo, hi, limit);
+
+        int count = Math.min(top.length, limit);
+        List<CommunityActivity> suggestions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            suggestions.add(new CommunityActivity(names[top[i]], titles[top[i]], activity[top[i]]));
+        }
+        return suggestions;
+    }
+
+    /**
+     * Precompute the top names of every prefix with more than {@code SCAN_LIMIT} names, walking
+     * the implied trie one character at a time from the names in [lo, hi) sharing {@code depth}
+     * leading characters.
+     */
+    private void collectWidePrefixes(int depth, int lo, int hi) {
+        if (hi - lo <= SCAN_LIMIT) {
+            return;
+        }
+        widePrefixes.put(names[lo].substring(0, depth), top(lo, hi, width));
+
+        int i = lo;
+        // A name equal to the prefix sorts first and has no next character
+        if (names[i].length() == depth) {
+            i++;
+        }
+        while (i < hi) {
+            char next = names[i].charAt(depth);
+            int end = i + 1;
+            while (end < hi && names[end].charAt(depth) == next) {
+                end++;
+            }
+            collectWidePrefixes(depth + 1, i, end);
+            i = end;
+        }
+    }
+
+    /**
+     * Indices of the {@code limit} most active names in [lo, hi). Ties keep name order, as a lower
+     * index only gives way to strictly higher activity.
+     */
+    private int[] top(int lo, int hi, int limit) {
+        int[] best = new int[Math.max(0, Math.min(limit, hi - lo))];
+        if (best.length == 0) {
+            return best;
+        }
+        int count = 0;
+        for (int i = lo; i < hi; i++) {
+            if (count == best.length && activity[i] <= activity[best[count - 1]]) {
+                continue;
+            }
+            int slot = count < best.length ? count++ : count - 1;
+            while (slot > 0 && activity[best[slot - 1]] < activity[i]) {
+                best[slot] = best[slot - 1];
+                slot--;
+            }
+            best[slot] = i;
+        }
+        return best;
+    }
+
+    private int lowerBound(String key) {
+        int lo = 0;
+        int hi = names.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (names[mid].compareTo(key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -5,8 +5,11 @@
 import com.example.javaddit.core.exception.ValidationException;
 import com.example.javaddit.features.community.dto.CommunityRequest;
 import com.example.javaddit.features.community.dto.CommunityResponse;
+import com.example.javaddit.features.community.dto.CommunitySuggestionResponse;
+import com.example.javaddit.features.community.dto.TrendingCommunityResponse;
 import com.example.javaddit.features.community.entity.Community;
 import com.example.javaddit.features.community.repository.CommunityRepository;
+import com.example.javaddit.features.community.trending.TrendingCommunities;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,6 +22,8 @@
 public class CommunityService {
 
     private final CommunityRepository communityRepository;
+    private final CommunitySuggestions communitySuggestions;
+    private final TrendingCommunities trendingCommunities;
 
     @Transactional(readOnly = true)
     public List<CommunityResponse> getAllCommunities() {
@@ -39,6 +44,25 @@ public CommunityResponse getCommunityByName(String name) {
         return mapToResponse(community);
     }
 
+    /**
+     * Communities whose name starts with the prefix, most active first. Served from memory.
+     */
+    public List<CommunitySuggestionResponse> suggestCommunities(String prefix, Integer limit) {
+        return communitySuggestions.suggest(prefix, limit).stream()
+                .map(community -> new CommunitySuggestionResponse(community.name(), community.title()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * The latest trending snapshot, most active first. Served from memory.
+     */
+    public List<TrendingCommunityResponse> getTrendingCommunities() {
+        return trendingCommunities.trending().stream()
+                .map(community -> new TrendingCommunityResponse(community.name(), community.title(),
+                        community.score(), community.posts(), community.comments(), community.votes()))
+                .collect(Collectors.toList());
+    }
+
     @Transactional
     public CommunityResponse createCommunity(CommunityRequest request) {
         if (communityRepository.existsByName(request.getName())) {
@@ -52,6 +76,7 @@ public CommunityResponse createCommunity(CommunityRequest request) {
         community.setIsNsfw(Boolean.TRUE.equals(request.getIsNsfw()));
 
         Community saved = communityRepository.save(community);
+        communitySuggestions.recordCommunity(saved.getName(), saved.getTitle());
         return mapToResponse(saved);
     }
 
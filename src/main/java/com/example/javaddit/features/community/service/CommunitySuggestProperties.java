@@ -0,0 +1,21 @@
+package com.example.javaddit.features.community.service;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Tuning for {@link CommunitySuggestions}.
+ *
+ * @param maxSuggestions     suggestions per prefix at most, and the default
+ * @param activityWindowDays days of posts counted as the activity of a community
+ * @param refreshIntervalMs  delay between two reloads of the communities and their activity
+ */
+@ConfigurationProperties(prefix = "app.communities.suggest")
+@Validated
+public record CommunitySuggestProperties(
+        @Positive int maxSuggestions,
+        @Positive int activityWindowDays,
+        @Positive long refreshIntervalMs
+) {
+}
@@ -0,0 +1,87 @@
+package com.example.javaddit.features.community.service;
+
+import com.example.javaddit.core.util.TransactionCallbacks;
+import com.example.javaddit.features.community.repository.CommunityActivity;
+import com.example.javaddit.features.community.repository.CommunityRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Community name suggestions, served from a {@link CommunityPrefixIndex} without touching the
+ * database.
+ * <p>
+ * The index is reloaded with fresh activity every {@code refresh-interval-ms}. Communities created
+ * through this instance are added after commit, and kept aside until a reload has seen them, so a
+ * reload that started before their commit does not drop them.
+ */
+@Component
+@Slf4j
+public class CommunitySuggestions {
+
+    private final CommunityRepository communityRepository;
+    private final CommunitySuggestProperties properties;
+
+    private volatile CommunityPrefixIndex index = CommunityPrefixIndex.EMPTY;
+    // Guarded by this
+    private final List<CommunityActivity> added = new ArrayList<>();
+
+    public CommunitySuggestions(CommunityRepository communityRepository, CommunitySuggestProperties properties) {
+        this.communityRepository = communityRepository;
+        this.properties = properties;
+    }
+
+    /**
+     * @param limit suggestions wanted, {@code max-suggestions} when null
+     */
+    public List<CommunityActivity> suggest(String prefix, Integer limit) {
+        int size = limit == null ? properties.maxSuggestions()
+                : Math.clamp(limit, 1, properties.maxSuggestions());
+        String key = prefix == null ? "" : prefix.trim().toLowerCase(Locale.ROOT);
+        return index.suggest(key, size);
+    }
+
+    /**
+     * Add a new community once the current transaction commits.
+     */
+    public void recordCommunity(String name, String title) {
+        TransactionCallbacks.afterCommit(() -> {
+            CommunityActivity community = new CommunityActivity(name, title, 0);
+            synchronized (this) {
+                added.add(community);
+                index = index.with(List.of(community));
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${app.communities.suggest.refresh-interval-ms}",
+            initialDelayString = "${app.communities.suggest.refresh-interval-ms}")
+    public void refresh() {
+        List<CommunityActivity> communities;
+        try {
+            communities = communityRepository.findActivitySince(
+                    LocalDateTime.now().minusDays(properties.activityWindowDays()));
+        } catch (DataAccessException ex) {
+            log.warn("Could not load communities for name suggestions: {}", ex.getMessage());
+            return;
+        }
+        CommunityPrefixIndex loaded = CommunityPrefixIndex.build(communities, properties.maxSuggestions());
+        synchronized (this) {
+            added.removeIf(community -> loaded.contains(community.name()));
+            index = added.isEmpty() ? loaded : loaded.with(added);
+        }
+    }
+}
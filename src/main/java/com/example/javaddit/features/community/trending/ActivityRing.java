@@ -0,0 +1,73 @@
+package com.example.javaddit.features.community.trending;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-minute activity counters of one community over a sliding window, one bucket per minute.
+ * <p>
+ * Each slot holds the minute it counts in its upper 32 bits and the count in the lower 32, so a
+ * bucket left over from an earlier lap of the ring is recognised and restarted by the same
+ * compare-and-set that counts the new event. Writers never lock, and readers skip stale buckets.
+ */
+final class ActivityRing {
+
+    private static final int TYPES = ActivityType.values().length;
+    private static final long COUNT_MASK = 0xFFFF_FFFFL;
+
+    private final int buckets;
+    private final AtomicLongArray slots;
+
+    ActivityRing(int buckets) {
+        this.buckets = buckets;
+        this.slots = new AtomicLongArray(buckets * TYPES);
+    }
+
+    /**
+     * @param minute minutes since the epoch
+     */
+    void record(ActivityType type, long minute) {
+        long stamp = minute << 32;
+        slots.getAndUpdate(slot(minute, type), current -> (current & ~COUNT_MASK) == stamp ? current + 1 : stamp | 1);
+    }
+
+    /**
+     * Decayed, weighted activity of the window ending at {@code minute}. The undecayed counts per
+     * type are added to {@code totals}.
+     *
+     * @param decay weight of a bucket by its age in minutes, one entry per bucket
+     */
+    double score(long minute, double[] decay, long[] totals) {
+        double score = 0;
+        for (long age = 0; age < buckets; age++) {
+            for (ActivityType type : ActivityType.values()) {
+                long count = countAt(minute - age, type);
+                totals[type.ordinal()] += count;
+                score += count * type.weight() * decay[(int) age];
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Whether nothing was counted in the window ending at {@code minute}.
+     */
+    boolean isIdle(long minute) {
+        for (long age = 0; age < buckets; age++) {
+            for (ActivityType type : ActivityType.values()) {
+                if (countAt(minute - age, type) > 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private long countAt(long minute, ActivityType type) {
+        long current = slots.get(slot(minute, type));
+        return current >>> 32 == minute ? current & COUNT_MASK : 0;
+    }
+
+    private int slot(long minute, ActivityType type) {
+        return (int) (minute % buckets) * TYPES + type.ordinal();
+    }
+}
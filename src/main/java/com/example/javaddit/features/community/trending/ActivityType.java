@@ -0,0 +1,22 @@
+package com.example.javaddit.features.community.trending;
+
+/**
+ * Kinds of community activity counted for trending, with their weight in the trending score.
+ * A post is rarer than a comment, and a comment takes more effort than a vote.
+ */
+enum ActivityType {
+
+    POST(4),
+    COMMENT(2),
+    VOTE(1);
+
+    private final int weight;
+
+    ActivityType(int weight) {
+        this.weight = weight;
+    }
+
+    int weight() {
+        return weight;
+    }
+}
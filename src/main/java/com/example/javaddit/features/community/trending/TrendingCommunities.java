@@ -0,0 +1,129 @@
+package com.example.javaddit.features.community.trending;
+
+import com.example.javaddit.core.util.TransactionCallbacks;
+import com.example.javaddit.features.community.entity.Community;
+import com.example.javaddit.features.community.repository.CommunityRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Trending communities, ranked by posts, comments and votes of the last {@code window-minutes},
+ * with recent minutes weighing more.
+ * <p>
+ * Activity is counted after commit into one {@link ActivityRing} per community. Every
+ * {@code recompute-interval-ms} the rings are scored into an immutable snapshot that readers get
+ * without locking. Rings of communities with no activity in the window are dropped then, so memory
+ * follows the number of active communities. An event racing with that drop is lost, which a
+ * trending list can afford. Counters are not persisted; after a restart the list fills up again
+ * within the window.
+ */
+@Component
+@Slf4j
+public class TrendingCommunities {
+
+    private static final Comparator<Candidate> BY_SCORE = Comparator.comparingDouble(Candidate::score);
+
+    private final CommunityRepository communityRepository;
+    private final TrendingProperties properties;
+    private final double[] decay;
+
+    private final ConcurrentHashMap<Long, ActivityRing> rings = new ConcurrentHashMap<>();
+    private volatile List<TrendingCommunity> trending = List.of();
+
+    public TrendingCommunities(CommunityRepository communityRepository, TrendingProperties properties) {
+        this.communityRepository = communityRepository;
+        this.properties = properties;
+        this.decay = new double[properties.windowMinutes()];
+        for (int age = 0; age < decay.length; age++) {
+            decay[age] = Math.pow(0.5, age / properties.halfLifeMinutes());
+        }
+    }
+
+    public List<TrendingCommunity> trending() {
+        return trending;
+    }
+
+    public void recordPost(long communityId) {
+        record(communityId, ActivityType.POST);
+    }
+
+    public void recordComment(long communityId) {
+        record(communityId, ActivityType.COMMENT);
+    }
+
+    public void recordVote(long communityId) {
+        record(communityId, ActivityType.VOTE);
+    }
+
+    @Scheduled(fixedDelayString = "${app.communities.trending.recompute-interval-ms}",
+            initialDelayString = "${app.communities.trending.recompute-interval-ms}")
+    public void recompute() {
+        long minute = currentMinute();
+        PriorityQueue<Candidate> top = new PriorityQueue<>(properties.size() + 1, BY_SCORE);
+        rings.forEach((communityId, ring) -> {
+            if (ring.isIdle(minute)) {
+                rings.remove(communityId, ring);
+                return;
+            }
+            long[] counts = new long[ActivityType.values().length];
+            top.add(new Candidate(communityId, ring.score(minute, decay, counts), counts));
+            if (top.size() > properties.size()) {
+                top.poll();
+            }
+        });
+
+        List<Candidate> ranked = new ArrayList<>(top);
+        ranked.sort(BY_SCORE.reversed());
+        Map<Long, Community> communities;
+        try {
+            communities = communityRepository.findAllById(ranked.stream().map(Candidate::communityId).toList())
+                    .stream()
+                    .collect(Collectors.toMap(Community::getId, Function.identity()));
+        } catch (DataAccessException ex) {
+            log.warn("Could not load trending communities, keeping the previous list: {}", ex.getMessage());
+            return;
+        }
+
+        List<TrendingCommunity> snapshot = new ArrayList<>(ranked.size());
+        for (Candidate candidate : ranked) {
+            Community community = communities.get(candidate.communityId());
+            // Deleted since its activity was counted
+            if (community == null) {
+                continue;
+            }
+            long[] counts = candidate.counts();
+            snapshot.add(new TrendingCommunity(community.getName(), community.getTitle(), candidate.score(),
+                    counts[ActivityType.POST.ordinal()], counts[ActivityType.COMMENT.ordinal()],
+                    counts[ActivityType.VOTE.ordinal()]));
+        }
+        trending = List.copyOf(snapshot);
+    }
+
+    private void record(long communityId, ActivityType type) {
+        TransactionCallbacks.afterCommit(() -> {
+            ActivityRing ring = rings.get(communityId);
+            if (ring == null) {
+                ring = rings.computeIfAbsent(communityId, id -> new ActivityRing(properties.windowMinutes()));
+            }
+            ring.record(type, currentMinute());
+        });
+    }
+
+    private long currentMinute() {
+        return System.currentTimeMillis() / 60_000;
+    }
+
+    private record Candidate(long communityId, double score, long[] counts) {
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.javaddit.features.community.trending;
+
+/**
+ * One community of the trending snapshot, with its activity over the window.
+ */
+public record TrendingCommunity(String name, String title, double score, long posts, long comments, long votes) {
+}
@@ -0,0 +1,23 @@
+package com.example.javaddit.features.community.trending;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Tuning for {@link TrendingCommunities}.
+ *
+ * @param windowMinutes       minutes of activity counted, one counter bucket each
+ * @param halfLifeMinutes     age at which activity counts half as much as activity of this minute
+ * @param size                communities in the trending snapshot
+ * @param recomputeIntervalMs delay between two recomputations of the snapshot
+ */
+@ConfigurationProperties(prefix = "app.communities.trending")
+@Validated
+public record TrendingProperties(
+        @Positive int windowMinutes,
+        @Positive double halfLifeMinutes,
+        @Positive int size,
+        @Positive long recomputeIntervalMs
+) {
+}
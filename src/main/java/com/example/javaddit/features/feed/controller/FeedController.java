@@ -0,0 +1,26 @@
+package com.example.javaddit.features.feed.controller;
+
+import com.example.javaddit.core.security.UserPrincipal;
+import com.example.javaddit.features.feed.service.HomeFeedService;
+import com.example.javaddit.features.post.dto.PostPageResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/feed")
+@RequiredArgsConstructor
+public class FeedController {
+
+    private final HomeFeedService homeFeedService;
+
+    @GetMapping("/home")
+    public ResponseEntity<PostPageResponse> getHomeFeed(
+            @AuthenticationPrincipal UserPrincipal principal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        PostPageResponse page = homeFeedService.getHomeFeed(principal.getId(), cursor, limit);
+        return ResponseEntity.ok(page);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.javaddit.features.feed.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JDBC reads behind the home feed: subscriptions in both directions and post ids by author.
+ */
+@Repository
+@RequiredArgsConstructor
+public class HomeFeedRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Users subscribed to the author, served by user_subscriptions_subscribed_to_idx.
+     */
+    public List<Long> findFollowerIds(long authorId) {
+        return jdbcTemplate.queryForList(
+                "SELECT subscriber_id FROM user_subscriptions WHERE subscribed_to_id = :authorId",
+                Map.of("authorId", authorId), Long.class);
+    }
+
+    /**
+     * Users the subscriber follows.
+     */
+    public Set<Long> findFollowedIds(long subscriberId) {
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT subscribed_to_id FROM user_subscriptions WHERE subscriber_id = :subscriberId",
+                Map.of("subscriberId", subscriberId), Long.class));
+    }
+
+    /**
+     * Authors with at least {@code threshold} followers.
+     */
+    public Set<Long> findAuthorsWithFollowers(int threshold) {
+        return new HashSet<>(jdbcTemplate.queryForList("""
+                SELECT subscribed_to_id FROM user_subscriptions
+                GROUP BY subscribed_to_id
+                HAVING COUNT(*) >= :threshold
+                """, Map.of("threshold", threshold), Long.class));
+    }
+
+    /**
+     * Ids of the newest posts since {@code since} by the users the subscriber follows, newest first.
+     */
+    public List<Long> findRecentPostIds(long subscriberId, Instant since, int limit) {
+        return jdbcTemplate.queryForList("""
+                SELECT p.id FROM user_subscriptions s
+                JOIN posts p ON p.author_id = s.subscribed_to_id
+                WHERE s.subscriber_id = :subscriberId AND p.created_at >= :since
+                ORDER BY p.id DESC
+                LIMIT :limit
+                """, new MapSqlParameterSource()
+                .addValue("subscriberId", subscriberId)
+                .addValue("since", Timestamp.from(since))
+                .addValue("limit", limit), Long.class);
+    }
+
+    /**
+     * Ids of the newest posts by the given authors with {@code afterId < id < beforeId}, newest
+     * first. Each author contributes one range scan of posts_author_idx of at most {@code limit}
+     * rows, however many posts they have.
+     */
+    public List<Long> findPostIdsBetween(Collection<Long> authorIds, long afterId, long beforeId, int limit) {
+        if (authorIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.queryForList("""
+                SELECT p.id FROM users a
+                CROSS JOIN LATERAL (
+                    SELECT id FROM posts
+                    WHERE author_id = a.id AND id > :afterId AND id < :beforeId
+                    ORDER BY id DESC
+                    LIMIT :limit
+                ) p
+                WHERE a.id IN (:authorIds)
+                ORDER BY p.id DESC
+                LIMIT :limit
+                """, new MapSqlParameterSource()
+                .addValue("authorIds", authorIds)
+                .addValue("afterId", afterId)
+                .addValue("beforeId", beforeId)
+                .addValue("limit", limit), Long.class);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.javaddit.features.feed.service;
+
+import com.example.javaddit.core.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in the home feed, which is ordered by post id descending: the last post of the previous
+ * page. Clients receive it as an opaque URL-safe token.
+ */
+public record HomeFeedCursor(long beforeId) {
+
+    public static HomeFeedCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            return new HomeFeedCursor(Long.parseLong(value));
+        } catch (IllegalArgumentException ex) {
+            throw new ValidationException("Invalid cursor", ex);
+        }
+    }
+
+    public String encode() {
+        String value = Long.toString(beforeId);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.javaddit.features.feed.service;
+
+import com.example.javaddit.features.post.dto.PostPageResponse;
+import com.example.javaddit.features.post.service.PostFeedProperties;
+import com.example.javaddit.features.post.service.PostService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class HomeFeedService {
+
+    private final HomeTimelines homeTimelines;
+    private final PostService postService;
+    private final PostFeedProperties feedProperties;
+
+    /**
+     * One page of the posts of the users {@code userId} subscribes to, newest first. Pass the
+     * {@code nextCursor} of the previous page to continue.
+     */
+    @Transactional(readOnly = true)
+    public PostPageResponse getHomeFeed(long userId, String cursor, Integer pageSize) {
+        int size = feedProperties.resolvePageSize(pageSize);
+        long beforeId = cursor != null && !cursor.isEmpty() ? HomeFeedCursor.decode(cursor).beforeId() : Long.MAX_VALUE;
+
+        // One extra id tells whether another page follows
+        List<Long> postIds = homeTimelines.page(userId, beforeId, size + 1);
+        String nextCursor = null;
+        if (postIds.size() > size) {
+            postIds = postIds.subList(0, size);
+            nextCursor = new HomeFeedCursor(postIds.get(size - 1)).encode();
+        }
+        return postService.getPostsInOrder(postIds, nextCursor, userId);
+    }
+}
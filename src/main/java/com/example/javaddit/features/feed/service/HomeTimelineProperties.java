@@ -0,0 +1,28 @@
+package com.example.javaddit.features.feed.service;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Settings of the home feed timelines.
+ *
+ * @param timelineCapacity           post ids kept per user; older ones are dropped, so paging
+ *                                   through fanned-out posts ends after this many
+ * @param maxTimelines               users whose timeline is held in memory; the least recently read
+ *                                   is dropped and rebuilt from the database on its next read
+ * @param celebrityFollowers         authors with at least this many followers are not fanned out on
+ *                                   write but merged into their followers' feeds on read
+ * @param celebrityRefreshIntervalMs how often the set of high-follower authors is recomputed
+ * @param rebuildLookbackDays        how far back a rebuild of a cold timeline looks for posts
+ */
+@ConfigurationProperties(prefix = "app.feed.home")
+@Validated
+public record HomeTimelineProperties(
+        @Positive int timelineCapacity,
+        @Positive int maxTimelines,
+        @Positive int celebrityFollowers,
+        @Positive long celebrityRefreshIntervalMs,
+        @Positive int rebuildLookbackDays
+) {
+}
@@ -0,0 +1,207 @@
+package com.example.javaddit.features.feed.service;
+
+import com.example.javaddit.core.util.TransactionCallbacks;
+import com.example.javaddit.features.feed.repository.HomeFeedRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Per-user home feed {@link Timeline}s with hybrid fan-out.
+ * <p>
+ * A new post by an ordinary author is pushed, after commit and off the request thread, into the
+ * timelines of those followers that are held in memory. Authors with at least
+ * {@code celebrity-followers} followers are skipped on write; their posts are read per request
+ * with one short index range per followed high-follower author and merged in. Users without a
+ * timeline in memory get one rebuilt from the database on their next read. A full timeline has
+ * dropped its oldest posts, so pages past its oldest id are read from the database for all
+ * followed authors.
+ * <p>
+ * Memory is bounded by {@code max-timelines * timeline-capacity} post ids of 8 bytes; the least
+ * recently read timeline is dropped first. Fan-out does not count as a read.
+ */
+@Component
+@Slf4j
+public class HomeTimelines {
+
+    private final HomeFeedRepository repository;
+    private final HomeTimelineProperties properties;
+
+    private final ConcurrentHashMap<Long, Timeline> timelines = new ConcurrentHashMap<>();
+    private final LinkedHashMap<Long, Boolean> readOrder = new LinkedHashMap<>(16, 0.75f, true);
+    private volatile Set<Long> celebrities = Set.of();
+
+    private final ExecutorService fanOutExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "home-timeline-fanout");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public HomeTimelines(HomeFeedRepository repository, HomeTimelineProperties properties) {
+        this.repository = repository;
+        this.properties = properties;
+    }
+
+    /**
+     * Fan a new post out to the author's followers once the current transaction commits.
+     */
+    public void recordPost(long postId, long authorId) {
+        TransactionCallbacks.afterCommit(() -> fanOutExecutor.execute(() -> fanOut(postId, authorId)));
+    }
+
+    /**
+     * Drop the user's timeline once the current transaction commits, after a subscription change.
+     */
+    public void invalidate(long userId) {
+        TransactionCallbacks.afterCommit(() -> timelines.remove(userId));
+    }
+
+    /**
+     * Up to {@code limit} post ids of the user's home feed below {@code beforeId}, newest first.
+     */
+    public List<Long> page(long userId, long beforeId, int limit) {
+        Timeline timeline = timeline(userId);
+        long horizon;
+        List<Long> page;
+        synchronized (timeline) {
+            horizon = timeline.horizon();
+            page = timeline.before(beforeId, limit);
+        }
+        long[] followedCelebrities = timeline.followedCelebrities();
+        if (followedCelebrities.length > 0 && beforeId > horizon) {
+            List<Long> pulled = repository.findPostIdsBetween(
+                    Arrays.stream(followedCelebrities).boxed().toList(), horizon, beforeId, limit);
+            page = merge(page, pulled, limit);
+        }
+        if (page.size() < limit && horizon > 0) {
+            // Below the horizon of a full timeline, read the posts of everyone followed instead
+            List<Long> older = repository.findPostIdsBetween(repository.findFollowedIds(userId), 0,
+                    Math.min(beforeId, horizon), limit - page.size());
+            page = new ArrayList<>(page);
+            page.addAll(older);
+        }
+        return page;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadCelebrities() {
+        refreshCelebrities();
+    }
+
+    /**
+     * Recompute the high-follower authors. When the set changes, every timeline is dropped, since
+     * posts of authors that crossed the threshold were handled by the other path.
+     */
+    @Scheduled(fixedDelayString = "${app.feed.home.celebrity-refresh-interval-ms}",
+            initialDelayString = "${app.feed.home.celebrity-refresh-interval-ms}")
+    public void refreshCelebrities() {
+        Set<Long> loaded;
+        try {
+            loaded = repository.findAuthorsWithFollowers(properties.celebrityFollowers());
+        } catch (DataAccessException ex) {
+            log.warn("Could not load high-follower authors for home timelines: {}", ex.getMessage());
+            return;
+        }
+        if (!loaded.equals(celebrities)) {
+            celebrities = Set.copyOf(loaded);
+            synchronized (readOrder) {
+                timelines.clear();
+                readOrder.clear();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanOutExecutor.shutdownNow();
+    }
+
+    private void fanOut(long postId, long authorId) {
+        if (celebrities.contains(authorId)) {
+            return;
+        }
+        try {
+            for (Long followerId : repository.findFollowerIds(authorId)) {
+                Timeline timeline = timelines.get(followerId);
+                if (timeline != null) {
+                    timeline.add(postId);
+                }
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Could not fan out post {} to home timelines: {}", postId, ex.getMessage());
+        }
+    }
+
+    private Timeline timeline(long userId) {
+        Timeline timeline;
+        synchronized (readOrder) {
+            readOrder.put(userId, Boolean.TRUE);
+            if (readOrder.size() > properties.maxTimelines()) {
+                Long eldest = readOrder.keySet().iterator().next();
+                readOrder.remove(eldest);
+                timelines.remove(eldest);
+            }
+            timeline = timelines.computeIfAbsent(userId, id -> new Timeline(properties.timelineCapacity()));
+        }
+
+        synchronized (timeline) {
+            if (!timeline.isLoaded()) {
+                rebuild(userId, timeline);
+            }
+        }
+        return timeline;
+    }
+
+    /**
+     * Fill a cold timeline with the newest posts of everyone the user follows.
+     */
+    private void rebuild(long userId, Timeline timeline) {
+        Set<Long> followed = repository.findFollowedIds(userId);
+        Set<Long> highFollower = celebrities;
+        long[] followedCelebrities = followed.stream()
+                .filter(highFollower::contains)
+                .mapToLong(Long::longValue)
+                .toArray();
+        Instant since = Instant.now().minus(properties.rebuildLookbackDays(), ChronoUnit.DAYS);
+        List<Long> postIds = followed.isEmpty()
+                ? List.of()
+                : repository.findRecentPostIds(userId, since, properties.timelineCapacity());
+        timeline.load(postIds, followedCelebrities);
+    }
+
+    /**
+     * Merge two lists of post ids sorted newest first, without duplicates.
+     */
+    private static List<Long> merge(List<Long> first, List<Long> second, int limit) {
+        List<Long> merged = new ArrayList<>(Math.min(limit, first.size() + second.size()));
+        int i = 0;
+        int j = 0;
+        while (merged.size() < limit && (i < first.size() || j < second.size())) {
+            long next;
+            if (j >= second.size() || (i < first.size() && first.get(i) >= second.get(j))) {
+                next = first.get(i++);
+            } else {
+                next = second.get(j++);
+            }
+            if (merged.isEmpty() || merged.get(merged.size() - 1) != next) {
+                merged.add(next);
+            }
+        }
+        return merged;
+    }
+}
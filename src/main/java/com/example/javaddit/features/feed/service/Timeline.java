@@ -0,0 +1,85 @@
+package com.example.javaddit.features.feed.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Post ids of one user's home feed, bounded to a fixed capacity.
+ * <p>
+ * Ids are kept sorted in a single {@code long[]}, so a timeline costs 8 bytes per post however it
+ * was filled, and paging is a binary search. Post ids grow with creation time, so the highest id
+ * is the newest post; once full, adding a post drops the oldest one. A timeline starts cold and is
+ * filled from the database on its first read; posts fanned out before that are kept.
+ */
+final class Timeline {
+
+    private static final long[] NONE = new long[0];
+
+    private final long[] ids;
+    private int size;
+    private boolean loaded;
+    private long[] followedCelebrities = NONE;
+
+    Timeline(int capacity) {
+        this.ids = new long[capacity];
+    }
+
+    synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Fill a cold timeline with the posts of a rebuild and remember which high-follower authors
+     * the user follows, whose posts are merged on read instead.
+     */
+    synchronized void load(List<Long> postIds, long[] followedCelebrities) {
+        for (Long postId : postIds) {
+            add(postId);
+        }
+        this.followedCelebrities = followedCelebrities;
+        this.loaded = true;
+    }
+
+    synchronized long[] followedCelebrities() {
+        return followedCelebrities;
+    }
+
+    /**
+     * Id below which this timeline may be missing posts: its oldest id once it is full, since a
+     * full timeline drops its oldest post for every new one, and 0 while it still has room.
+     */
+    synchronized long horizon() {
+        return size == ids.length ? ids[0] : 0;
+    }
+
+    synchronized void add(long postId) {
+        int index = Arrays.binarySearch(ids, 0, size, postId);
+        if (index >= 0) {
+            return;
+        }
+        int insertAt = -index - 1;
+        if (size < ids.length) {
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = postId;
+            size++;
+        } else if (insertAt > 0) {
+            // Full: the oldest post makes room
+            System.arraycopy(ids, 1, ids, 0, insertAt - 1);
+            ids[insertAt - 1] = postId;
+        }
+    }
+
+    /**
+     * Up to {@code limit} post ids below {@code beforeId}, newest first.
+     */
+    synchronized List<Long> before(long beforeId, int limit) {
+        int index = Arrays.binarySearch(ids, 0, size, beforeId);
+        int from = (index >= 0 ? index : -index - 1) - 1;
+        List<Long> page = new ArrayList<>(Math.min(limit, from + 1));
+        for (int i = from; i >= 0 && page.size() < limit; i--) {
+            page.add(ids[i]);
+        }
+        return page;
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.javaddit.features.post.controller;
 
 import com.example.javaddit.core.security.UserPrincipal;
+import com.example.javaddit.features.post.dto.PostPageResponse;
 import com.example.javaddit.features.post.dto.PostRequest;
 import com.example.javaddit.features.post.dto.PostResponse;
 import com.example.javaddit.features.post.service.PostService;
@@ -11,8 +12,6 @@
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/posts")
 @RequiredArgsConstructor
@@ -21,15 +20,22 @@ public class PostController {
     private final PostService postService;
 
     @GetMapping
-    public ResponseEntity<List<PostResponse>> getPosts(
-            @RequestParam(required = false) String community) {
-        List<PostResponse> posts = postService.getPosts(community);
-        return ResponseEntity.ok(posts);
+    public ResponseEntity<PostPageResponse> getPosts(
+            @RequestParam(required = false) String community,
+            @RequestParam(required = false) String sort,
+            @RequestParam(name = "t", required = false) String window,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        PostPageResponse page = postService.getPosts(community, sort, window, cursor, limit,
+                principal != null ? principal.getId() : null);
+        return ResponseEntity.ok(page);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<PostResponse> getPostById(@PathVariable Long id) {
-        PostResponse post = postService.getPostById(id);
+    public ResponseEntity<PostResponse> getPostById(@PathVariable Long id,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        PostResponse post = postService.getPostById(id, principal != null ? principal.getId() : null);
         return ResponseEntity.ok(post);
     }
 
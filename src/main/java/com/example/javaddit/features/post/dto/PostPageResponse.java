@@ -0,0 +1,19 @@
+package com.example.javaddit.features.post.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for one page of a post feed. {@code nextCursor} is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostPageResponse {
+
+    private List<PostResponse> items;
+    private String nextCursor;
+}
@@ -1,5 +1,6 @@
 package com.example.javaddit.features.post.dto;
 
+import com.example.javaddit.features.vote.entity.VoteType;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -12,13 +13,18 @@
 public class PostResponse {
 
     private Long id;
+    private Long authorId;
     private String communityName;
     private String title;
     private String slug;
     private String content;
     private String url;
     private Integer score;
+    private Integer upvotes;
+    private Integer downvotes;
     private Integer commentsCount;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private VoteType myVote;  // null if the current user has not voted
+    private Long viewCount;  // approximate distinct viewers; only set on single-post reads
 }
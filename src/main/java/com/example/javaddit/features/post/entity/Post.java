@@ -50,7 +50,8 @@ public class Post {
     @Column(columnDefinition = "TEXT")
     private String url;
 
-    @Column(nullable = false)
+    // Maintained by VoteScoreAggregator flushes; never written back from a loaded entity
+    @Column(nullable = false, updatable = false)
     private Integer score = 0;
 
     @Column(name = "comments_count", nullable = false)
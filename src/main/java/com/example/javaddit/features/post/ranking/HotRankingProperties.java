@@ -0,0 +1,25 @@
+package com.example.javaddit.features.post.ranking;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Tuning for {@link HotRankingService}.
+ *
+ * @param communityFeedSize posts kept per community feed
+ * @param globalFeedSize    posts kept in the global feed
+ * @param maxAgeHours       posts older than this are no longer ranked
+ * @param rerankIntervalMs  delay between two in-memory re-rank passes (expiry and top-K refill)
+ * @param rebuildIntervalMs delay between two rebuilds from the database
+ */
+@ConfigurationProperties(prefix = "app.posts.hot")
+@Validated
+public record HotRankingProperties(
+        @Positive int communityFeedSize,
+        @Positive int globalFeedSize,
+        @Positive int maxAgeHours,
+        @Positive long rerankIntervalMs,
+        @Positive long rebuildIntervalMs
+) {
+}
@@ -0,0 +1,160 @@
+package com.example.javaddit.features.post.ranking;
+
+import com.example.javaddit.core.util.TransactionCallbacks;
+import com.example.javaddit.features.post.repository.PostRankingRepository;
+import com.example.javaddit.features.vote.entity.VoteTargetType;
+import com.example.javaddit.features.vote.service.VoteScoreAggregator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory "hot" ranking of the global feed and of every community feed.
+ * <p>
+ * Every post younger than {@code max-age-hours} is tracked with its score; each feed keeps its
+ * top posts by {@link HotScore} in a {@link RankedFeed}. New posts and vote deltas are applied
+ * incrementally after commit, so serving {@code sort=hot} never sorts in the database. Because
+ * the hot score anchors age at the creation time, votes are the only thing that re-orders posts;
+ * the periodic re-rank pass expires aged-out posts and refills feeds from the tracked posts, and a
+ * less frequent rebuild from the database picks up votes cast on other instances.
+ */
+@Service
+@Slf4j
+public class HotRankingService {
+
+    private final PostRankingRepository postRankingRepository;
+    private final VoteScoreAggregator scoreAggregator;
+    private final HotRankingProperties properties;
+
+    private final ConcurrentHashMap<Long, RankedPost> tracked = new ConcurrentHashMap<>();
+    private final RankedFeed globalFeed;
+    private final ConcurrentHashMap<Long, RankedFeed> communityFeeds = new ConcurrentHashMap<>();
+
+    public HotRankingService(PostRankingRepository postRankingRepository,
+                             VoteScoreAggregator scoreAggregator,
+                             HotRankingProperties properties) {
+        this.postRankingRepository = postRankingRepository;
+        this.scoreAggregator = scoreAggregator;
+        this.properties = properties;
+        this.globalFeed = new RankedFeed(properties.globalFeedSize());
+    }
+
+    /**
+     * Rank a newly created post once its transaction commits.
+     */
+    public void recordPost(long postId, long communityId, LocalDateTime createdAt) {
+        long createdAtSeconds = createdAt.atZone(ZoneId.systemDefault()).toEpochSecond();
+        TransactionCallbacks.afterCommit(() -> {
+            tracked.put(postId, RankedPost.of(postId, communityId, createdAtSeconds, 0));
+            rerankPost(postId);
+        });
+    }
+
+    /**
+     * Re-rank a post after a vote changed its score by {@code delta}, once the transaction commits.
+     * Posts that are not tracked (too old to be hot) are ignored.
+     */
+    public void recordScoreChange(long postId, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> {
+            if (tracked.computeIfPresent(postId, (id, post) -> post.withScoreDelta(delta)) != null) {
+                rerankPost(postId);
+            }
+        });
+    }
+
+    /**
+     * Up to {@code limit} posts of the global feed ({@code communityId} null) or of one community,
+     * ranked after the cursor.
+     */
+    public List<RankedPost> page(Long communityId, RankedCursor after, int limit) {
+        RankedFeed feed = communityId == null ? globalFeed : communityFeeds.get(communityId);
+        return feed == null ? List.of() : feed.page(after, limit);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadRankings() {
+        rebuild();
+    }
+
+    /**
+     * Reload every recent post and its score from the database.
+     */
+    @Scheduled(fixedDelayString = "${app.posts.hot.rebuild-interval-ms}",
+            initialDelayString = "${app.posts.hot.rebuild-interval-ms}")
+    public void rebuild() {
+        Instant since = Instant.now().minus(properties.maxAgeHours(), ChronoUnit.HOURS);
+        Map<Long, RankedPost> loaded = new HashMap<>();
+        try {
+            postRankingRepository.forEachPostSince(since, post -> {
+                int score = scoreAggregator.mergedScore(VoteTargetType.POST, post.postId(), post.score());
+                loaded.put(post.postId(), RankedPost.of(post.postId(), post.communityId(), post.createdAt(), score));
+            });
+        } catch (DataAccessException ex) {
+            log.warn("Could not load posts for the hot ranking: {}", ex.getMessage());
+            return;
+        }
+        // Posts missing from the load (deleted with their community) stay until they expire;
+        // feed readers skip posts that no longer exist
+        tracked.putAll(loaded);
+        rerank();
+        log.debug("Rebuilt hot ranking from {} posts", loaded.size());
+    }
+
+    /**
+     * Expire posts older than the maximum age and refresh every feed from the tracked posts,
+     * which also refills feeds whose entries were pushed out or voted down.
+     */
+    @Scheduled(fixedDelayString = "${app.posts.hot.rerank-interval-ms}")
+    public void rerank() {
+        long cutoff = Instant.now().minus(properties.maxAgeHours(), ChronoUnit.HOURS).getEpochSecond();
+        tracked.values().removeIf(post -> post.createdAt() < cutoff);
+
+        List<RankedPost> all = new ArrayList<>(tracked.values());
+        all.sort(RankedFeed.ORDER);
+        Map<Long, List<RankedPost>> byCommunity = new HashMap<>();
+        for (RankedPost post : all) {
+            byCommunity.computeIfAbsent(post.communityId(), id -> new ArrayList<>()).add(post);
+        }
+
+        globalFeed.refresh(all, tracked::get);
+        communityFeeds.forEach((communityId, feed) -> {
+            if (!byCommunity.containsKey(communityId)) {
+                feed.refresh(List.of(), tracked::get);
+            }
+        });
+        byCommunity.forEach((communityId, posts) -> communityFeed(communityId).refresh(posts, tracked::get));
+        communityFeeds.values().removeIf(feed -> feed.size() == 0);
+    }
+
+    /**
+     * Move a tracked post to its current rank in the global feed and its community feed.
+     */
+    private void rerankPost(long postId) {
+        RankedPost post = tracked.get(postId);
+        if (post == null) {
+            return;
+        }
+        globalFeed.offerCurrent(postId, tracked::get);
+        communityFeed(post.communityId()).offerCurrent(postId, tracked::get);
+    }
+
+    private RankedFeed communityFeed(long communityId) {
+        return communityFeeds.computeIfAbsent(communityId, id -> new RankedFeed(properties.communityFeedSize()));
+    }
+}
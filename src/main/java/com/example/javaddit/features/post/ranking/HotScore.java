@@ -0,0 +1,23 @@
+package com.example.javaddit.features.post.ranking;
+
+/**
+ * Reddit's "hot" formula: the order of magnitude of the score plus the creation time, where
+ * 12.5 hours of age are worth a factor of ten in score.
+ * <p>
+ * Age enters as the creation time measured from a fixed epoch rather than as time elapsed since
+ * creation, so a post's rank only changes when its score does and ranks never need rewriting as
+ * time passes: newer posts simply start higher.
+ */
+public final class HotScore {
+
+    private static final long EPOCH_SECONDS = 1134028003L;
+    private static final double SECONDS_PER_ORDER = 45000d;
+
+    private HotScore() {
+    }
+
+    public static double of(int score, long createdAtEpochSeconds) {
+        double order = Math.log10(Math.max(Math.abs(score), 1));
+        return Integer.signum(score) * order + (createdAtEpochSeconds - EPOCH_SECONDS) / SECONDS_PER_ORDER;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.javaddit.features.post.ranking;
+
+import com.example.javaddit.core.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a ranked feed ordered by {@code (rank DESC, id DESC)}: the last post of the
+ * previous page. Clients receive it as an opaque URL-safe token.
+ * <p>
+ * A cursor may also point into a {@link RankingSnapshot} ({@code snapshot} and {@code offset});
+ * when that snapshot has expired, the rank and id continue the live ranking instead.
+ */
+public record RankedCursor(double rank, long id, String snapshot, int offset) {
+
+    private static final String SEPARATOR = "|";
+
+    public RankedCursor(double rank, long id) {
+        this(rank, id, null, 0);
+    }
+
+    public static RankedCursor after(RankedPost post) {
+        return new RankedCursor(post.rank(), post.postId());
+    }
+
+    public static RankedCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = value.split("\\|", -1);
+            if (parts.length == 2) {
+                return new RankedCursor(Double.parseDouble(parts[0]), Long.parseLong(parts[1]));
+            }
+            if (parts.length == 4 && !parts[2].isEmpty() && Integer.parseInt(parts[3]) >= 0) {
+                return new RankedCursor(Double.parseDouble(parts[0]), Long.parseLong(parts[1]), parts[2],
+                        Integer.parseInt(parts[3]));
+            }
+            throw new ValidationException("Invalid cursor");
+        } catch (IllegalArgumentException ex) {
+            throw new ValidationException("Invalid cursor", ex);
+        }
+    }
+
+    public String encode() {
+        String value = rank + SEPARATOR + id;
+        if (snapshot != null) {
+            value += SEPARATOR + snapshot + SEPARATOR + offset;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
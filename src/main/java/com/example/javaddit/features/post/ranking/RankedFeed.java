@@ -0,0 +1,109 @@
+package com.example.javaddit.features.post.ranking;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.LongFunction;
+
+/**
+ * The top {@code capacity} posts of one feed, ordered by rank.
+ * <p>
+ * Entries live in a skip list ordered by {@code (rank DESC, id DESC)} plus an index by post id,
+ * so re-ranking a post is a remove and an insert, both O(log K). Writers serialize on the feed;
+ * readers page through the skip list without locking and may, for a moment, miss a post that is
+ * being moved.
+ */
+final class RankedFeed {
+
+    static final Comparator<RankedPost> ORDER = Comparator.comparingDouble(RankedPost::rank).reversed()
+            .thenComparing(Comparator.comparingLong(RankedPost::postId).reversed());
+
+    private final int capacity;
+    private final ConcurrentSkipListSet<RankedPost> ranking = new ConcurrentSkipListSet<>(ORDER);
+    private final Map<Long, RankedPost> entries = new HashMap<>();
+
+    RankedFeed(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Insert or move a post. A post that is not in the feed yet only enters a full feed if it
+     * ranks above the last entry, which is then dropped.
+     */
+    synchronized void offer(RankedPost post) {
+        RankedPost previous = entries.remove(post.postId());
+        if (previous != null) {
+            ranking.remove(previous);
+        } else if (entries.size() >= capacity) {
+            RankedPost last = ranking.last();
+            if (ORDER.compare(post, last) > 0) {
+                return;
+            }
+            ranking.remove(last);
+            entries.remove(last.postId());
+        }
+        ranking.add(post);
+        entries.put(post.postId(), post);
+    }
+
+    synchronized void remove(long postId) {
+        RankedPost previous = entries.remove(postId);
+        if (previous != null) {
+            ranking.remove(previous);
+        }
+    }
+
+    /**
+     * Move a post to its rank as returned by {@code current}, or drop it when that is null. The
+     * lookup happens under the feed lock, so concurrent updates of one post are applied in order.
+     */
+    synchronized void offerCurrent(long postId, LongFunction<RankedPost> current) {
+        RankedPost post = current.apply(postId);
+        if (post != null) {
+            offer(post);
+        } else {
+            remove(postId);
+        }
+    }
+
+    /**
+     * Bring every entry up to date through {@code current}, dropping those that are gone, then
+     * offer the candidates, best first, to fill the feed back up.
+     */
+    synchronized void refresh(Collection<RankedPost> candidates, LongFunction<RankedPost> current) {
+        for (Long postId : new ArrayList<>(entries.keySet())) {
+            offerCurrent(postId, current);
+        }
+        for (RankedPost candidate : candidates) {
+            if (entries.size() >= capacity && ORDER.compare(candidate, ranking.last()) > 0) {
+                break;
+            }
+            offerCurrent(candidate.postId(), current);
+        }
+    }
+
+    /**
+     * Up to {@code limit} posts ranked after the cursor, or from the top when it is null.
+     */
+    List<RankedPost> page(RankedCursor after, int limit) {
+        NavigableSet<RankedPost> view = after == null
+                ? ranking
+                : ranking.tailSet(new RankedPost(after.id(), 0, 0, 0, after.rank()), false);
+        List<RankedPost> page = new ArrayList<>(limit);
+        Iterator<RankedPost> iterator = view.iterator();
+        while (page.size() < limit && iterator.hasNext()) {
+            page.add(iterator.next());
+        }
+        return page;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.javaddit.features.post.ranking;
+
+/**
+ * What the ranking keeps of a post: enough to recompute its rank after a vote.
+ *
+ * @param createdAt creation time in epoch seconds
+ */
+public record RankedPost(long postId, long communityId, long createdAt, int score, double rank) {
+
+    public static RankedPost of(long postId, long communityId, long createdAt, int score) {
+        return new RankedPost(postId, communityId, createdAt, score, HotScore.of(score, createdAt));
+    }
+
+    public RankedPost withScoreDelta(int delta) {
+        return of(postId, communityId, createdAt, score + delta);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.javaddit.features.post.ranking;
+
+import java.util.List;
+
+/**
+ * A ranked feed frozen at the time of its first page: post ids and their ranks, best first.
+ * Later pages are offsets into it, so votes that reorder the live ranking cannot make a scrolling
+ * client see a post twice or skip one.
+ */
+public final class RankingSnapshot {
+
+    private final long[] postIds;
+    private final double[] ranks;
+    private final boolean truncated;
+
+    /**
+     * @param truncated whether the live ranking continues after the last entry
+     */
+    public RankingSnapshot(List<RankedPost> posts, boolean truncated) {
+        this.postIds = new long[posts.size()];
+        this.ranks = new double[posts.size()];
+        for (int i = 0; i < postIds.length; i++) {
+            postIds[i] = posts.get(i).postId();
+            ranks[i] = posts.get(i).rank();
+        }
+        this.truncated = truncated;
+    }
+
+    public int size() {
+        return postIds.length;
+    }
+
+    public long postId(int index) {
+        return postIds[index];
+    }
+
+    public double rank(int index) {
+        return ranks[index];
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.javaddit.features.post.ranking;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Bounds of the {@link RankingSnapshots} store.
+ *
+ * @param ttlSeconds   a snapshot expires this long after it was last read
+ * @param maxSnapshots snapshots kept at most; the least recently read one is evicted first
+ * @param maxPosts     posts per snapshot; scrolling past them continues on the live ranking
+ */
+@ConfigurationProperties(prefix = "app.posts.snapshots")
+@Validated
+public record RankingSnapshotProperties(
+        @Positive long ttlSeconds,
+        @Positive int maxSnapshots,
+        @Positive int maxPosts
+) {
+}
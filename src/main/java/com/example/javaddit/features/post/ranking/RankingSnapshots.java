@@ -0,0 +1,79 @@
+package com.example.javaddit.features.post.ranking;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Short-lived {@link RankingSnapshot}s of ranked feeds, one per scrolling session.
+ * <p>
+ * Snapshots are kept in access order, so the least recently read one is both the first to expire
+ * and the first evicted when {@code max-snapshots} is reached; expired snapshots are dropped from
+ * the head on every access. Memory is bounded by {@code max-snapshots * max-posts} entries of
+ * 16 bytes.
+ */
+@Component
+public class RankingSnapshots {
+
+    private final RankingSnapshotProperties properties;
+    private final LinkedHashMap<String, Entry> snapshots = new LinkedHashMap<>(16, 0.75f, true);
+
+    public RankingSnapshots(RankingSnapshotProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Posts per snapshot.
+     */
+    public int maxPosts() {
+        return properties.maxPosts();
+    }
+
+    /**
+     * Store a snapshot of the feed identified by {@code feedKey} and return its id.
+     */
+    public synchronized String create(String feedKey, RankingSnapshot snapshot) {
+        long now = System.currentTimeMillis();
+        evictExpired(now);
+        if (snapshots.size() >= properties.maxSnapshots()) {
+            Iterator<Map.Entry<String, Entry>> eldest = snapshots.entrySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+
+        String id;
+        do {
+            id = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        } while (snapshots.containsKey(id));
+        snapshots.put(id, new Entry(feedKey, snapshot, now));
+        return id;
+    }
+
+    /**
+     * The snapshot with the given id if it has not expired and belongs to the same feed, or null.
+     */
+    public synchronized RankingSnapshot find(String id, String feedKey) {
+        long now = System.currentTimeMillis();
+        evictExpired(now);
+        Entry entry = snapshots.get(id);
+        if (entry == null || !entry.feedKey().equals(feedKey)) {
+            return null;
+        }
+        snapshots.put(id, new Entry(entry.feedKey(), entry.snapshot(), now));
+        return entry.snapshot();
+    }
+
+    private void evictExpired(long now) {
+        long oldestAllowed = now - properties.ttlSeconds() * 1000;
+        Iterator<Entry> iterator = snapshots.values().iterator();
+        while (iterator.hasNext() && iterator.next().lastAccess() < oldestAllowed) {
+            iterator.remove();
+        }
+    }
+
+    private record Entry(String feedKey, RankingSnapshot snapshot, long lastAccess) {
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.javaddit.features.post.ranking;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Tuning for {@link RisingRankingService}.
+ *
+ * @param maxTrackedPosts     upper bound on the number of posts whose vote rate is tracked
+ * @param maxAgeHours         posts older than this are no longer tracked
+ * @param tickIntervalMs      delay between two updates of the moving averages and the ranking
+ * @param fastWindowSeconds   time constant of the fast moving average
+ * @param slowWindowSeconds   time constant of the slow moving average
+ * @param admissionIntervalMs delay between two scans for young posts created on other instances
+ */
+@ConfigurationProperties(prefix = "app.posts.rising")
+@Validated
+public record RisingRankingProperties(
+        @Positive int maxTrackedPosts,
+        @Positive int maxAgeHours,
+        @Positive long tickIntervalMs,
+        @Positive long fastWindowSeconds,
+        @Positive long slowWindowSeconds,
+        @Positive long admissionIntervalMs
+) {
+}
@@ -0,0 +1,178 @@
+package com.example.javaddit.features.post.ranking;
+
+import com.example.javaddit.core.util.TransactionCallbacks;
+import com.example.javaddit.features.post.repository.PostRankingRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * "Rising" feed: young posts whose vote rate is accelerating.
+ * <p>
+ * Every post younger than {@code max-age-hours} gets a {@link VoteVelocity}, up to
+ * {@code max-tracked-posts}. Net vote changes from {@code VoteService} are added to it after
+ * commit, which on the vote path is one map lookup and one {@code LongAdder} add. Every tick
+ * folds the counts into a fast and a slow moving average and publishes an immutable ranking of
+ * the posts whose fast rate exceeds their slow rate, by how much. Aged-out posts are evicted on
+ * each tick; when the bound is reached, the slowest posts make room for new ones.
+ * <p>
+ * Rates are those seen by this instance; young posts created on other instances are admitted
+ * every {@code admission-interval-ms}.
+ */
+@Service
+@Slf4j
+public class RisingRankingService {
+
+    private final PostRankingRepository postRankingRepository;
+    private final RisingRankingProperties properties;
+
+    private final ConcurrentHashMap<Long, VoteVelocity> tracked = new ConcurrentHashMap<>();
+    private volatile Ranking ranking = Ranking.EMPTY;
+    private volatile Instant lastAdmissionScan;
+
+    public RisingRankingService(PostRankingRepository postRankingRepository, RisingRankingProperties properties) {
+        this.postRankingRepository = postRankingRepository;
+        this.properties = properties;
+    }
+
+    /**
+     * Start tracking a newly created post once its transaction commits.
+     */
+    public void recordPost(long postId, long communityId, LocalDateTime createdAt) {
+        long createdAtSeconds = createdAt.atZone(ZoneId.systemDefault()).toEpochSecond();
+        TransactionCallbacks.afterCommit(() -> admit(postId, communityId, createdAtSeconds));
+    }
+
+    /**
+     * Count one vote arrival on a tracked post once its transaction commits, whatever its
+     * direction; untracked posts are ignored without registering anything.
+     */
+    public void recordVote(long postId) {
+        VoteVelocity velocity = tracked.get(postId);
+        if (velocity == null) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(velocity::record);
+    }
+
+    /**
+     * Up to {@code limit} rising posts of the global feed ({@code communityId} null) or of one
+     * community, ranked after the cursor, from the ranking published by the last tick.
+     */
+    public List<RankedPost> page(Long communityId, RankedCursor after, int limit) {
+        Ranking current = ranking;
+        List<RankedPost> posts = communityId == null
+                ? current.global()
+                : current.byCommunity().getOrDefault(communityId, List.of());
+
+        int from = 0;
+        if (after != null) {
+            int index = Collections.binarySearch(posts,
+                    new RankedPost(after.id(), 0, 0, 0, after.rank()), RankedFeed.ORDER);
+            from = index >= 0 ? index + 1 : -index - 1;
+        }
+        return List.copyOf(posts.subList(from, Math.min(from + limit, posts.size())));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadYoungPosts() {
+        admitYoungPosts();
+    }
+
+    /**
+     * Track posts created since the previous scan, which includes those of other instances. The
+     * scans overlap by one interval so that posts committed late are not missed; posts evicted to
+     * make room are not scanned again.
+     */
+    @Scheduled(fixedDelayString = "${app.posts.rising.admission-interval-ms}",
+            initialDelayString = "${app.posts.rising.admission-interval-ms}")
+    public void admitYoungPosts() {
+        Instant now = Instant.now();
+        Instant since = lastAdmissionScan != null
+                ? lastAdmissionScan.minusMillis(properties.admissionIntervalMs())
+                : now.minus(properties.maxAgeHours(), ChronoUnit.HOURS);
+        try {
+            postRankingRepository.forEachPostSince(since,
+                    post -> admit(post.postId(), post.communityId(), post.createdAt()));
+            lastAdmissionScan = now;
+        } catch (DataAccessException ex) {
+            log.warn("Could not load young posts for the rising ranking: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Update every moving average, evict aged-out posts and publish the new ranking.
+     */
+    @Scheduled(fixedDelayString = "${app.posts.rising.tick-interval-ms}")
+    public void tick() {
+        double tickMinutes = properties.tickIntervalMs() / 60_000d;
+        double tickSeconds = properties.tickIntervalMs() / 1000d;
+        double fastAlpha = 1 - Math.exp(-tickSeconds / properties.fastWindowSeconds());
+        double slowAlpha = 1 - Math.exp(-tickSeconds / properties.slowWindowSeconds());
+        long cutoff = Instant.now().minus(properties.maxAgeHours(), ChronoUnit.HOURS).getEpochSecond();
+
+        List<RankedPost> rising = new ArrayList<>();
+        for (VoteVelocity velocity : tracked.values()) {
+            if (velocity.createdAt() < cutoff) {
+                tracked.remove(velocity.postId(), velocity);
+                continue;
+            }
+            velocity.tick(tickMinutes, fastAlpha, slowAlpha);
+            if (velocity.momentum() > 0) {
+                rising.add(new RankedPost(velocity.postId(), velocity.communityId(), velocity.createdAt(), 0,
+                        velocity.momentum()));
+            }
+        }
+        makeRoom();
+
+        rising.sort(RankedFeed.ORDER);
+        Map<Long, List<RankedPost>> byCommunity = new HashMap<>();
+        for (RankedPost post : rising) {
+            byCommunity.computeIfAbsent(post.communityId(), id -> new ArrayList<>()).add(post);
+        }
+        ranking = new Ranking(List.copyOf(rising), byCommunity);
+    }
+
+    private void admit(long postId, long communityId, long createdAt) {
+        if (tracked.size() < properties.maxTrackedPosts()) {
+            tracked.putIfAbsent(postId, new VoteVelocity(postId, communityId, createdAt));
+        }
+    }
+
+    /**
+     * When the bound is reached, drop the tenth of the posts with the lowest fast rate, oldest
+     * first among equals, so that new posts can be admitted.
+     */
+    private void makeRoom() {
+        if (tracked.size() < properties.maxTrackedPosts()) {
+            return;
+        }
+        List<VoteVelocity> slowest = new ArrayList<>(tracked.values());
+        slowest.sort(Comparator.comparingDouble(VoteVelocity::fastRate)
+                .thenComparingLong(VoteVelocity::createdAt));
+        int evict = Math.max(properties.maxTrackedPosts() / 10, 1);
+        for (VoteVelocity velocity : slowest.subList(0, Math.min(evict, slowest.size()))) {
+            tracked.remove(velocity.postId(), velocity);
+        }
+    }
+
+    private record Ranking(List<RankedPost> global, Map<Long, List<RankedPost>> byCommunity) {
+
+        static final Ranking EMPTY = new Ranking(List.of(), Map.of());
+    }
+}
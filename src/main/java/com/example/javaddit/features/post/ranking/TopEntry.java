@@ -0,0 +1,18 @@
+package com.example.javaddit.features.post.ranking;
+
+/**
+ * A post's place on a "top" leaderboard: its votes within the window.
+ */
+public record TopEntry(long postId, int upvotes, int downvotes) {
+
+    public int score() {
+        return upvotes - downvotes;
+    }
+
+    /**
+     * The entry as a ranked post whose rank is its score in the window.
+     */
+    public RankedPost toRankedPost() {
+        return new RankedPost(postId, 0, 0, score(), score());
+    }
+}
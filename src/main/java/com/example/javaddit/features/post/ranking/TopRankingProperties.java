@@ -0,0 +1,21 @@
+package com.example.javaddit.features.post.ranking;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Tuning for {@link TopRankingService}.
+ *
+ * @param flushIntervalMs  delay between two flushes of buffered vote counts
+ * @param expiryIntervalMs delay between two checks for buckets that left a window
+ * @param maxBatchSize     posts written per JDBC batch
+ */
+@ConfigurationProperties(prefix = "app.posts.top")
+@Validated
+public record TopRankingProperties(
+        @Positive long flushIntervalMs,
+        @Positive long expiryIntervalMs,
+        @Positive int maxBatchSize
+) {
+}
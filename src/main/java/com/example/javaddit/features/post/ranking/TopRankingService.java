@@ -0,0 +1,172 @@
+package com.example.javaddit.features.post.ranking;
+
+import com.example.javaddit.core.util.TransactionCallbacks;
+import com.example.javaddit.features.post.repository.PostTopRepository;
+import com.example.javaddit.features.post.repository.PostTopRepository.ExpiryRange;
+import com.example.javaddit.features.vote.entity.VoteType;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Rolling-window "top" leaderboards ({@code sort=top&t=hour|day|week|month|year|all}).
+ * <p>
+ * Votes are counted per post as separate upvote and downvote deltas, buffered after commit and
+ * flushed in batches into the current hour's bucket of {@code post_vote_buckets} and into every
+ * window's row of {@code post_top_scores}. Once an hour bucket falls out of a window, the expiry
+ * job subtracts it from that window, so leaderboards are maintained incrementally and never
+ * recomputed from the vote tables. Pages are keyset ranges of an index on
+ * {@code (time_window, [community_id,] score DESC, post_id DESC)}.
+ * <p>
+ * Windows are accurate to the hour: a window of length L covers the current hour and the buckets
+ * starting less than L before it. Counts lag by at most one flush interval, and counts still
+ * buffered when the process dies are lost (the vote tables are unaffected).
+ */
+@Service
+@Slf4j
+public class TopRankingService {
+
+    private final PostTopRepository postTopRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TopRankingProperties properties;
+
+    private final ConcurrentLinkedQueue<TopEntry> pending = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public TopRankingService(PostTopRepository postTopRepository,
+                             TransactionTemplate transactionTemplate,
+                             TopRankingProperties properties) {
+        this.postTopRepository = postTopRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+    }
+
+    /**
+     * Count a vote change on a post once its transaction commits.
+     */
+    public void recordVote(long postId, VoteType previous, VoteType current) {
+        if (previous == current) {
+            return;
+        }
+        TopEntry delta = new TopEntry(postId,
+                count(current, VoteType.UPVOTE) - count(previous, VoteType.UPVOTE),
+                count(current, VoteType.DOWNVOTE) - count(previous, VoteType.DOWNVOTE));
+
+        TransactionCallbacks.afterCommit(() -> pending.add(delta));
+    }
+
+    public List<TopEntry> page(TopWindow window, Long communityId, RankedCursor after, int limit) {
+        return postTopRepository.findPage(window, communityId, after, limit);
+    }
+
+    /**
+     * All-time upvote and downvote counts of the given posts, as of the last flush.
+     */
+    public Map<Long, TopEntry> findTotals(Collection<Long> postIds) {
+        return postTopRepository.findTotals(postIds);
+    }
+
+    /**
+     * Write all buffered vote counts, summed per post.
+     */
+    @Scheduled(fixedDelayString = "${app.posts.top.flush-interval-ms}")
+    public void flush() {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushLock.lock();
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Subtract hour buckets that left a window since the last run, shortest window first, then
+     * drop the buckets that every window is done with.
+     */
+    @Scheduled(fixedDelayString = "${app.posts.top.expiry-interval-ms}")
+    public void expire() {
+        for (TopWindow window : TopWindow.values()) {
+            if (window == TopWindow.ALL) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    ExpiryRange range = postTopRepository.lockExpiryRange(window);
+                    if (range == null || range.isEmpty()) {
+                        return;
+                    }
+                    int posts = postTopRepository.expire(window, range);
+                    if (window == TopWindow.YEAR) {
+                        postTopRepository.deleteBucketsBefore(range.to());
+                    }
+                    log.debug("Expired {} hour buckets of {} posts from the {} ranking",
+                            range.hours(), posts, window);
+                });
+            } catch (DataAccessException | TransactionException ex) {
+                log.warn("Failed to expire the {} ranking: {}", window, ex.getMessage());
+            }
+        }
+    }
+
+    private void flushPending() {
+        Map<Long, TopEntry> totals = new HashMap<>();
+        TopEntry delta;
+        while ((delta = pending.poll()) != null) {
+            totals.merge(delta.postId(), delta, (a, b) ->
+                    new TopEntry(a.postId(), a.upvotes() + b.upvotes(), a.downvotes() + b.downvotes()));
+        }
+
+        List<TopEntry> batch = new ArrayList<>(Math.min(properties.maxBatchSize(), totals.size()));
+        for (TopEntry total : totals.values()) {
+            if (total.upvotes() == 0 && total.downvotes() == 0) {
+                continue;
+            }
+            batch.add(total);
+            if (batch.size() >= properties.maxBatchSize()) {
+                writeBatch(batch);
+                batch = new ArrayList<>(properties.maxBatchSize());
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch);
+        }
+    }
+
+    private void writeBatch(List<TopEntry> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> postTopRepository.addVoteCounts(batch));
+        } catch (DataAccessException | TransactionException ex) {
+            log.warn("Failed to flush vote counts of {} posts, retrying on next flush: {}",
+                    batch.size(), ex.getMessage());
+            pending.addAll(batch);
+        }
+    }
+
+    private static int count(VoteType voteType, VoteType counted) {
+        return voteType == counted ? 1 : 0;
+    }
+}
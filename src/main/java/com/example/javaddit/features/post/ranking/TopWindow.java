@@ -0,0 +1,32 @@
+package com.example.javaddit.features.post.ranking;
+
+import com.example.javaddit.core.exception.ValidationException;
+
+import java.util.Locale;
+
+/**
+ * Time windows of the "top" rankings. Their lengths live with the expiry watermarks in
+ * {@code post_top_watermarks} (V12); {@link #ALL} never expires.
+ */
+public enum TopWindow {
+    HOUR,
+    DAY,
+    WEEK,
+    MONTH,
+    YEAR,
+    ALL;
+
+    /**
+     * Parse the {@code t} request parameter; absent means {@link #DAY}.
+     */
+    public static TopWindow from(String value) {
+        if (value == null || value.isEmpty()) {
+            return DAY;
+        }
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new ValidationException("Unknown time window: " + value);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.javaddit.features.post.ranking;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Vote rate of one post as two exponentially weighted moving averages, a fast one and a slow one.
+ * <p>
+ * Voters only add to a {@link LongAdder}, which never blocks. The single ticking thread drains the
+ * adder once per tick and folds the votes per minute of that tick into both averages; the averages
+ * are only written by that thread and read after it, so they need no synchronization.
+ */
+final class VoteVelocity {
+
+    private final long postId;
+    private final long communityId;
+    private final long createdAt;
+    private final LongAdder votes = new LongAdder();
+    private double fastRate;
+    private double slowRate;
+
+    VoteVelocity(long postId, long communityId, long createdAt) {
+        this.postId = postId;
+        this.communityId = communityId;
+        this.createdAt = createdAt;
+    }
+
+    void record() {
+        votes.increment();
+    }
+
+    /**
+     * Fold the votes since the last tick into the averages.
+     *
+     * @param tickMinutes length of the tick
+     * @param fastAlpha   smoothing factor of the fast average, {@code 1 - e^(-tick / window)}
+     * @param slowAlpha   smoothing factor of the slow average
+     */
+    void tick(double tickMinutes, double fastAlpha, double slowAlpha) {
+        double rate = votes.sumThenReset() / tickMinutes;
+        fastRate += fastAlpha * (rate - fastRate);
+        slowRate += slowAlpha * (rate - slowRate);
+    }
+
+    /**
+     * How much faster the post is collecting votes now than on average: positive when its vote
+     * rate is accelerating, in votes per minute.
+     */
+    double momentum() {
+        return fastRate - slowRate;
+    }
+
+    double fastRate() {
+        return fastRate;
+    }
+
+    long postId() {
+        return postId;
+    }
+
+    long communityId() {
+        return communityId;
+    }
+
+    long createdAt() {
+        return createdAt;
+    }
+}
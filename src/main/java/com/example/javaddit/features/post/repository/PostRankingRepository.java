@@ -0,0 +1,37 @@
+package com.example.javaddit.features.post.repository;
+
+import com.example.javaddit.features.post.ranking.RankedPost;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.function.Consumer;
+
+/**
+ * Loads the posts the in-memory rankings are built from.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PostRankingRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Stream every post created since the given instant, with its persisted score including
+     * counter shards. The range is served by posts_created_at_idx.
+     */
+    public void forEachPostSince(Instant since, Consumer<RankedPost> consumer) {
+        jdbcTemplate.query("""
+                SELECT p.id, p.community_id, p.created_at, p.score + COALESCE(SUM(c.score_delta), 0) AS score
+                FROM posts p
+                LEFT JOIN post_counters c ON c.post_id = p.id
+                WHERE p.created_at >= ?
+                GROUP BY p.id
+                """, rs -> {
+            consumer.accept(RankedPost.of(rs.getLong("id"), rs.getLong("community_id"),
+                    rs.getTimestamp("created_at").toInstant().getEpochSecond(), rs.getInt("score")));
+        }, Timestamp.from(since));
+    }
+}
@@ -1,24 +1,57 @@
 package com.example.javaddit.features.post.repository;
 
 import com.example.javaddit.features.post.entity.Post;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
 
-    @Query("SELECT p FROM Post p WHERE p.community.name = :communityName ORDER BY p.createdAt DESC")
-    List<Post> findByCommunityName(@Param("communityName") String communityName);
-
-    @Query("SELECT p FROM Post p ORDER BY p.createdAt DESC")
-    List<Post> findAllOrderByCreatedAtDesc();
-
-    @Query("SELECT CASE WHEN COUNT(p) > 0 THEN true ELSE false END FROM Post p WHERE p.community.id = :communityId AND p.slug = :slug")
-    boolean existsByCommunityIdAndSlug(@Param("communityId") Long communityId, @Param("slug") String slug);
+    // Read endpoints select PostView rows: one statement per page, community name included.
+    String SELECT_VIEW = """
+            SELECT new com.example.javaddit.features.post.repository.PostView(
+                p.id, p.author.id, c.name, p.title, p.slug, p.content, p.url, p.score, p.commentsCount,
+                p.createdAt, p.updatedAt)
+            FROM Post p JOIN p.community c
+            """;
+
+    @Query(SELECT_VIEW + "WHERE p.id = :id")
+    Optional<PostView> findViewById(@Param("id") Long id);
+
+    @Query(SELECT_VIEW + "WHERE p.id IN :ids")
+    List<PostView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Feed pages are keyset ranges on (created_at DESC, id DESC), served by posts_created_at_idx and
+    // posts_community_created_at_idx. The redundant "createdAt <=" bound is the index condition.
+
+    @Query(SELECT_VIEW + "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostView> findFeedPage(Limit limit);
+
+    @Query(SELECT_VIEW + """
+            WHERE p.createdAt <= :createdAt AND (p.createdAt < :createdAt OR p.id < :id)
+            ORDER BY p.createdAt DESC, p.id DESC
+            """)
+    List<PostView> findFeedPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+            Limit limit);
+
+    @Query(SELECT_VIEW + "WHERE c.id = :communityId ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostView> findCommunityFeedPage(@Param("communityId") Long communityId, Limit limit);
+
+    @Query(SELECT_VIEW + """
+            WHERE c.id = :communityId
+              AND p.createdAt <= :createdAt AND (p.createdAt < :createdAt OR p.id < :id)
+            ORDER BY p.createdAt DESC, p.id DESC
+            """)
+    List<PostView> findCommunityFeedPageAfter(@Param("communityId") Long communityId,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
 
     @Query("SELECT p.slug FROM Post p WHERE p.community.id = :communityId AND p.slug LIKE :slugPattern")
     List<String> findSlugsByCommunityIdAndSlugPattern(@Param("communityId") Long communityId,
@@ -0,0 +1,181 @@
+package com.example.javaddit.features.post.repository;
+
+import com.example.javaddit.features.post.ranking.RankedCursor;
+import com.example.javaddit.features.post.ranking.TopEntry;
+import com.example.javaddit.features.post.ranking.TopWindow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC access to the hourly vote buckets and "top" leaderboards of V12.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PostTopRepository {
+
+    private static final String ADD_TO_BUCKET_SQL = """
+            INSERT INTO post_vote_buckets (post_id, bucket_start, upvotes, downvotes)
+            SELECT p.id, date_trunc('hour', NOW()), :upvotes, :downvotes
+            FROM posts p
+            WHERE p.id = :postId
+            ON CONFLICT (post_id, bucket_start) DO UPDATE
+            SET upvotes = post_vote_buckets.upvotes + EXCLUDED.upvotes,
+                downvotes = post_vote_buckets.downvotes + EXCLUDED.downvotes
+            """;
+
+    private static final String ADD_TO_WINDOWS_SQL = """
+            INSERT INTO post_top_scores (time_window, post_id, community_id, upvotes, downvotes)
+            SELECT w.time_window, p.id, p.community_id, :upvotes, :downvotes
+            FROM posts p
+            CROSS JOIN (VALUES ('HOUR'), ('DAY'), ('WEEK'), ('MONTH'), ('YEAR'), ('ALL')) AS w(time_window)
+            WHERE p.id = :postId
+            ON CONFLICT (time_window, post_id) DO UPDATE
+            SET upvotes = post_top_scores.upvotes + EXCLUDED.upvotes,
+                downvotes = post_top_scores.downvotes + EXCLUDED.downvotes
+            """;
+
+    private static final String SUBTRACT_LEAVING_SQL = """
+            WITH leaving AS (
+                SELECT post_id, SUM(upvotes) AS upvotes, SUM(downvotes) AS downvotes
+                FROM post_vote_buckets
+                WHERE bucket_start >= :from AND bucket_start < :to
+                GROUP BY post_id
+            )
+            UPDATE post_top_scores t
+            SET upvotes = t.upvotes - l.upvotes,
+                downvotes = t.downvotes - l.downvotes
+            FROM leaving l
+            WHERE t.time_window = :window AND t.post_id = l.post_id
+            """;
+
+    private static final String DELETE_EMPTY_SQL = """
+            DELETE FROM post_top_scores t
+            WHERE t.time_window = :window AND t.upvotes = 0 AND t.downvotes = 0
+              AND t.post_id IN (
+                  SELECT post_id FROM post_vote_buckets WHERE bucket_start >= :from AND bucket_start < :to
+              )
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Add vote count deltas to the current hour's bucket and to every window of each post, one
+     * JDBC batch per table. Deltas of posts that no longer exist are dropped.
+     */
+    public void addVoteCounts(Collection<TopEntry> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        SqlParameterSource[] parameters = deltas.stream()
+                .map(delta -> new MapSqlParameterSource()
+                        .addValue("postId", delta.postId())
+                        .addValue("upvotes", delta.upvotes())
+                        .addValue("downvotes", delta.downvotes()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(ADD_TO_BUCKET_SQL, parameters);
+        jdbcTemplate.batchUpdate(ADD_TO_WINDOWS_SQL, parameters);
+    }
+
+    /**
+     * Lock the watermark of a window and return it with the boundary the window has moved to by
+     * now, or null when another instance holds the lock. Must run in a transaction.
+     */
+    public ExpiryRange lockExpiryRange(TopWindow window) {
+        List<ExpiryRange> ranges = jdbcTemplate.query("""
+                SELECT expired_before, date_trunc('hour', NOW()) - window_length AS boundary
+                FROM post_top_watermarks
+                WHERE time_window = :window
+                FOR UPDATE SKIP LOCKED
+                """, Map.of("window", window.name()),
+                (rs, rowNum) -> new ExpiryRange(rs.getTimestamp("expired_before"), rs.getTimestamp("boundary")));
+        return ranges.isEmpty() ? null : ranges.get(0);
+    }
+
+    /**
+     * Subtract the buckets of the range from a window, drop posts left without votes in it and
+     * advance its watermark. Returns the number of posts updated.
+     */
+    public int expire(TopWindow window, ExpiryRange range) {
+        Map<String, Object> parameters = Map.of("window", window.name(), "from", range.from(), "to", range.to());
+        int updated = jdbcTemplate.update(SUBTRACT_LEAVING_SQL, parameters);
+        jdbcTemplate.update(DELETE_EMPTY_SQL, parameters);
+        jdbcTemplate.update("UPDATE post_top_watermarks SET expired_before = :to WHERE time_window = :window",
+                parameters);
+        return updated;
+    }
+
+    /**
+     * Delete buckets that every window has expired.
+     */
+    public int deleteBucketsBefore(Timestamp before) {
+        return jdbcTemplate.update("DELETE FROM post_vote_buckets WHERE bucket_start < :before",
+                Map.of("before", before));
+    }
+
+    /**
+     * Up to {@code limit} leaderboard entries of a window, globally or of one community, ranked
+     * after the cursor by {@code (score DESC, post_id DESC)}.
+     */
+    public List<TopEntry> findPage(TopWindow window, Long communityId, RankedCursor after, int limit) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("window", window.name())
+                .addValue("limit", limit);
+        StringBuilder sql = new StringBuilder("""
+                SELECT post_id, upvotes, downvotes FROM post_top_scores
+                WHERE time_window = :window
+                """);
+        if (communityId != null) {
+            sql.append(" AND community_id = :communityId");
+            parameters.addValue("communityId", communityId);
+        }
+        if (after != null) {
+            sql.append(" AND score <= :score AND (score < :score OR post_id < :postId)");
+            parameters.addValue("score", (int) after.rank()).addValue("postId", after.id());
+        }
+        sql.append(" ORDER BY score DESC, post_id DESC LIMIT :limit");
+
+        return jdbcTemplate.query(sql.toString(), parameters, (rs, rowNum) ->
+                new TopEntry(rs.getLong("post_id"), rs.getInt("upvotes"), rs.getInt("downvotes")));
+    }
+
+    /**
+     * All-time upvote and downvote counts of the given posts; posts without votes are absent.
+     */
+    public Map<Long, TopEntry> findTotals(Collection<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, TopEntry> totals = new HashMap<>();
+        jdbcTemplate.query("""
+                SELECT post_id, upvotes, downvotes FROM post_top_scores
+                WHERE time_window = 'ALL' AND post_id IN (:ids)
+                """, Map.of("ids", postIds), rs -> {
+            totals.put(rs.getLong("post_id"),
+                    new TopEntry(rs.getLong("post_id"), rs.getInt("upvotes"), rs.getInt("downvotes")));
+        });
+        return totals;
+    }
+
+    /**
+     * Buckets starting in {@code [from, to)} are leaving a window.
+     */
+    public record ExpiryRange(Timestamp from, Timestamp to) {
+
+        public boolean isEmpty() {
+            return !to.after(from);
+        }
+
+        public long hours() {
+            return (to.getTime() - from.getTime()) / 3_600_000L;
+        }
+    }
+}
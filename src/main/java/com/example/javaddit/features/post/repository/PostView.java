@@ -0,0 +1,30 @@
+package com.example.javaddit.features.post.repository;
+
+import com.example.javaddit.features.post.entity.Post;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns of a post that read endpoints return, selected together with the name of its
+ * community so that listing posts does not initialize the lazy {@code community} of each one.
+ */
+public record PostView(
+        Long id,
+        Long authorId,
+        String communityName,
+        String title,
+        String slug,
+        String content,
+        String url,
+        Integer score,
+        Integer commentsCount,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {
+
+    public static PostView of(Post post) {
+        return new PostView(post.getId(), post.getAuthor().getId(), post.getCommunity().getName(), post.getTitle(),
+                post.getSlug(), post.getContent(), post.getUrl(), post.getScore(), post.getCommentsCount(),
+                post.getCreatedAt(), post.getUpdatedAt());
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.javaddit.features.post.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+
+/**
+ * Persisted HyperLogLog registers of post viewers, see {@code V14__post_view_sketches.sql}.
+ * Registers are merged by the caller: new rows are inserted, existing ones locked, merged in
+ * memory and written back, all in one transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PostViewSketchRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Optional<byte[]> findRegisters(long postId) {
+        List<byte[]> registers = jdbcTemplate.query("SELECT registers FROM post_view_sketches WHERE post_id = ?",
+                (rs, rowNum) -> rs.getBytes(1), postId);
+        return registers.stream().findFirst();
+    }
+
+    /**
+     * Insert the registers of posts that have no stored sketch yet, in one statement, and return
+     * the ids of those posts. Posts deleted meanwhile are skipped.
+     */
+    public Set<Long> insertMissing(SortedMap<Long, byte[]> registers) {
+        if (registers.isEmpty()) {
+            return Set.of();
+        }
+        String values = String.join(", ", Collections.nCopies(registers.size(), "(?::bigint, ?::bytea)"));
+        List<Object> parameters = new ArrayList<>(registers.size() * 2);
+        registers.forEach((postId, bytes) -> {
+            parameters.add(postId);
+            parameters.add(bytes);
+        });
+        return new HashSet<>(jdbcTemplate.queryForList("""
+                INSERT INTO post_view_sketches (post_id, registers)
+                SELECT v.post_id, v.registers FROM (VALUES %s) AS v (post_id, registers)
+                WHERE EXISTS (SELECT 1 FROM posts p WHERE p.id = v.post_id)
+                ON CONFLICT (post_id) DO NOTHING
+                RETURNING post_id
+                """.formatted(values), Long.class, parameters.toArray()));
+    }
+
+    /**
+     * Lock the stored sketches of the given posts, in post id order so that concurrent flushes do
+     * not deadlock, and return their registers. Must run in a transaction.
+     */
+    public Map<Long, byte[]> lockRegisters(Collection<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return Map.of();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(postIds.size(), "?"));
+        Map<Long, byte[]> registers = new HashMap<>();
+        jdbcTemplate.query("SELECT post_id, registers FROM post_view_sketches WHERE post_id IN (" + placeholders
+                        + ") ORDER BY post_id FOR UPDATE",
+                rs -> {
+                    registers.put(rs.getLong("post_id"), rs.getBytes("registers"));
+                }, postIds.toArray());
+        return registers;
+    }
+
+    /**
+     * Overwrite stored registers, one JDBC batch.
+     */
+    public void updateAll(Map<Long, byte[]> registers) {
+        if (registers.isEmpty()) {
+            return;
+        }
+        List<Object[]> parameters = new ArrayList<>(registers.size());
+        registers.forEach((postId, bytes) -> parameters.add(new Object[]{bytes, postId}));
+        jdbcTemplate.batchUpdate("UPDATE post_view_sketches SET registers = ?, updated_at = NOW() WHERE post_id = ?",
+                parameters);
+    }
+}
@@ -0,0 +1,319 @@
+package com.example.javaddit.features.post.service;
+
+import com.example.javaddit.core.util.TransactionCallbacks;
+import com.example.javaddit.features.post.dto.PostPageResponse;
+import com.example.javaddit.features.post.dto.PostResponse;
+import com.example.javaddit.features.post.ranking.TopWindow;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache of the first page of community feeds, per community, sort and page size.
+ * <p>
+ * Pages are stored serialized, without viewer-specific fields, and the cache is bounded by their
+ * total size in bytes, evicting the least recently read page first. A new post invalidates every
+ * page of its community; a page whose posts have changed score by {@code refresh-score-threshold}
+ * in total is rebuilt in the background while the old one is still served. Pages also expire
+ * {@code ttl-seconds} after they were built, which bounds staleness from posts entering a ranking.
+ * <p>
+ * Only one rebuild per key runs at a time: concurrent misses wait for it instead of querying the
+ * database themselves. Metrics are published under {@code javaddit.posts.feed_cache.*}.
+ */
+@Component
+@Slf4j
+public class CommunityFeedCache {
+
+    private static final String METRIC_PREFIX = "javaddit.posts.feed_cache.";
+
+    /**
+     * Rough size of an entry besides its serialized page, for the byte budget.
+     */
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    private final ObjectMapper objectMapper;
+    private final CommunityFeedCacheProperties properties;
+
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+    private final ConcurrentHashMap<Long, Set<Entry>> entriesByPost = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Key, CompletableFuture<byte[]>> rebuilds = new ConcurrentHashMap<>();
+
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "community-feed-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter refreshes;
+    private final Timer rebuildTimer;
+
+    public CommunityFeedCache(ObjectMapper objectMapper,
+                              CommunityFeedCacheProperties properties,
+                              MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+
+        this.hits = Counter.builder(METRIC_PREFIX + "requests")
+                .description("First page requests of community feeds")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder(METRIC_PREFIX + "requests")
+                .description("First page requests of community feeds")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.refreshes = Counter.builder(METRIC_PREFIX + "refreshes")
+                .description("Pages rebuilt in the background after score changes")
+                .register(meterRegistry);
+        this.rebuildTimer = Timer.builder(METRIC_PREFIX + "rebuild")
+                .description("Time to build and serialize one page")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "hit.ratio", this, CommunityFeedCache::hitRatio)
+                .description("Fraction of first page requests served from the cache")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "size.bytes", this, CommunityFeedCache::sizeInBytes)
+                .description("Total size of the cached pages")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "entries", this, CommunityFeedCache::entryCount)
+                .description("Number of cached pages")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.enabled();
+    }
+
+    /**
+     * The cached page for the key, or the page built by {@code loader}, which is then cached.
+     * Every call returns its own copy.
+     *
+     * @param loader builds the page without viewer-specific fields; it may run on another thread
+     *               later, to refresh the page, so it must manage its own transaction
+     */
+    public PostPageResponse get(Key key, Supplier<PostPageResponse> loader) {
+        byte[] page = lookup(key);
+        if (page != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            page = rebuild(key, loader);
+        }
+        return deserialize(page);
+    }
+
+    /**
+     * Drop every page of a community once the current transaction commits. Rebuilds that started
+     * earlier do not store their result.
+     */
+    public void invalidateCommunity(long communityId) {
+        TransactionCallbacks.afterCommit(() -> {
+            generation(communityId).incrementAndGet();
+            synchronized (this) {
+                entries.values().removeIf(entry -> {
+                    if (entry.key().communityId() != communityId) {
+                        return false;
+                    }
+                    unlink(entry);
+                    return true;
+                });
+            }
+        });
+    }
+
+    /**
+     * Account a score change of a post once the current transaction commits, and schedule a
+     * background rebuild of the cached pages showing it that have drifted past the threshold.
+     */
+    public void recordScoreChange(long postId, int delta) {
+        if (delta == 0 || !entriesByPost.containsKey(postId)) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> {
+            Set<Entry> showing = entriesByPost.get(postId);
+            if (showing == null) {
+                return;
+            }
+            for (Entry entry : showing) {
+                if (entry.drift().addAndGet(Math.abs(delta)) >= properties.refreshScoreThreshold()
+                        && entry.refreshing().compareAndSet(false, true)) {
+                    refreshExecutor.execute(() -> refresh(entry));
+                }
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private void refresh(Entry entry) {
+        synchronized (this) {
+            if (entries.get(entry.key()) != entry) {
+                return;
+            }
+        }
+        try {
+            rebuild(entry.key(), entry.loader());
+            refreshes.increment();
+        } catch (RuntimeException ex) {
+            entry.refreshing().set(false);
+            log.warn("Failed to refresh cached feed page {}: {}", entry.key(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Build and store the page, or wait for the rebuild of the same key that is already running.
+     */
+    private byte[] rebuild(Key key, Supplier<PostPageResponse> loader) {
+        CompletableFuture<byte[]> mine = new CompletableFuture<>();
+        CompletableFuture<byte[]> running = rebuilds.putIfAbsent(key, mine);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException ex) {
+                throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+            }
+        }
+
+        try {
+            long generation = generation(key.communityId()).get();
+            long started = System.nanoTime();
+            PostPageResponse response = loader.get();
+            byte[] page = serialize(response);
+            rebuildTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+
+            long[] postIds = response.getItems().stream().mapToLong(PostResponse::getId).toArray();
+            store(new Entry(key, page, postIds, loader, System.currentTimeMillis(), new AtomicInteger(),
+                    new AtomicBoolean()), generation);
+            mine.complete(page);
+            return page;
+        } catch (RuntimeException ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            rebuilds.remove(key, mine);
+        }
+    }
+
+    private synchronized byte[] lookup(Key key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() - entry.builtAt() > properties.ttlSeconds() * 1000) {
+            entries.remove(key);
+            unlink(entry);
+            return null;
+        }
+        return entry.page();
+    }
+
+    private synchronized void store(Entry entry, long generation) {
+        if (generation(entry.key().communityId()).get() != generation) {
+            return;
+        }
+        Entry previous = entries.put(entry.key(), entry);
+        if (previous != null) {
+            unlink(previous);
+        }
+        totalBytes += entry.weight();
+        for (long postId : entry.postIds()) {
+            entriesByPost.computeIfAbsent(postId, id -> ConcurrentHashMap.newKeySet()).add(entry);
+        }
+
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (totalBytes > properties.maxBytes() && eldest.hasNext()) {
+            Entry evicted = eldest.next();
+            eldest.remove();
+            unlink(evicted);
+        }
+    }
+
+    /**
+     * Forget an entry that was removed from {@link #entries}. Caller holds the lock.
+     */
+    private void unlink(Entry entry) {
+        totalBytes -= entry.weight();
+        for (long postId : entry.postIds()) {
+            Set<Entry> showing = entriesByPost.get(postId);
+            if (showing != null && showing.remove(entry) && showing.isEmpty()) {
+                entriesByPost.remove(postId);
+            }
+        }
+    }
+
+    private AtomicLong generation(long communityId) {
+        return generations.computeIfAbsent(communityId, id -> new AtomicLong());
+    }
+
+    private byte[] serialize(PostPageResponse page) {
+        try {
+            return objectMapper.writeValueAsBytes(page);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize feed page", ex);
+        }
+    }
+
+    private PostPageResponse deserialize(byte[] page) {
+        try {
+            return objectMapper.readValue(page, PostPageResponse.class);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not deserialize cached feed page", ex);
+        }
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total > 0 ? hits.count() / total : 0.0;
+    }
+
+    private synchronized long sizeInBytes() {
+        return totalBytes;
+    }
+
+    private synchronized int entryCount() {
+        return entries.size();
+    }
+
+    /**
+     * A cached page: the first page of one community feed in one order and page size.
+     *
+     * @param window time window of {@link PostSort#TOP}, null for the other orders
+     */
+    public record Key(long communityId, PostSort sort, TopWindow window, int pageSize) {
+    }
+
+    private record Entry(Key key, byte[] page, long[] postIds, Supplier<PostPageResponse> loader, long builtAt,
+                         AtomicInteger drift, AtomicBoolean refreshing) {
+
+        long weight() {
+            return page.length + ENTRY_OVERHEAD_BYTES;
+        }
+    }
+}
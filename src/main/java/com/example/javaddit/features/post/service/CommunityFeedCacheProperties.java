@@ -0,0 +1,24 @@
+package com.example.javaddit.features.post.service;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Settings of the {@link CommunityFeedCache}.
+ *
+ * @param enabled               whether first pages of community feeds are cached
+ * @param maxBytes              total size of the serialized pages kept; least recently read go first
+ * @param ttlSeconds            a page is rebuilt on the first read this long after it was built
+ * @param refreshScoreThreshold sum of absolute score changes of a page's posts that triggers
+ *                              an asynchronous rebuild of the page
+ */
+@ConfigurationProperties(prefix = "app.posts.feed-cache")
+@Validated
+public record CommunityFeedCacheProperties(
+        boolean enabled,
+        @Positive long maxBytes,
+        @Positive long ttlSeconds,
+        @Positive int refreshScoreThreshold
+) {
+}
@@ -0,0 +1,33 @@
+package com.example.javaddit.features.post.service;
+
+import com.example.javaddit.core.exception.ValidationException;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Paging limits of the post feeds.
+ *
+ * @param defaultPageSize posts per page when the client does not ask for a size
+ * @param maxPageSize     largest page a client may ask for; larger requests are capped
+ */
+@ConfigurationProperties(prefix = "app.posts.feed")
+@Validated
+public record PostFeedProperties(
+        @Positive int defaultPageSize,
+        @Positive int maxPageSize
+) {
+
+    /**
+     * The page size to serve for a client's requested {@code limit}, which may be null.
+     */
+    public int resolvePageSize(Integer pageSize) {
+        if (pageSize == null) {
+            return defaultPageSize;
+        }
+        if (pageSize < 1) {
+            throw new ValidationException("Limit must be positive");
+        }
+        return Math.min(pageSize, maxPageSize);
+    }
+}
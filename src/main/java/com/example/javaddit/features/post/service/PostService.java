@@ -2,59 +2,167 @@
 
 import com.example.javaddit.core.exception.NotFoundException;
 import com.example.javaddit.core.exception.ValidationException;
+import com.example.javaddit.features.feed.service.HomeTimelines;
+import com.example.javaddit.features.post.dto.PostPageResponse;
 import com.example.javaddit.features.post.dto.PostRequest;
 import com.example.javaddit.features.post.dto.PostResponse;
 import com.example.javaddit.features.community.entity.Community;
+import com.example.javaddit.features.community.trending.TrendingCommunities;
 import com.example.javaddit.features.post.entity.Post;
+import com.example.javaddit.features.post.ranking.HotRankingService;
+import com.example.javaddit.features.post.ranking.RankedCursor;
+import com.example.javaddit.features.post.ranking.RankedPost;
+import com.example.javaddit.features.post.ranking.RankingSnapshot;
+import com.example.javaddit.features.post.ranking.RankingSnapshots;
+import com.example.javaddit.features.post.ranking.RisingRankingService;
+import com.example.javaddit.features.post.ranking.TopEntry;
+import com.example.javaddit.features.post.ranking.TopRankingService;
+import com.example.javaddit.features.post.ranking.TopWindow;
 import com.example.javaddit.features.user.entity.User;
 import com.example.javaddit.features.community.repository.CommunityRepository;
 import com.example.javaddit.features.post.repository.PostRepository;
+import com.example.javaddit.features.post.repository.PostView;
+import com.example.javaddit.features.post.views.PostViewCounter;
+import com.example.javaddit.features.search.service.SearchIndexer;
 import com.example.javaddit.features.user.repository.UserRepository;
+import com.example.javaddit.features.user.service.BlockListCache;
+import com.example.javaddit.features.user.service.BlockedUsers;
+import com.example.javaddit.features.vote.entity.VoteTargetType;
+import com.example.javaddit.features.vote.entity.VoteType;
+import com.example.javaddit.features.vote.repository.CounterShardTotals;
+import com.example.javaddit.features.vote.service.VoteScoreAggregator;
+import com.example.javaddit.features.vote.service.ShardedCounterService;
+import com.example.javaddit.features.vote.service.VoteService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.text.Normalizer;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class PostService {
 
+    private static final int MAX_SLUG_ATTEMPTS = 3;
+
     private final PostRepository postRepository;
     private final CommunityRepository communityRepository;
     private final UserRepository userRepository;
+    private final VoteScoreAggregator scoreAggregator;
+    private final VoteService voteService;
+    private final ShardedCounterService shardedCounters;
+    private final PostFeedProperties feedProperties;
+    private final HotRankingService hotRanking;
+    private final TopRankingService topRanking;
+    private final RisingRankingService risingRanking;
+    private final RankingSnapshots rankingSnapshots;
+    private final CommunityFeedCache communityFeedCache;
+    private final PostSlugAllocator slugAllocator;
+    private final HomeTimelines homeTimelines;
+    private final BlockListCache blockListCache;
+    private final SearchIndexer searchIndexer;
+    private final TrendingCommunities trendingCommunities;
+    private final PostViewCounter viewCounter;
+    private final TransactionTemplate transactionTemplate;
 
+    /**
+     * One page of posts, optionally of a single community: newest first, by hot rank, rising, or
+     * by score within a time {@code window}. Pass the {@code nextCursor} of the previous page to
+     * continue; an unknown community yields an empty page. Posts by authors the viewer blocked are
+     * left out, so a page may hold fewer posts than asked for.
+     */
     @Transactional(readOnly = true)
-    public List<PostResponse> getPosts(String communityName) {
-        List<Post> posts;
+    public PostPageResponse getPosts(String communityName, String sort, String window, String cursor,
+                                     Integer pageSize, Long viewerId) {
+        PostSort order = PostSort.from(sort);
+        int size = feedProperties.resolvePageSize(pageSize);
+        boolean hasCursor = cursor != null && !cursor.isEmpty();
 
-        if (communityName != null && !communityName.isEmpty()) {
-            posts = postRepository.findByCommunityName(communityName);
-        } else {
-            posts = postRepository.findAllOrderByCreatedAtDesc();
+        boolean filtered = communityName != null && !communityName.isEmpty();
+        Long communityId = filtered
+                ? communityRepository.findByName(communityName).map(Community::getId).orElse(null)
+                : null;
+        if (filtered && communityId == null) {
+            return new PostPageResponse(List.of(), null);
         }
 
-        return posts.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        if (communityId != null && !hasCursor && communityFeedCache.isEnabled()) {
+            CommunityFeedCache.Key key = new CommunityFeedCache.Key(communityId, order,
+                    order == PostSort.TOP ? TopWindow.from(window) : null, size);
+            // Cached pages are shared by all viewers, so they are built without viewer votes or blocks
+            PostPageResponse page = communityFeedCache.get(key, () -> transactionTemplate.execute(
+                    status -> getPage(order, window, communityId, null, size, null)));
+            BlockedUsers blocked = blockListCache.blockedBy(viewerId);
+            if (!blocked.isEmpty()) {
+                page.getItems().removeIf(post -> blocked.contains(post.getAuthorId()));
+            }
+            applyViewerVotes(page.getItems(), viewerId);
+            return page;
+        }
+        return getPage(order, window, communityId, cursor, size, viewerId);
+    }
+
+    private PostPageResponse getPage(PostSort order, String window, Long communityId, String cursor, int size,
+                                     Long viewerId) {
+        boolean hasCursor = cursor != null && !cursor.isEmpty();
+        RankedCursor rankedAfter = hasCursor && order != PostSort.NEW ? RankedCursor.decode(cursor) : null;
+        return switch (order) {
+            case NEW -> getNewPage(communityId, hasCursor ? PostCursor.decode(cursor) : null, size, viewerId);
+            case HOT -> getRankedPage("hot:" + communityId, rankedAfter, size, viewerId,
+                    (after, limit) -> hotRanking.page(communityId, after, limit));
+            case RISING -> getRankedPage("rising:" + communityId, rankedAfter, size, viewerId,
+                    (after, limit) -> risingRanking.page(communityId, after, limit));
+            case TOP -> {
+                TopWindow topWindow = TopWindow.from(window);
+                yield getRankedPage("top:" + topWindow + ":" + communityId, rankedAfter, size, viewerId,
+                        (after, limit) -> topRanking.page(topWindow, communityId, after, limit).stream()
+                                .map(TopEntry::toRankedPost)
+                                .toList());
+            }
+        };
+    }
+
+    /**
+     * A page of the given posts in the given order, for feeds assembled elsewhere. Posts that no
+     * longer exist are skipped.
+     */
+    @Transactional(readOnly = true)
+    public PostPageResponse getPostsInOrder(List<Long> postIds, String nextCursor, Long viewerId) {
+        return toPage(findAllInOrder(postIds), nextCursor, viewerId);
     }
 
     @Transactional(readOnly = true)
-    public PostResponse getPostById(Long id) {
+    public PostResponse getPostById(Long id, Long viewerId) {
         if (id == null) {
             throw new ValidationException("Post ID cannot be null");
         }
 
-        Post post = postRepository.findById(id)
+        PostView post = postRepository.findViewById(id)
                 .orElseThrow(() -> new NotFoundException("Post not found: " + id));
 
-        return mapToResponse(post);
+        PostResponse response = mapToResponse(post);
+        applyCounterShards(List.of(response));
+        applyVoteCounts(List.of(response));
+        applyViewerVotes(List.of(response), viewerId);
+        if (viewCounter.isEnabled()) {
+            response.setViewCount(viewCounter.recordView(id, viewerId));
+        }
+        return response;
     }
 
-    @Transactional
+    /**
+     * Create a post with a slug that is unique in its community. When a concurrent post takes the
+     * same slug first, the insert is retried in a new transaction with a fresh slug.
+     */
     public PostResponse createPost(Long authorId, PostRequest request) {
         boolean hasContent = request.getContent() != null && !request.getContent().trim().isEmpty();
         boolean hasUrl = request.getUrl() != null && !request.getUrl().trim().isEmpty();
@@ -66,6 +174,18 @@ public PostResponse createPost(Long authorId, PostRequest request) {
             throw new ValidationException("Author ID cannot be null");
         }
 
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> insertPost(authorId, request, hasContent, hasUrl));
+            } catch (DataIntegrityViolationException ex) {
+                if (attempt >= MAX_SLUG_ATTEMPTS || !slugAllocator.isSlugConflict(ex)) {
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    private PostResponse insertPost(Long authorId, PostRequest request, boolean hasContent, boolean hasUrl) {
         Community community = communityRepository.findByName(request.getCommunityName())
                 .orElseThrow(() -> new NotFoundException("Community not found: " + request.getCommunityName()));
 
@@ -76,55 +196,173 @@ public PostResponse createPost(Long authorId, PostRequest request) {
         post.setCommunity(community);
         post.setAuthor(author);
         post.setTitle(request.getTitle());
-        post.setSlug(generateUniqueSlug(request.getTitle(), community.getId()));
+        post.setSlug(slugAllocator.allocate(community.getId(), request.getTitle()));
         post.setContent(hasContent ? request.getContent() : null);
         post.setUrl(hasUrl ? request.getUrl() : null);
 
         Post saved = postRepository.save(post);
-        return mapToResponse(saved);
+        hotRanking.recordPost(saved.getId(), community.getId(), saved.getCreatedAt());
+        risingRanking.recordPost(saved.getId(), community.getId(), saved.getCreatedAt());
+        communityFeedCache.invalidateCommunity(community.getId());
+        homeTimelines.recordPost(saved.getId(), authorId);
+        trendingCommunities.recordPost(community.getId());
+        searchIndexer.indexPost(saved.getId(), community.getId(), saved.getTitle(), saved.getContent());
+        return mapToResponse(PostView.of(saved));
     }
 
-    private String generateSlug(String title) {
-        String normalized = Normalizer.normalize(title, Normalizer.Form.NFD);
-        String slug = normalized.replaceAll("[^\\p{ASCII}]", "")
-                .toLowerCase(Locale.ENGLISH)
-                .replaceAll("[^a-z0-9\\s-]", "")
-                .trim()
-                .replaceAll("\\s+", "-")
-                .replaceAll("-+", "-");
+    private PostPageResponse getNewPage(Long communityId, PostCursor after, int size, Long viewerId) {
+        // One extra row tells whether another page follows
+        Limit limit = Limit.of(size + 1);
+        List<PostView> posts;
+        if (communityId != null) {
+            posts = after == null
+                    ? postRepository.findCommunityFeedPage(communityId, limit)
+                    : postRepository.findCommunityFeedPageAfter(communityId, after.createdAt(), after.id(), limit);
+        } else {
+            posts = after == null
+                    ? postRepository.findFeedPage(limit)
+                    : postRepository.findFeedPageAfter(after.createdAt(), after.id(), limit);
+        }
 
-        return slug.isEmpty() ? "post" : slug;
+        String nextCursor = null;
+        if (posts.size() > size) {
+            posts = posts.subList(0, size);
+            nextCursor = PostCursor.after(posts.get(size - 1)).encode();
+        }
+        return toPage(posts, nextCursor, viewerId);
     }
 
-    private String generateUniqueSlug(String title, Long communityId) {
-        String baseSlug = generateSlug(title);
-        String uniqueSlug = baseSlug;
-        int suffix = 2;
+    /**
+     * Page through a ranked feed with snapshot-consistent cursors.
+     * <p>
+     * The first page freezes up to {@code max-posts} of the live ranking into a
+     * {@link RankingSnapshot}, and its cursors are offsets into that snapshot, so one scrolling
+     * session ranks the feed once and votes cast meanwhile cannot duplicate or skip posts. Once the
+     * snapshot is exhausted or has expired, paging continues on the live ranking after the last
+     * post served, by rank and id.
+     *
+     * @param feedKey identifies the feed, so a cursor cannot be replayed against another one
+     * @param ranking reads up to {@code limit} posts of the live ranking after a cursor
+     */
+    private PostPageResponse getRankedPage(String feedKey, RankedCursor after, int size, Long viewerId,
+                                           BiFunction<RankedCursor, Integer, List<RankedPost>> ranking) {
+        if (after == null) {
+            int maxPosts = Math.max(rankingSnapshots.maxPosts(), size + 1);
+            List<RankedPost> ranked = ranking.apply(null, maxPosts);
+            RankingSnapshot snapshot = new RankingSnapshot(ranked, ranked.size() >= maxPosts);
+            String snapshotId = snapshot.size() > size ? rankingSnapshots.create(feedKey, snapshot) : null;
+            return getSnapshotPage(snapshot, snapshotId, 0, size, viewerId);
+        }
+        if (after.snapshot() != null) {
+            RankingSnapshot snapshot = rankingSnapshots.find(after.snapshot(), feedKey);
+            if (snapshot != null) {
+                return getSnapshotPage(snapshot, after.snapshot(), after.offset(), size, viewerId);
+            }
+        }
+
+        List<RankedPost> ranked = ranking.apply(after, size + 1);
+        String nextCursor = null;
+        if (ranked.size() > size) {
+            ranked = ranked.subList(0, size);
+            nextCursor = RankedCursor.after(ranked.get(size - 1)).encode();
+        }
+        return toPage(findAllInOrder(ranked.stream().map(RankedPost::postId).toList()), nextCursor, viewerId);
+    }
 
-        while (postRepository.existsByCommunityIdAndSlug(communityId, uniqueSlug)) {
-            uniqueSlug = baseSlug + "-" + suffix;
-            suffix++;
+    private PostPageResponse getSnapshotPage(RankingSnapshot snapshot, String snapshotId, int offset, int size,
+                                             Long viewerId) {
+        int from = Math.min(offset, snapshot.size());
+        int to = Math.min(from + size, snapshot.size());
+        List<Long> postIds = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            postIds.add(snapshot.postId(i));
+        }
+
+        RankedCursor next = null;
+        if (to > from && to < snapshot.size()) {
+            next = new RankedCursor(snapshot.rank(to - 1), snapshot.postId(to - 1), snapshotId, to);
+        } else if (to > from && snapshot.isTruncated()) {
+            next = new RankedCursor(snapshot.rank(to - 1), snapshot.postId(to - 1));
+        }
+        return toPage(findAllInOrder(postIds), next != null ? next.encode() : null, viewerId);
+    }
+
+    /**
+     * Load posts by id, in the given order; ids of posts that no longer exist are skipped.
+     */
+    private List<PostView> findAllInOrder(List<Long> ids) {
+        Map<Long, PostView> postsById = postRepository.findViewsByIdIn(ids).stream()
+                .collect(Collectors.toMap(PostView::id, Function.identity()));
+        return ids.stream()
+                .map(postsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
 
-            if (suffix > 1000) {
-                throw new IllegalStateException("Unable to generate unique slug after 1000 attempts");
+    /**
+     * Map a page of posts for the viewer. Cursors are taken from the unfiltered rows before this,
+     * so leaving out blocked authors here never skips or repeats posts on the next page.
+     */
+    private PostPageResponse toPage(List<PostView> posts, String nextCursor, Long viewerId) {
+        BlockedUsers blocked = blockListCache.blockedBy(viewerId);
+        List<PostResponse> responses = posts.stream()
+                .filter(post -> !blocked.contains(post.authorId()))
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+        applyCounterShards(responses);
+        applyVoteCounts(responses);
+        applyViewerVotes(responses, viewerId);
+        return new PostPageResponse(responses, nextCursor);
+    }
+
+    private void applyCounterShards(List<PostResponse> responses) {
+        List<Long> postIds = responses.stream().map(PostResponse::getId).toList();
+        Map<Long, CounterShardTotals> totals = shardedCounters.findTotals(VoteTargetType.POST, postIds);
+        for (PostResponse response : responses) {
+            CounterShardTotals shardTotals = totals.get(response.getId());
+            if (shardTotals != null) {
+                response.setScore(response.getScore() + shardTotals.scoreDelta());
+                response.setCommentsCount(Math.max(response.getCommentsCount() + shardTotals.commentsDelta(), 0));
+            }
+        }
+    }
+
+    private void applyVoteCounts(List<PostResponse> responses) {
+        List<Long> postIds = responses.stream().map(PostResponse::getId).toList();
+        Map<Long, TopEntry> totals = topRanking.findTotals(postIds);
+        for (PostResponse response : responses) {
+            TopEntry counts = totals.get(response.getId());
+            if (counts != null) {
+                response.setUpvotes(counts.upvotes());
+                response.setDownvotes(counts.downvotes());
             }
         }
+    }
 
-        return uniqueSlug;
+    private void applyViewerVotes(List<PostResponse> responses, Long viewerId) {
+        if (viewerId == null || responses.isEmpty()) {
+            return;
+        }
+        List<Long> postIds = responses.stream().map(PostResponse::getId).toList();
+        Map<Long, VoteType> votes = voteService.findVotesByUserAndTargets(viewerId, VoteTargetType.POST, postIds);
+        responses.forEach(response -> response.setMyVote(votes.get(response.getId())));
     }
 
-    private PostResponse mapToResponse(Post post) {
+    private PostResponse mapToResponse(PostView post) {
         PostResponse response = new PostResponse();
-        response.setId(post.getId());
-        response.setCommunityName(post.getCommunity().getName());
-        response.setTitle(post.getTitle());
-        response.setSlug(post.getSlug());
-        response.setContent(post.getContent());
-        response.setUrl(post.getUrl());
-        response.setScore(post.getScore());
-        response.setCommentsCount(post.getCommentsCount());
-        response.setCreatedAt(post.getCreatedAt());
-        response.setUpdatedAt(post.getUpdatedAt());
+        response.setId(post.id());
+        response.setAuthorId(post.authorId());
+        response.setCommunityName(post.communityName());
+        response.setTitle(post.title());
+        response.setSlug(post.slug());
+        response.setContent(post.content());
+        response.setUrl(post.url());
+        response.setScore(scoreAggregator.mergedScore(VoteTargetType.POST, post.id(), post.score()));
+        response.setUpvotes(0);
+        response.setDownvotes(0);
+        response.setCommentsCount(post.commentsCount());
+        response.setCreatedAt(post.createdAt());
+        response.setUpdatedAt(post.updatedAt());
         return response;
     }
 }
@@ -0,0 +1,104 @@
+package com.example.javaddit.features.post.service;
+
+import com.example.javaddit.core.util.TextFolding;
+import com.example.javaddit.features.post.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Derives post slugs from titles and picks the first free one within a community.
+ * <p>
+ * A title whose slug is taken gets the suffix after the highest one in use ({@code -2}, {@code -3},
+ * ...), found with a single query over the slugs sharing its prefix. Two posts created at the same
+ * time can still pick the same slug; {@link #isSlugConflict} recognizes the resulting unique index
+ * violation so that the caller can retry with a fresh allocation.
+ */
+@Component
+@RequiredArgsConstructor
+public class PostSlugAllocator {
+
+    private static final String FALLBACK_SLUG = "post";
+    private static final String SLUG_INDEX = "posts_slug_unique_per_community";
+
+    /**
+     * Suffixes longer than this are someone else's slug that merely ends in digits.
+     */
+    private static final int MAX_SUFFIX_DIGITS = 9;
+
+    private final PostRepository postRepository;
+
+    /**
+     * A slug for the title that is not used in the community yet, as of this transaction.
+     */
+    public String allocate(Long communityId, String title) {
+        String base = slugify(title);
+        List<String> taken = postRepository.findSlugsByCommunityIdAndSlugPattern(communityId, base + "%");
+
+        boolean baseTaken = false;
+        int highestSuffix = 1;
+        for (String slug : taken) {
+            if (slug.equals(base)) {
+                baseTaken = true;
+            } else {
+                highestSuffix = Math.max(highestSuffix, suffixOf(slug, base));
+            }
+        }
+        return baseTaken ? base + "-" + (highestSuffix + 1) : base;
+    }
+
+    /**
+     * Lowercase ASCII letters and digits of the title, accents stripped, with runs of whitespace
+     * and hyphens between them turned into single hyphens; other characters are dropped.
+     */
+    public String slugify(String title) {
+        String text = TextFolding.decompose(title);
+        StringBuilder slug = new StringBuilder(text.length());
+        boolean separator = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            char folded = TextFolding.lowerAlphanumeric(c);
+            if (folded != 0) {
+                if (separator && !slug.isEmpty()) {
+                    slug.append('-');
+                }
+                slug.append(folded);
+                separator = false;
+            } else if (c == '-' || (c < 128 && Character.isWhitespace(c))) {
+                separator = true;
+            }
+        }
+        return slug.isEmpty() ? FALLBACK_SLUG : slug.toString();
+    }
+
+    /**
+     * Whether the insert failed because another post in the community took the same slug.
+     */
+    public boolean isSlugConflict(DataIntegrityViolationException ex) {
+        return ex.getCause() instanceof ConstraintViolationException violation
+                && SLUG_INDEX.equals(violation.getConstraintName());
+    }
+
+    /**
+     * The number in {@code base-<number>}, or 0 if the slug does not have that form.
+     */
+    private static int suffixOf(String slug, String base) {
+        int start = base.length() + 1;
+        int digits = slug.length() - start;
+        if (digits < 1 || digits > MAX_SUFFIX_DIGITS || !slug.startsWith(base) || slug.charAt(base.length()) != '-') {
+            return 0;
+        }
+        int suffix = 0;
+        for (int i = start; i < slug.length(); i++) {
+            char c = slug.charAt(i);
+            if (c < '0' || c > '9') {
+                return 0;
+            }
+            suffix = suffix * 10 + (c - '0');
+        }
+        return suffix;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.javaddit.features.post.service;
+
+import com.example.javaddit.core.exception.ValidationException;
+
+import java.util.Locale;
+
+/**
+ * Orders a post feed can be requested in.
+ */
+public enum PostSort {
+    NEW,
+    HOT,
+    TOP,
+    RISING;
+
+    /**
+     * Parse the {@code sort} request parameter; absent means {@link #NEW}.
+     */
+    public static PostSort from(String value) {
+        if (value == null || value.isEmpty()) {
+            return NEW;
+        }
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new ValidationException("Unknown sort: " + value);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.javaddit.features.post.views;
+
+import com.example.javaddit.features.post.repository.PostViewSketchRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Approximate unique viewers per post, counted in memory with a {@link ViewSketch} per post.
+ * <p>
+ * A sketch is loaded from {@code post_view_sketches} the first time its post is viewed on this
+ * instance; later views only touch memory. Changed sketches are merged into the table in batches
+ * every {@code flush-interval-ms} and at shutdown: the stored registers are locked, raised to the
+ * flushed ones in memory and written back in one transaction, and the merged registers are kept,
+ * so each instance also picks up the viewers counted by the others. Views are not
+ * rows anywhere: a crash loses at most the views of one flush interval.
+ * <p>
+ * Once more than {@code max-sketches} posts are held, each flush evicts the flushed sketches of
+ * posts not viewed since the previous flush.
+ */
+@Component
+@Slf4j
+public class PostViewCounter {
+
+    private final PostViewSketchRepository repository;
+    private final PostViewProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ConcurrentHashMap<Long, ViewSketch> sketches = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public PostViewCounter(PostViewSketchRepository repository, PostViewProperties properties,
+                           TransactionTemplate transactionTemplate) {
+        this.repository = repository;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public boolean isEnabled() {
+        return properties.enabled();
+    }
+
+    /**
+     * Count a view of the post and return its estimated number of distinct viewers. Anonymous
+     * views are not counted.
+     */
+    public long recordView(Long postId, Long viewerId) {
+        ViewSketch sketch = sketchOf(postId);
+        return viewerId != null ? sketch.offer(viewerId) : sketch.estimate();
+    }
+
+    @Scheduled(fixedDelayString = "${app.posts.views.flush-interval-ms}")
+    public void flush() {
+        if (!properties.enabled() || !flushLock.tryLock()) {
+            return;
+        }
+        try {
+            flushDirty();
+            if (sketches.size() > properties.maxSketches()) {
+                evictIdle();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushLock.lock();
+        try {
+            flushDirty();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private ViewSketch sketchOf(Long postId) {
+        ViewSketch sketch = sketches.get(postId);
+        if (sketch != null) {
+            return sketch;
+        }
+        ViewSketch loaded;
+        try {
+            loaded = ViewSketch.of(repository.findRegisters(postId).orElse(null));
+        } catch (DataAccessException ex) {
+            // Counting starts empty; the next flush merges with the stored registers
+            log.warn("Could not load view sketch of post {}: {}", postId, ex.getMessage());
+            loaded = new ViewSketch();
+        }
+        ViewSketch raced = sketches.putIfAbsent(postId, loaded);
+        return raced != null ? raced : loaded;
+    }
+
+    private void flushDirty() {
+        SortedMap<Long, byte[]> batch = new TreeMap<>();
+        for (Map.Entry<Long, ViewSketch> entry : sketches.entrySet()) {
+            if (entry.getValue().isDirty()) {
+                batch.put(entry.getKey(), entry.getValue().drain());
+                if (batch.size() >= properties.maxBatchSize()) {
+                    if (!merge(batch)) {
+                        return;
+                    }
+                    batch.clear();
+                }
+            }
+        }
+        merge(batch);
+    }
+
+    /**
+     * Merge one batch into the database and the merged registers back into memory. A failed batch
+     * is marked dirty again and retried on the next flush.
+     */
+    private boolean merge(SortedMap<Long, byte[]> batch) {
+        Map<Long, byte[]> merged;
+        try {
+            merged = transactionTemplate.execute(status -> mergeAll(batch));
+        } catch (DataAccessException | TransactionException ex) {
+            log.warn("Could not flush {} post view sketches, retrying on the next flush: {}",
+                    batch.size(), ex.getMessage());
+            batch.keySet().forEach(postId -> {
+                ViewSketch sketch = sketches.get(postId);
+                if (sketch != null) {
+                    sketch.markDirty();
+                }
+            });
+            return false;
+        }
+        merged.forEach((postId, registers) -> {
+            ViewSketch sketch = sketches.get(postId);
+            if (sketch != null) {
+                sketch.merge(registers);
+            }
+        });
+        // Deleted posts: nothing left to count
+        batch.keySet().stream().filter(postId -> !merged.containsKey(postId)).forEach(sketches::remove);
+        return true;
+    }
+
+    /**
+     * Insert the sketches of posts without a stored one and merge the others into their locked
+     * rows. Returns the registers now stored by post id; posts deleted meanwhile are absent.
+     */
+    private Map<Long, byte[]> mergeAll(SortedMap<Long, byte[]> batch) {
+        Set<Long> inserted = repository.insertMissing(batch);
+        List<Long> existing = batch.keySet().stream().filter(postId -> !inserted.contains(postId)).toList();
+        Map<Long, byte[]> updated = new HashMap<>();
+        repository.lockRegisters(existing).forEach((postId, stored) ->
+                updated.put(postId, ViewSketch.union(stored, batch.get(postId))));
+        repository.updateAll(updated);
+
+        Map<Long, byte[]> merged = new HashMap<>(updated);
+        inserted.forEach(postId -> merged.put(postId, batch.get(postId)));
+        return merged;
+    }
+
+    private void evictIdle() {
+        sketches.forEach((postId, sketch) -> {
+            if (!sketch.takeViewed() && !sketch.isDirty()) {
+                sketches.remove(postId, sketch);
+            }
+        });
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.javaddit.features.post.views;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Tuning for {@link PostViewCounter}.
+ *
+ * @param enabled         whether post views are counted and reported
+ * @param maxSketches     sketches kept in memory before idle ones are evicted, 2 KB each
+ * @param flushIntervalMs delay between two flushes of changed sketches
+ * @param maxBatchSize    sketches merged into the database per transaction
+ */
+@ConfigurationProperties(prefix = "app.posts.views")
+@Validated
+public record PostViewProperties(
+        boolean enabled,
+        @Positive int maxSketches,
+        @Positive long flushIntervalMs,
+        @Positive int maxBatchSize
+) {
+}
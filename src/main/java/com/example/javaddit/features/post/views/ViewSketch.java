@@ -0,0 +1,176 @@
+package com.example.javaddit.features.post.views;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * HyperLogLog sketch of the distinct viewers of one post: {@value #REGISTERS} one-byte registers,
+ * so 2 KB per post whatever the number of views, with a standard error of about 2.3%.
+ * <p>
+ * Registers only grow, and are raised with a compare-and-set, so concurrent viewers never lock and
+ * never lose an update. Most views of a post seen before leave every register unchanged; those
+ * views neither write nor allocate. The estimate is cached and recomputed only after a register
+ * changed.
+ */
+final class ViewSketch {
+
+    static final int PRECISION = 11;
+    static final int REGISTERS = 1 << PRECISION;
+
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+    private static final VarHandle REGISTER = MethodHandles.arrayElementVarHandle(byte[].class);
+
+    private final byte[] registers;
+
+    // Set when a register changed since the last flush
+    private volatile boolean dirty;
+    // Set when a register changed since the estimate was computed
+    private volatile boolean stale;
+    private volatile long estimate;
+    // Set when the post was viewed since the last eviction pass
+    private volatile boolean viewed;
+
+    ViewSketch() {
+        this.registers = new byte[REGISTERS];
+    }
+
+    /**
+     * A sketch starting from persisted registers; registers of another precision are ignored.
+     */
+    static ViewSketch of(byte[] persisted) {
+        ViewSketch sketch = new ViewSketch();
+        if (persisted != null && persisted.length == REGISTERS) {
+            sketch.merge(persisted);
+        }
+        return sketch;
+    }
+
+    /**
+     * Count a view and return the estimated number of distinct viewers.
+     */
+    long offer(long viewerId) {
+        if (!viewed) {
+            viewed = true;
+        }
+        long hash = mix(viewerId);
+        int index = (int) (hash >>> (64 - PRECISION));
+        // The sentinel bit caps the rank at 64 - PRECISION + 1 when the remaining bits are all zero
+        int rank = Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1;
+        if (raise(index, (byte) rank)) {
+            dirty = true;
+            stale = true;
+        }
+        return estimate();
+    }
+
+    /**
+     * Estimated number of distinct viewers.
+     */
+    long estimate() {
+        if (stale) {
+            stale = false;
+            estimate = compute();
+        }
+        return estimate;
+    }
+
+    /**
+     * Raise every register to at least the one of {@code other}, which covers the same viewers
+     * counted elsewhere.
+     */
+    void merge(byte[] other) {
+        boolean changed = false;
+        for (int i = 0; i < REGISTERS; i++) {
+            changed |= raise(i, other[i]);
+        }
+        if (changed) {
+            stale = true;
+        }
+    }
+
+    /**
+     * Register-wise maximum of stored and flushed registers, which covers the viewers of both.
+     * Stored registers of another precision are replaced.
+     */
+    static byte[] union(byte[] stored, byte[] flushed) {
+        if (stored.length != flushed.length) {
+            return flushed;
+        }
+        byte[] union = new byte[flushed.length];
+        for (int i = 0; i < union.length; i++) {
+            union[i] = (byte) Math.max(stored[i], flushed[i]);
+        }
+        return union;
+    }
+
+    boolean isDirty() {
+        return dirty;
+    }
+
+    void markDirty() {
+        dirty = true;
+    }
+
+    /**
+     * Copy of the registers to flush. The dirty flag is cleared first, so a view racing with the
+     * copy leaves the sketch dirty for the next flush.
+     */
+    byte[] drain() {
+        dirty = false;
+        byte[] copy = new byte[REGISTERS];
+        for (int i = 0; i < REGISTERS; i++) {
+            copy[i] = (byte) REGISTER.getVolatile(registers, i);
+        }
+        return copy;
+    }
+
+    /**
+     * Whether the post was viewed since the last call.
+     */
+    boolean takeViewed() {
+        if (!viewed) {
+            return false;
+        }
+        viewed = false;
+        return true;
+    }
+
+    private boolean raise(int index, byte rank) {
+        byte current = (byte) REGISTER.getVolatile(registers, index);
+        while (current < rank) {
+            if (REGISTER.compareAndSet(registers, index, current, rank)) {
+                return true;
+            }
+            current = (byte) REGISTER.getVolatile(registers, index);
+        }
+        return false;
+    }
+
+    private long compute() {
+        double sum = 0;
+        int zeros = 0;
+        for (int i = 0; i < REGISTERS; i++) {
+            byte rank = (byte) REGISTER.getVolatile(registers, i);
+            sum += Math.scalb(1.0, -rank);
+            if (rank == 0) {
+                zeros++;
+            }
+        }
+        double raw = ALPHA * REGISTERS * REGISTERS / sum;
+        // Linear counting is more accurate while many registers are still empty
+        if (raw <= 2.5 * REGISTERS && zeros > 0) {
+            return Math.round(REGISTERS * Math.log((double) REGISTERS / zeros));
+        }
+        return Math.round(raw);
+    }
+
+    /**
+     * SplitMix64 finalizer, so that consecutive viewer ids spread over all registers.
+     */
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
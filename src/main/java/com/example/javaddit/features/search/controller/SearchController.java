@@ -0,0 +1,25 @@
+package com.example.javaddit.features.search.controller;
+
+import com.example.javaddit.features.search.dto.SearchHitResponse;
+import com.example.javaddit.features.search.service.SearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+public class SearchController {
+
+    private final SearchService searchService;
+
+    @GetMapping
+    public ResponseEntity<List<SearchHitResponse>> search(
+            @RequestParam String q,
+            @RequestParam(required = false) String community,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(searchService.search(q, community, limit));
+    }
+}
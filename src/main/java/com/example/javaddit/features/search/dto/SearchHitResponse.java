@@ -0,0 +1,23 @@
+package com.example.javaddit.features.search.dto;
+
+import com.example.javaddit.features.search.index.SearchDocumentType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for one search result. {@code commentId} is null when the post itself matched.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHitResponse {
+
+    private SearchDocumentType type;
+    private Long postId;
+    private Long commentId;
+    private String communityName;
+    private String title;
+    private String slug;
+    private double score;
+}
@@ -0,0 +1,252 @@
+package com.example.javaddit.features.search.index;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index of post and comment text, ranked with BM25.
+ * <p>
+ * Documents get consecutive ordinals in the order they are added; their type, id, post,
+ * community and length in terms live in parallel primitive arrays indexed by ordinal, and each
+ * term maps to a {@link PostingList} of ordinals. A query walks the posting lists of its terms
+ * side by side, document at a time, scoring each matching document once and keeping the best
+ * {@code limit} in a bounded heap, so it allocates nothing per candidate.
+ * <p>
+ * Searches share a read lock; {@link #add} takes the write lock for the few appends of one
+ * document. The index can be written to and read back from a stream, see {@link #writeTo}.
+ */
+public class InvertedIndex {
+
+    private static final int MAGIC = 0x4A445349;
+    private static final int FORMAT_VERSION = 1;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // BM25 term frequency saturation and length normalization
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final SearchDocumentType[] TYPES = SearchDocumentType.values();
+    private static final Comparator<SearchHit> RANKING = Comparator.comparingDouble(SearchHit::score)
+            .thenComparingLong(SearchHit::id);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final HashMap<String, PostingList> postings;
+
+    private byte[] types;
+    private long[] ids;
+    private long[] postIds;
+    private long[] communityIds;
+    private int[] lengths;
+    private int documentCount;
+    private long totalLength;
+    private final long[] maxIds = new long[TYPES.length];
+
+    public InvertedIndex() {
+        this(new HashMap<>(), INITIAL_CAPACITY);
+    }
+
+    private InvertedIndex(HashMap<String, PostingList> postings, int capacity) {
+        this.postings = postings;
+        this.types = new byte[capacity];
+        this.ids = new long[capacity];
+        this.postIds = new long[capacity];
+        this.communityIds = new long[capacity];
+        this.lengths = new int[capacity];
+    }
+
+    /**
+     * Add a document with the frequencies of its terms, see {@link Tokenizer#termFrequencies}.
+     */
+    public void add(SearchDocumentType type, long id, long postId, long communityId,
+                    Map<String, Integer> termFrequencies) {
+        lock.writeLock().lock();
+        try {
+            if (documentCount == ids.length) {
+                grow();
+            }
+            int document = documentCount++;
+            types[document] = (byte) type.ordinal();
+            ids[document] = id;
+            postIds[document] = postId;
+            communityIds[document] = communityId;
+
+            int length = 0;
+            for (Map.Entry<String, Integer> term : termFrequencies.entrySet()) {
+                postings.computeIfAbsent(term.getKey(), key -> new PostingList()).append(document, term.getValue());
+                length += term.getValue();
+            }
+            lengths[document] = length;
+            totalLength += length;
+            maxIds[type.ordinal()] = Math.max(maxIds[type.ordinal()], id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Highest id of the given type in the index, 0 if there is none.
+     */
+    public long maxId(SearchDocumentType type) {
+        lock.readLock().lock();
+        try {
+            return maxIds[type.ordinal()];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The {@code limit} documents that best match any of the terms, best first, optionally only
+     * those of one community.
+     */
+    public List<SearchHit> search(Collection<String> terms, Long communityId, int limit) {
+        lock.readLock().lock();
+        try {
+            Collection<String> distinct = new LinkedHashSet<>(terms);
+            List<PostingList.Reader> readers = new ArrayList<>(distinct.size());
+            double[] weights = new double[distinct.size()];
+            for (String term : distinct) {
+                PostingList list = postings.get(term);
+                if (list != null) {
+                    PostingList.Reader reader = list.reader();
+                    reader.next();
+                    weights[readers.size()] = idf(list.documentCount());
+                    readers.add(reader);
+                }
+            }
+            if (readers.isEmpty()) {
+                return List.of();
+            }
+
+            double averageLength = Math.max(1.0, (double) totalLength / documentCount);
+            PriorityQueue<SearchHit> best = new PriorityQueue<>(limit + 1, RANKING);
+            while (true) {
+                int document = Integer.MAX_VALUE;
+                for (PostingList.Reader reader : readers) {
+                    document = Math.min(document, reader.document());
+                }
+                if (document == Integer.MAX_VALUE) {
+                    break;
+                }
+
+                double score = 0;
+                double normalization = K1 * (1 - B + B * lengths[document] / averageLength);
+                for (int i = 0; i < readers.size(); i++) {
+                    PostingList.Reader reader = readers.get(i);
+                    if (reader.document() == document) {
+                        int frequency = reader.frequency();
+                        score += weights[i] * frequency * (K1 + 1) / (frequency + normalization);
+                        reader.next();
+                    }
+                }
+
+                if (communityId != null && communityIds[document] != communityId) {
+                    continue;
+                }
+                if (best.size() < limit || score > best.peek().score()) {
+                    best.add(new SearchHit(TYPES[types[document]], ids[document], postIds[document],
+                            communityIds[document], score));
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+            }
+
+            List<SearchHit> hits = new ArrayList<>(best);
+            hits.sort(RANKING.reversed());
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Write the whole index; {@link #readFrom} restores it.
+     */
+    public void writeTo(OutputStream stream) throws IOException {
+        lock.readLock().lock();
+        try {
+            DataOutputStream out = new DataOutputStream(stream);
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(documentCount);
+            for (int i = 0; i < documentCount; i++) {
+                out.writeByte(types[i]);
+                out.writeLong(ids[i]);
+                out.writeLong(postIds[i]);
+                out.writeLong(communityIds[i]);
+                out.writeInt(lengths[i]);
+            }
+            out.writeInt(postings.size());
+            for (Map.Entry<String, PostingList> term : postings.entrySet()) {
+                out.writeUTF(term.getKey());
+                term.getValue().writeTo(out);
+            }
+            out.flush();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static InvertedIndex readFrom(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+            throw new IOException("Not a search index snapshot of format " + FORMAT_VERSION);
+        }
+        int documentCount = in.readInt();
+        InvertedIndex index = new InvertedIndex(new HashMap<>(), Math.max(documentCount, INITIAL_CAPACITY));
+        for (int i = 0; i < documentCount; i++) {
+            byte type = in.readByte();
+            index.types[i] = type;
+            index.ids[i] = in.readLong();
+            index.postIds[i] = in.readLong();
+            index.communityIds[i] = in.readLong();
+            index.lengths[i] = in.readInt();
+            index.totalLength += index.lengths[i];
+            index.maxIds[type] = Math.max(index.maxIds[type], index.ids[i]);
+        }
+        index.documentCount = documentCount;
+
+        int termCount = in.readInt();
+        for (int i = 0; i < termCount; i++) {
+            String term = in.readUTF();
+            index.postings.put(term, PostingList.readFrom(in));
+        }
+        return index;
+    }
+
+    private double idf(int documentFrequency) {
+        return Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        types = Arrays.copyOf(types, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        postIds = Arrays.copyOf(postIds, capacity);
+        communityIds = Arrays.copyOf(communityIds, capacity);
+        lengths = Arrays.copyOf(lengths, capacity);
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.javaddit.features.search.index;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Documents containing one term, in increasing document order, with the term's frequency in each.
+ * <p>
+ * Stored as one growable {@code byte[]} of variable-length integers: the gap to the previous
+ * document, then the frequency. Typical gaps and frequencies take one byte each, against 16 bytes
+ * for a boxed map entry. Documents are only ever appended, so the list needs no rewriting.
+ */
+final class PostingList {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private byte[] bytes;
+    private int length;
+    private int documentCount;
+    private int lastDocument = -1;
+
+    PostingList() {
+        this.bytes = new byte[INITIAL_CAPACITY];
+    }
+
+    private PostingList(byte[] bytes, int documentCount, int lastDocument) {
+        this.bytes = bytes;
+        this.length = bytes.length;
+        this.documentCount = documentCount;
+        this.lastDocument = lastDocument;
+    }
+
+    int documentCount() {
+        return documentCount;
+    }
+
+    /**
+     * Append a document; it must come after every document already in the list.
+     */
+    void append(int document, int frequency) {
+        if (document <= lastDocument) {
+            throw new IllegalArgumentException("Document " + document + " is not after " + lastDocument);
+        }
+        writeVarInt(document - lastDocument);
+        writeVarInt(frequency);
+        lastDocument = document;
+        documentCount++;
+    }
+
+    Reader reader() {
+        return new Reader();
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeInt(documentCount);
+        out.writeInt(lastDocument);
+        out.writeInt(length);
+        out.write(bytes, 0, length);
+    }
+
+    static PostingList readFrom(DataInput in) throws IOException {
+        int documentCount = in.readInt();
+        int lastDocument = in.readInt();
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new PostingList(bytes, documentCount, lastDocument);
+    }
+
+    private void writeVarInt(int value) {
+        if (length + 5 > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + 5));
+        }
+        while ((value & ~0x7F) != 0) {
+            bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[length++] = (byte) value;
+    }
+
+    /**
+     * Forward-only cursor over the postings, positioned before the first one.
+     */
+    final class Reader {
+
+        private int position;
+        private int document = -1;
+        private int frequency;
+
+        /**
+         * Move to the next posting; false once the list is exhausted.
+         */
+        boolean next() {
+            if (position >= length) {
+                document = Integer.MAX_VALUE;
+                return false;
+            }
+            document += readVarInt();
+            frequency = readVarInt();
+            return true;
+        }
+
+        int document() {
+            return document;
+        }
+
+        int frequency() {
+            return frequency;
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+    }
+}
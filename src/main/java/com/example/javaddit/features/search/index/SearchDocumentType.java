@@ -0,0 +1,9 @@
+package com.example.javaddit.features.search.index;
+
+/**
+ * Kind of text a search hit comes from.
+ */
+public enum SearchDocumentType {
+    POST,
+    COMMENT
+}
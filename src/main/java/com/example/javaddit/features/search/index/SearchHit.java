@@ -0,0 +1,10 @@
+package com.example.javaddit.features.search.index;
+
+/**
+ * One ranked match of a query.
+ *
+ * @param id     id of the post or comment
+ * @param postId the post itself, or the post the comment belongs to
+ */
+public record SearchHit(SearchDocumentType type, long id, long postId, long communityId, double score) {
+}
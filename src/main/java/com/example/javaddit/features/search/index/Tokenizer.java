@@ -0,0 +1,55 @@
+package com.example.javaddit.features.search.index;
+
+import com.example.javaddit.core.util.TextFolding;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Splits text into index terms: runs of ASCII letters and digits, lowercased, with accents
+ * stripped from other Latin letters. Terms shorter than {@value #MIN_LENGTH} characters, longer
+ * than {@value #MAX_LENGTH} and common English stop words are dropped.
+ */
+public final class Tokenizer {
+
+    private static final int MIN_LENGTH = 2;
+    private static final int MAX_LENGTH = 40;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "an", "and", "are", "as", "at", "be", "but", "by", "for", "if", "in", "into", "is", "it",
+            "no", "not", "of", "on", "or", "so", "such", "that", "the", "their", "then", "there",
+            "these", "they", "this", "to", "was", "will", "with");
+
+    private Tokenizer() {
+    }
+
+    /**
+     * Occurrences of each term in the text; empty for null text.
+     */
+    public static Map<String, Integer> termFrequencies(String text) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        if (text == null || text.isEmpty()) {
+            return frequencies;
+        }
+        String decomposed = TextFolding.decompose(text);
+        StringBuilder term = new StringBuilder(MAX_LENGTH);
+        for (int i = 0; i <= decomposed.length(); i++) {
+            char c = i < decomposed.length() ? decomposed.charAt(i) : ' ';
+            char folded = TextFolding.lowerAlphanumeric(c);
+            if (folded != 0) {
+                term.append(folded);
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                // Accents split off by NFD are skipped without ending the term
+                if (term.length() >= MIN_LENGTH && term.length() <= MAX_LENGTH) {
+                    String value = term.toString();
+                    if (!STOP_WORDS.contains(value)) {
+                        frequencies.merge(value, 1, Integer::sum);
+                    }
+                }
+                term.setLength(0);
+            }
+        }
+        return frequencies;
+    }
+}
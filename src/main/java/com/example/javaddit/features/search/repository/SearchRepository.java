@@ -0,0 +1,60 @@
+package com.example.javaddit.features.search.repository;
+
+import com.example.javaddit.features.search.index.SearchDocumentType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Loads post and comment text for the search index, by primary key range.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SearchRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public long findMaxId(SearchDocumentType type) {
+        String table = type == SearchDocumentType.POST ? "posts" : "comments";
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        return maxId != null ? maxId : 0;
+    }
+
+    /**
+     * Highest id above {@code afterId} of a post or comment created more than {@code settleMs} ago,
+     * or {@code afterId} if there is none. Walks the primary key down from the newest row, so only
+     * the rows of the last {@code settleMs} are read.
+     */
+    public long findMaxSettledId(SearchDocumentType type, long afterId, long settleMs) {
+        String table = type == SearchDocumentType.POST ? "posts" : "comments";
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM " + table
+                + " WHERE id > ? AND created_at < NOW() - ? * INTERVAL '1 millisecond' ORDER BY id DESC LIMIT 1",
+                Long.class, afterId, settleMs);
+        return ids.isEmpty() ? afterId : ids.get(0);
+    }
+
+    /**
+     * Posts or comments with {@code fromId < id <= toId}, in id order.
+     */
+    public List<SearchSource> findSources(SearchDocumentType type, long fromId, long toId) {
+        if (type == SearchDocumentType.POST) {
+            return jdbcTemplate.query("""
+                    SELECT id, community_id, title || ' ' || COALESCE(content, '') AS text
+                    FROM posts
+                    WHERE id > ? AND id <= ?
+                    ORDER BY id
+                    """, (rs, rowNum) -> new SearchSource(SearchDocumentType.POST, rs.getLong("id"),
+                    rs.getLong("id"), rs.getLong("community_id"), rs.getString("text")), fromId, toId);
+        }
+        return jdbcTemplate.query("""
+                SELECT c.id, c.post_id, p.community_id, c.content AS text
+                FROM comments c
+                JOIN posts p ON p.id = c.post_id
+                WHERE c.id > ? AND c.id <= ?
+                ORDER BY c.id
+                """, (rs, rowNum) -> new SearchSource(SearchDocumentType.COMMENT, rs.getLong("id"),
+                rs.getLong("post_id"), rs.getLong("community_id"), rs.getString("text")), fromId, toId);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.javaddit.features.search.repository;
+
+import com.example.javaddit.features.search.index.SearchDocumentType;
+
+/**
+ * Searchable text of a post (title and content) or a comment, as loaded for indexing.
+ */
+public record SearchSource(SearchDocumentType type, long id, long postId, long communityId, String text) {
+}
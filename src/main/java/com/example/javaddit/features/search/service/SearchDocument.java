@@ -0,0 +1,19 @@
+package com.example.javaddit.features.search.service;
+
+import com.example.javaddit.features.search.index.SearchDocumentType;
+import com.example.javaddit.features.search.index.Tokenizer;
+import com.example.javaddit.features.search.repository.SearchSource;
+
+import java.util.Map;
+
+/**
+ * A post or comment ready to be added to the index.
+ */
+record SearchDocument(SearchDocumentType type, long id, long postId, long communityId,
+                      Map<String, Integer> termFrequencies) {
+
+    static SearchDocument of(SearchSource source) {
+        return new SearchDocument(source.type(), source.id(), source.postId(), source.communityId(),
+                Tokenizer.termFrequencies(source.text()));
+    }
+}
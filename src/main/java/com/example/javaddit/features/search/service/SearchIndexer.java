@@ -0,0 +1,264 @@
+package com.example.javaddit.features.search.service;
+
+import com.example.javaddit.core.util.TransactionCallbacks;
+import com.example.javaddit.features.search.index.InvertedIndex;
+import com.example.javaddit.features.search.index.SearchDocumentType;
+import com.example.javaddit.features.search.index.Tokenizer;
+import com.example.javaddit.features.search.repository.SearchRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the {@link InvertedIndex} in step with the posts and comments tables.
+ * <p>
+ * Posts and comments created through this instance are indexed after commit. Everything else
+ * is loaded from the database by id range above a per-type watermark: at startup in a
+ * fork-join pool of {@code load-parallelism} queries, see {@link SearchLoadTask}, and then every
+ * {@code refresh-interval-ms} for rows created on other instances.
+ * <p>
+ * Ids come from a sequence and are taken before their transaction commits, so a row can appear
+ * after rows with higher ids. A watermark therefore only advances to ids created more than
+ * {@code settle-ms} ago; the range above it is scanned again on every refresh. Ids indexed above
+ * the watermark, by a load or live, are remembered until the watermark passes them, so no row
+ * is indexed twice.
+ * <p>
+ * The index, its watermarks and those ids are written to {@code snapshot-directory} every
+ * {@code snapshot-interval-ms} and at shutdown, and read back at startup, so a restart only
+ * loads the rows created since the last snapshot.
+ */
+@Component
+@Slf4j
+public class SearchIndexer {
+
+    private static final String SNAPSHOT_FILE = "search-index.bin";
+    private static final SearchDocumentType[] TYPES = SearchDocumentType.values();
+
+    /**
+     * Chunks per batch of a load; a batch is tokenized in memory before it is added.
+     */
+    private static final int CHUNKS_PER_BATCH = 64;
+
+    private final SearchRepository repository;
+    private final SearchProperties properties;
+    private final ForkJoinPool loadPool;
+
+    // Guarded by this: all writes to the index, the watermarks and the indexed ids above them
+    private volatile InvertedIndex index = new InvertedIndex();
+    private final long[] watermarks = new long[TYPES.length];
+    private final List<Set<Long>> indexedIds = List.of(new HashSet<>(), new HashSet<>());
+
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    public SearchIndexer(SearchRepository repository, SearchProperties properties) {
+        this.repository = repository;
+        this.properties = properties;
+        this.loadPool = new ForkJoinPool(properties.loadParallelism());
+    }
+
+    public InvertedIndex index() {
+        return index;
+    }
+
+    public boolean isEnabled() {
+        return properties.enabled();
+    }
+
+    /**
+     * Index a new post once the current transaction commits.
+     */
+    public void indexPost(long postId, long communityId, String title, String content) {
+        String text = content != null ? title + " " + content : title;
+        afterCommit(() -> addLive(new SearchDocument(SearchDocumentType.POST, postId, postId, communityId,
+                Tokenizer.termFrequencies(text))));
+    }
+
+    /**
+     * Index a new comment once the current transaction commits.
+     */
+    public void indexComment(long commentId, long postId, long communityId, String content) {
+        afterCommit(() -> addLive(new SearchDocument(SearchDocumentType.COMMENT, commentId, postId, communityId,
+                Tokenizer.termFrequencies(content))));
+    }
+
+    /**
+     * Runs before the web server accepts requests, so no live document is indexed into an index
+     * that the snapshot then replaces.
+     */
+    @PostConstruct
+    public void restoreSnapshot() {
+        Path snapshot = Path.of(properties.snapshotDirectory(), SNAPSHOT_FILE);
+        if (!properties.enabled() || !Files.exists(snapshot)) {
+            return;
+        }
+        try (InputStream stream = new BufferedInputStream(Files.newInputStream(snapshot))) {
+            DataInputStream in = new DataInputStream(stream);
+            synchronized (this) {
+                for (SearchDocumentType type : TYPES) {
+                    watermarks[type.ordinal()] = in.readLong();
+                    int count = in.readInt();
+                    for (int i = 0; i < count; i++) {
+                        indexedIds.get(type.ordinal()).add(in.readLong());
+                    }
+                }
+                index = InvertedIndex.readFrom(in);
+            }
+            log.info("Search index restored from {}: {} documents", snapshot.toAbsolutePath(), index.size());
+        } catch (IOException ex) {
+            log.warn("Could not read search index snapshot {}, loading from the database: {}",
+                    snapshot, ex.getMessage());
+            synchronized (this) {
+                index = new InvertedIndex();
+                Arrays.fill(watermarks, 0);
+                indexedIds.forEach(Set::clear);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startLoading() {
+        if (!properties.enabled()) {
+            return;
+        }
+        Thread loader = new Thread(this::refresh, "search-index-load");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Index the rows above the watermarks. The first run after startup is the bulk load.
+     */
+    @Scheduled(fixedDelayString = "${app.search.refresh-interval-ms}",
+            initialDelayString = "${app.search.refresh-interval-ms}")
+    public void refresh() {
+        if (!properties.enabled() || !loadLock.tryLock()) {
+            return;
+        }
+        try {
+            for (SearchDocumentType type : TYPES) {
+                load(type);
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Could not load posts and comments into the search index: {}", ex.getMessage());
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.snapshot-interval-ms}",
+            initialDelayString = "${app.search.snapshot-interval-ms}")
+    public void writeSnapshot() {
+        if (!properties.enabled() || index.size() == 0) {
+            return;
+        }
+        Path directory = Path.of(properties.snapshotDirectory());
+        Path snapshot = directory.resolve(SNAPSHOT_FILE);
+        Path partial = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try {
+            // Copy in memory under the lock; live indexing only waits for that, not for the disk
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(buffer);
+            synchronized (this) {
+                for (SearchDocumentType type : TYPES) {
+                    Set<Long> ids = indexedIds.get(type.ordinal());
+                    out.writeLong(watermarks[type.ordinal()]);
+                    out.writeInt(ids.size());
+                    for (Long id : ids) {
+                        out.writeLong(id);
+                    }
+                }
+                index.writeTo(out);
+            }
+            Files.createDirectories(directory);
+            try (OutputStream stream = Files.newOutputStream(partial)) {
+                buffer.writeTo(stream);
+            }
+            Files.move(partial, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            log.warn("Could not write search index snapshot to {}: {}", snapshot, ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        loadPool.shutdownNow();
+        writeSnapshot();
+    }
+
+    /**
+     * Load one type in batches, advancing its watermark after each, so that an interrupted bulk
+     * load resumes where it stopped. The watermark stops at the newest settled row; the rows
+     * above it are indexed now and scanned again on the next refresh.
+     */
+    private void load(SearchDocumentType type) {
+        long from;
+        synchronized (this) {
+            from = watermarks[type.ordinal()];
+        }
+        // Settled first: every id up to it was committed before the scan below starts
+        long settled = repository.findMaxSettledId(type, from, properties.settleMs());
+        long target = repository.findMaxId(type);
+        long batchSize = (long) properties.loadChunkSize() * CHUNKS_PER_BATCH;
+        while (from < target) {
+            long to = Math.min(from + batchSize, target);
+            List<SearchDocument> documents = loadPool.invoke(
+                    new SearchLoadTask(repository, type, from, to, properties.loadChunkSize()));
+            addLoaded(type, documents, Math.min(to, settled));
+            from = to;
+        }
+    }
+
+    private synchronized void addLoaded(SearchDocumentType type, List<SearchDocument> documents, long watermark) {
+        Set<Long> indexed = indexedIds.get(type.ordinal());
+        long current = Math.max(watermarks[type.ordinal()], watermark);
+        for (SearchDocument document : documents) {
+            if (indexed.add(document.id())) {
+                add(document);
+            }
+        }
+        indexed.removeIf(id -> id <= current);
+        watermarks[type.ordinal()] = current;
+    }
+
+    private synchronized void addLive(SearchDocument document) {
+        if (document.id() <= watermarks[document.type().ordinal()]
+                || !indexedIds.get(document.type().ordinal()).add(document.id())) {
+            return;
+        }
+        add(document);
+    }
+
+    private void add(SearchDocument document) {
+        index.add(document.type(), document.id(), document.postId(), document.communityId(),
+                document.termFrequencies());
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!properties.enabled()) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(action);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.javaddit.features.search.service;
+
+import com.example.javaddit.features.search.index.SearchDocumentType;
+import com.example.javaddit.features.search.repository.SearchRepository;
+import com.example.javaddit.features.search.repository.SearchSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Loads and tokenizes the posts or comments of an id range, splitting it in halves until each
+ * part is at most {@code chunkSize} ids, so that queries and tokenization run in parallel.
+ * Results keep id order.
+ */
+class SearchLoadTask extends RecursiveTask<List<SearchDocument>> {
+
+    private final SearchRepository repository;
+    private final SearchDocumentType type;
+    private final long fromId;
+    private final long toId;
+    private final int chunkSize;
+
+    SearchLoadTask(SearchRepository repository, SearchDocumentType type, long fromId, long toId, int chunkSize) {
+        this.repository = repository;
+        this.type = type;
+        this.fromId = fromId;
+        this.toId = toId;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    protected List<SearchDocument> compute() {
+        if (toId - fromId <= chunkSize) {
+            List<SearchSource> sources = repository.findSources(type, fromId, toId);
+            List<SearchDocument> documents = new ArrayList<>(sources.size());
+            for (SearchSource source : sources) {
+                documents.add(SearchDocument.of(source));
+            }
+            return documents;
+        }
+
+        long middle = fromId + (toId - fromId) / 2;
+        SearchLoadTask lower = new SearchLoadTask(repository, type, fromId, middle, chunkSize);
+        SearchLoadTask upper = new SearchLoadTask(repository, type, middle, toId, chunkSize);
+        lower.fork();
+        List<SearchDocument> upperDocuments = upper.compute();
+        List<SearchDocument> documents = new ArrayList<>(lower.join());
+        documents.addAll(upperDocuments);
+        return documents;
+    }
+}
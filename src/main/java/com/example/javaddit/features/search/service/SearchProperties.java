@@ -0,0 +1,32 @@
+package com.example.javaddit.features.search.service;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Settings of the in-process search index.
+ *
+ * @param enabled            whether posts and comments are indexed and searchable
+ * @param snapshotDirectory  directory holding the index snapshot of this instance
+ * @param snapshotIntervalMs delay between two snapshots of the index to disk
+ * @param refreshIntervalMs  delay between two scans for posts and comments the index has not seen,
+ *                           e.g. created on other instances
+ * @param settleMs           age after which a row is taken as committed together with every row of a
+ *                           lower id; at least twice the longest transaction writing posts or comments
+ * @param loadChunkSize      ids per database query when loading; one fork-join leaf each
+ * @param loadParallelism    queries run at once when loading; each holds a pooled connection
+ */
+@ConfigurationProperties(prefix = "app.search")
+@Validated
+public record SearchProperties(
+        boolean enabled,
+        @NotBlank String snapshotDirectory,
+        @Positive long snapshotIntervalMs,
+        @Positive long refreshIntervalMs,
+        @Positive long settleMs,
+        @Positive int loadChunkSize,
+        @Positive int loadParallelism
+) {
+}
@@ -0,0 +1,80 @@
+package com.example.javaddit.features.search.service;
+
+import com.example.javaddit.core.exception.ValidationException;
+import com.example.javaddit.features.community.entity.Community;
+import com.example.javaddit.features.community.repository.CommunityRepository;
+import com.example.javaddit.features.post.repository.PostRepository;
+import com.example.javaddit.features.post.repository.PostView;
+import com.example.javaddit.features.post.service.PostFeedProperties;
+import com.example.javaddit.features.search.dto.SearchHitResponse;
+import com.example.javaddit.features.search.index.SearchDocumentType;
+import com.example.javaddit.features.search.index.SearchHit;
+import com.example.javaddit.features.search.index.Tokenizer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class SearchService {
+
+    private final SearchIndexer searchIndexer;
+    private final PostRepository postRepository;
+    private final CommunityRepository communityRepository;
+    private final PostFeedProperties feedProperties;
+
+    /**
+     * Rank posts and comments matching the query by BM25, optionally within one community.
+     * Only the hits are read from the database, in one query.
+     */
+    @Transactional(readOnly = true)
+    public List<SearchHitResponse> search(String query, String communityName, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new ValidationException("Search query cannot be empty");
+        }
+        if (!searchIndexer.isEnabled()) {
+            throw new ValidationException("Search is disabled");
+        }
+        Set<String> terms = Tokenizer.termFrequencies(query).keySet();
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        Long communityId = null;
+        if (communityName != null) {
+            communityId = communityRepository.findByName(communityName).map(Community::getId).orElse(null);
+            if (communityId == null) {
+                return List.of();
+            }
+        }
+
+        List<SearchHit> hits = searchIndexer.index()
+                .search(terms, communityId, feedProperties.resolvePageSize(limit));
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, PostView> posts = postRepository
+                .findViewsByIdIn(hits.stream().map(SearchHit::postId).distinct().toList()).stream()
+                .collect(Collectors.toMap(PostView::id, Function.identity()));
+
+        List<SearchHitResponse> responses = new ArrayList<>(hits.size());
+        for (SearchHit hit : hits) {
+            // Deleted since it was indexed
+            PostView post = posts.get(hit.postId());
+            if (post == null) {
+                continue;
+            }
+            Long commentId = hit.type() == SearchDocumentType.COMMENT ? hit.id() : null;
+            responses.add(new SearchHitResponse(hit.type(), post.id(), commentId, post.communityName(),
+                    post.title(), post.slug(), hit.score()));
+        }
+        return responses;
+    }
+}
@@ -2,8 +2,11 @@
 
 import com.example.javaddit.features.user.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -20,4 +23,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsernameIgnoreCase(String username);
 
     boolean existsByEmailIgnoreCase(String email);
+
+    @Query(value = "SELECT blocked_id FROM user_blocks WHERE blocker_id = :blockerId", nativeQuery = true)
+    List<Long> findBlockedIds(@Param("blockerId") long blockerId);
 }
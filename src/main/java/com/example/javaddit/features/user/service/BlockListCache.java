@@ -0,0 +1,114 @@
+package com.example.javaddit.features.user.service;
+
+import com.example.javaddit.core.util.TransactionCallbacks;
+import com.example.javaddit.features.user.repository.UserRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-user cache of blocked user ids, used to hide blocked authors from feeds and threads.
+ * <p>
+ * Each cached user holds one {@link BlockedUsers}, so filtering a page is a map lookup plus a
+ * binary search per row, and users who block nobody share {@link BlockedUsers#NONE}. Lists are
+ * read through on first use.
+ * <p>
+ * Coherence: {@link UserService} calls {@link #invalidate} on every block and unblock, which drops
+ * the entry after commit. A load takes a version before querying and is not cached if the user's
+ * block list changed in between, checked again after it is cached, so a slow load cannot bring
+ * back a stale list.
+ */
+@Component
+public class BlockListCache {
+
+    private static final int VERSION_STRIPES = 1024;
+
+    private final UserRepository userRepository;
+    private final BlockListCacheProperties properties;
+    private final ConcurrentHashMap<Long, Entry> users = new ConcurrentHashMap<>();
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    public BlockListCache(UserRepository userRepository, BlockListCacheProperties properties) {
+        this.userRepository = userRepository;
+        this.properties = properties;
+    }
+
+    /**
+     * The users the viewer has blocked; {@link BlockedUsers#NONE} for anonymous viewers.
+     */
+    public BlockedUsers blockedBy(Long viewerId) {
+        if (viewerId == null) {
+            return BlockedUsers.NONE;
+        }
+        Entry entry = users.get(viewerId);
+        if (entry != null) {
+            entry.lastAccess = System.nanoTime();
+            return entry.blocked;
+        }
+
+        long version = versions.get(stripe(viewerId));
+        BlockedUsers blocked = BlockedUsers.of(userRepository.findBlockedIds(viewerId).stream()
+                .mapToLong(Long::longValue)
+                .toArray());
+        if (versions.get(stripe(viewerId)) == version) {
+            Entry loaded = new Entry(blocked);
+            users.put(viewerId, loaded);
+            // An evict between the check and the put must not leave the stale list behind
+            if (versions.get(stripe(viewerId)) != version) {
+                users.remove(viewerId, loaded);
+            } else {
+                evictIfNeeded();
+            }
+        }
+        return blocked;
+    }
+
+    /**
+     * Forget the user's block list once the current transaction commits.
+     */
+    public void invalidate(long userId) {
+        TransactionCallbacks.afterCommit(() -> evict(userId));
+    }
+
+    private void evict(long userId) {
+        versions.incrementAndGet(stripe(userId));
+        users.remove(userId);
+    }
+
+    /**
+     * Drop the least recently used tenth of the users once the cache is over its bound.
+     */
+    private void evictIfNeeded() {
+        int size = users.size();
+        if (size <= properties.maxUsers() || !evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            long[] accessTimes = users.values().stream().mapToLong(entry -> entry.lastAccess).sorted().toArray();
+            int toEvict = Math.min(accessTimes.length, accessTimes.length - properties.maxUsers() * 9 / 10);
+            if (toEvict <= 0) {
+                return;
+            }
+            long cutoff = accessTimes[toEvict - 1];
+            users.values().removeIf(entry -> entry.lastAccess <= cutoff);
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static int stripe(long userId) {
+        return (int) ((userId ^ (userId >>> 32)) & (VERSION_STRIPES - 1));
+    }
+
+    private static final class Entry {
+        private final BlockedUsers blocked;
+        private volatile long lastAccess = System.nanoTime();
+
+        private Entry(BlockedUsers blocked) {
+            this.blocked = blocked;
+        }
+    }
+}
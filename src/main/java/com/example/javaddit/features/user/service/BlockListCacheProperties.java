@@ -0,0 +1,17 @@
+package com.example.javaddit.features.user.service;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Bounds for {@link BlockListCache}.
+ *
+ * @param maxUsers number of users whose block list is cached at most
+ */
+@ConfigurationProperties(prefix = "app.users.block-cache")
+@Validated
+public record BlockListCacheProperties(
+        @Positive int maxUsers
+) {
+}
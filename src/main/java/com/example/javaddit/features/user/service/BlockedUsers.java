@@ -0,0 +1,35 @@
+package com.example.javaddit.features.user.service;
+
+import java.util.Arrays;
+
+/**
+ * Immutable set of the users one viewer has blocked: a sorted {@code long[]}, eight bytes per
+ * blocked user, looked up by binary search.
+ */
+public final class BlockedUsers {
+
+    public static final BlockedUsers NONE = new BlockedUsers(new long[0]);
+
+    private final long[] ids;
+
+    private BlockedUsers(long[] ids) {
+        this.ids = ids;
+    }
+
+    static BlockedUsers of(long[] ids) {
+        if (ids.length == 0) {
+            return NONE;
+        }
+        long[] sorted = ids.clone();
+        Arrays.sort(sorted);
+        return new BlockedUsers(sorted);
+    }
+
+    public boolean isEmpty() {
+        return ids.length == 0;
+    }
+
+    public boolean contains(Long userId) {
+        return userId != null && ids.length > 0 && Arrays.binarySearch(ids, userId) >= 0;
+    }
+}
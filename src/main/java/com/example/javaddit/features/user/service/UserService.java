@@ -4,6 +4,7 @@
 import com.example.javaddit.core.exception.ConflictException;
 import com.example.javaddit.core.exception.NotFoundException;
 import com.example.javaddit.core.exception.ValidationException;
+import com.example.javaddit.features.feed.service.HomeTimelines;
 import com.example.javaddit.features.user.dto.UserEmailUpdateRequest;
 import com.example.javaddit.features.user.dto.UserPasswordUpdateRequest;
 import com.example.javaddit.features.user.dto.UserProfileUpdateRequest;
@@ -21,6 +22,8 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final BCryptPasswordEncoder passwordEncoder;
+    private final HomeTimelines homeTimelines;
+    private final BlockListCache blockListCache;
 
     @Transactional(readOnly = true)
     public UserResponse getUserByUsername(String username) {
@@ -100,6 +103,7 @@ public UserResponse subscribe(long subscriberId, long subscribedToId) {
         }
 
         subscriber.getSubscriptions().add(subscribedTo);
+        homeTimelines.invalidate(subscriberId);
         return saveAndMap(subscriber);
     }
 
@@ -111,6 +115,7 @@ public UserResponse unsubscribe(long subscriberId, long subscribedToId) {
                 .orElseThrow(() -> new NotFoundException("User to unsubscribe from not found: " + subscribedToId));
 
         subscriber.getSubscriptions().remove(subscribedTo);
+        homeTimelines.invalidate(subscriberId);
         return saveAndMap(subscriber);
     }
 
@@ -126,6 +131,7 @@ public UserResponse blockUser(long blockerId, long blockedId) {
         }
 
         blocker.getBlockedUsers().add(blocked);
+        blockListCache.invalidate(blockerId);
         return saveAndMap(blocker);
     }
 
@@ -137,6 +143,7 @@ public UserResponse unblockUser(long blockerId, long blockedId) {
                 .orElseThrow(() -> new NotFoundException("User to unblock not found: " + blockedId));
 
         blocker.getBlockedUsers().remove(blocked);
+        blockListCache.invalidate(blockerId);
         return saveAndMap(blocker);
     }
 
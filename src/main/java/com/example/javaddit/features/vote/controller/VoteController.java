@@ -1,6 +1,8 @@
 package com.example.javaddit.features.vote.controller;
 
 import com.example.javaddit.core.security.UserPrincipal;
+import com.example.javaddit.features.vote.dto.BatchVoteRequest;
+import com.example.javaddit.features.vote.dto.BatchVoteResponse;
 import com.example.javaddit.features.vote.dto.VoteRequest;
 import com.example.javaddit.features.vote.dto.VoteResponse;
 import com.example.javaddit.features.vote.service.VoteService;
@@ -64,4 +66,16 @@ public ResponseEntity<VoteResponse> removeVoteFromComment(@PathVariable Long com
         VoteResponse response = voteService.removeVoteFromComment(principal.getId(), commentId);
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Apply several votes on posts and comments in one request.
+     * Items are applied in order with the same toggle semantics as the single-vote endpoints.
+     */
+    @PostMapping("/api/votes/batch")
+    public ResponseEntity<BatchVoteResponse> voteBatch(
+            @AuthenticationPrincipal UserPrincipal principal,
+            @Valid @RequestBody BatchVoteRequest request) {
+        BatchVoteResponse response = voteService.voteBatch(principal.getId(), request.getVotes());
+        return ResponseEntity.ok(response);
+    }
 }
@@ -0,0 +1,26 @@
+package com.example.javaddit.features.vote.dto;
+
+import com.example.javaddit.features.vote.entity.VoteTargetType;
+import com.example.javaddit.features.vote.entity.VoteType;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a single vote inside a batch.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchVoteItem {
+
+    @NotNull(message = "Target type is required")
+    private VoteTargetType targetType;
+
+    @NotNull(message = "Target ID is required")
+    private Long targetId;
+
+    @NotNull(message = "Vote type is required")
+    private VoteType voteType;
+}
@@ -0,0 +1,22 @@
+package com.example.javaddit.features.vote.dto;
+
+import com.example.javaddit.features.vote.entity.VoteTargetType;
+import com.example.javaddit.features.vote.entity.VoteType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the outcome of a single vote inside a batch.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchVoteItemResponse {
+
+    private VoteTargetType targetType;
+    private Long targetId;
+    private boolean applied;    // false if the target does not exist
+    private String message;
+    private VoteType userVote;  // null if vote was removed
+}
@@ -0,0 +1,23 @@
+package com.example.javaddit.features.vote.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for applying several votes at once. Items are applied in order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchVoteRequest {
+
+    @NotEmpty(message = "At least one vote is required")
+    @Size(max = 100, message = "At most 100 votes can be sent in one batch")
+    private List<@Valid BatchVoteItem> votes;
+}
@@ -0,0 +1,20 @@
+package com.example.javaddit.features.vote.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for batch vote responses: one result per submitted item, in order,
+ * and the final score of every existing target touched by the batch.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchVoteResponse {
+
+    private List<BatchVoteItemResponse> results;
+    private List<VoteScoreResponse> scores;
+}
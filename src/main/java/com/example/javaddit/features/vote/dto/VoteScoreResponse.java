@@ -0,0 +1,19 @@
+package com.example.javaddit.features.vote.dto;
+
+import com.example.javaddit.features.vote.entity.VoteTargetType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the score of a vote target.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VoteScoreResponse {
+
+    private VoteTargetType targetType;
+    private Long targetId;
+    private Integer score;
+}
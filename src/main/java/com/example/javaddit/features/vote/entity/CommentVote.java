@@ -0,0 +1,44 @@
+package com.example.javaddit.features.vote.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A user's vote on a comment. Each user can vote once per comment; the key is the (user, comment) pair.
+ */
+@Entity
+@Table(name = "comment_votes")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentVote {
+
+    @EmbeddedId
+    private CommentVoteId id;
+
+    // Quoted because VALUE is a reserved word in some databases (H2)
+    @Convert(converter = VoteTypeConverter.class)
+    @Column(name = "\"value\"", nullable = false)
+    private VoteType voteType;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CommentVote vote = (CommentVote) o;
+        return id != null && id.equals(vote.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
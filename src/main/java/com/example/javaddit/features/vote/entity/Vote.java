@@ -1,68 +0,0 @@
-package com.example.javaddit.features.vote.entity;
-
-import com.example.javaddit.features.comment.entity.Comment;
-import com.example.javaddit.features.post.entity.Post;
-import com.example.javaddit.features.user.entity.User;
-import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
-import lombok.Getter;
-import lombok.NoArgsConstructor;
-import lombok.Setter;
-import org.hibernate.annotations.CreationTimestamp;
-import org.hibernate.annotations.UpdateTimestamp;
-
-import java.time.LocalDateTime;
-
-/**
- * Entity representing a vote (upvote or downvote) on a post or comment.
- * Each user can vote once per post or comment.
- */
-@Entity
-@Table(name = "votes")
-@Getter
-@Setter
-@NoArgsConstructor
-@AllArgsConstructor
-public class Vote {
-
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
-
-    @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "user_id", nullable = false)
-    private User user;
-
-    @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "post_id")
-    private Post post;
-
-    @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "comment_id")
-    private Comment comment;
-
-    @Enumerated(EnumType.STRING)
-    @Column(name = "vote_type", nullable = false, length = 10)
-    private VoteType voteType;
-
-    @CreationTimestamp
-    @Column(name = "created_at", nullable = false, updatable = false)
-    private LocalDateTime createdAt;
-
-    @UpdateTimestamp
-    @Column(name = "updated_at", nullable = false)
-    private LocalDateTime updatedAt;
-
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        Vote vote = (Vote) o;
-        return id != null && id.equals(vote.id);
-    }
-
-    @Override
-    public int hashCode() {
-        return getClass().hashCode();
-    }
-}
@@ -0,0 +1,9 @@
+package com.example.javaddit.features.vote.entity;
+
+/**
+ * Enum representing what a vote is cast on.
+ */
+public enum VoteTargetType {
+    POST,
+    COMMENT
+}
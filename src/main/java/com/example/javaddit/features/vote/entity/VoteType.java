@@ -5,6 +5,40 @@
  * UPVOTE increases the score by 1, DOWNVOTE decreases it by 1.
  */
 public enum VoteType {
-    UPVOTE,
-    DOWNVOTE
+    UPVOTE(1),
+    DOWNVOTE(-1);
+
+    private final int value;
+
+    VoteType(int value) {
+        this.value = value;
+    }
+
+    /**
+     * Score contribution of this vote type.
+     */
+    public int getValue() {
+        return value;
+    }
+
+    /**
+     * Score contribution of an optional vote, 0 when there is no vote.
+     */
+    public static int scoreOf(VoteType voteType) {
+        return voteType != null ? voteType.value : 0;
+    }
+
+    /**
+     * Vote type stored as {@code value}, null for 0 or null.
+     */
+    public static VoteType fromValue(Number value) {
+        if (value == null || value.intValue() == 0) {
+            return null;
+        }
+        return switch (value.intValue()) {
+            case 1 -> UPVOTE;
+            case -1 -> DOWNVOTE;
+            default -> throw new IllegalArgumentException("Invalid vote value: " + value);
+        };
+    }
 }
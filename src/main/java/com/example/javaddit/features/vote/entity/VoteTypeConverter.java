@@ -0,0 +1,21 @@
+package com.example.javaddit.features.vote.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores a {@link VoteType} as its score value (+1 / -1) in a {@code smallint} column.
+ */
+@Converter
+public class VoteTypeConverter implements AttributeConverter<VoteType, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(VoteType voteType) {
+        return voteType != null ? (short) voteType.getValue() : null;
+    }
+
+    @Override
+    public VoteType convertToEntityAttribute(Short value) {
+        return VoteType.fromValue(value);
+    }
+}
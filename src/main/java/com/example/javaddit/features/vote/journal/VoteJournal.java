@@ -0,0 +1,145 @@
+package com.example.javaddit.features.vote.journal;
+
+import com.example.javaddit.core.util.TransactionCallbacks;
+import com.example.javaddit.features.vote.entity.VoteTargetType;
+import com.example.javaddit.features.vote.entity.VoteType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+/**
+ * Append-only, memory-mapped journal of every accepted vote mutation of this instance.
+ * <p>
+ * {@link com.example.javaddit.features.vote.service.VoteService} records each mutation; the record
+ * is appended after commit, before the response is returned, so an acknowledged vote is always
+ * journaled. Appending is a 32 byte copy into a mapped segment, which keeps it off the database;
+ * segments are forced to disk every {@code sync-interval-ms}. {@link VoteJournalReplayTool}
+ * rebuilds {@code posts.score} and {@code comments.score} from the journals, e.g. after losing
+ * buffered write-behind deltas.
+ */
+@Component
+@Slf4j
+public class VoteJournal {
+
+    private static final int SEED_FETCH_SIZE = 10_000;
+
+    private final VoteJournalProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile VoteJournalWriter writer;
+
+    public VoteJournal(VoteJournalProperties properties, JdbcTemplate jdbcTemplate,
+                       TransactionTemplate transactionTemplate) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Runs before the web server accepts requests, so seeding never races live votes.
+     */
+    @PostConstruct
+    public void open() throws IOException {
+        if (!properties.enabled()) {
+            return;
+        }
+        Path directory = Path.of(properties.directory());
+        VoteJournalWriter opened = VoteJournalWriter.open(directory, properties.segmentRecords());
+        log.info("Vote journal opened at {}, next sequence {}", directory.toAbsolutePath(), opened.nextSequence());
+
+        if (opened.nextSequence() == 0 && properties.seedFromDatabase()) {
+            seed(opened);
+        }
+        writer = opened;
+    }
+
+    /**
+     * Journal a vote mutation once the current transaction commits. No-op if the vote did not
+     * change or the journal is disabled.
+     */
+    public void record(long userId, VoteTargetType targetType, long targetId, VoteType previous, VoteType current) {
+        if (writer == null || previous == current) {
+            return;
+        }
+        VoteJournalRecord record = new VoteJournalRecord(userId, targetId, targetType,
+                (byte) VoteType.scoreOf(previous), (byte) VoteType.scoreOf(current), System.currentTimeMillis());
+
+        TransactionCallbacks.afterCommit(() -> append(record));
+    }
+
+    @Scheduled(fixedDelayString = "${app.votes.journal.sync-interval-ms}")
+    public void sync() {
+        VoteJournalWriter current = writer;
+        if (current != null) {
+            current.force();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        VoteJournalWriter current = writer;
+        writer = null;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    /**
+     * The vote is already committed at this point, so a failure cannot be reported to the client;
+     * it is logged and the vote is missing from the journal until the next reconciliation.
+     */
+    private void append(VoteJournalRecord record) {
+        VoteJournalWriter current = writer;
+        if (current == null) {
+            return;
+        }
+        try {
+            current.append(record);
+        } catch (IOException | RuntimeException ex) {
+            log.error("Failed to journal vote of user {} on {} {}: {}",
+                    record.userId(), record.targetType(), record.targetId(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Write every existing vote as a record with timestamp 0, so that any live record of the same
+     * user and target, from any instance, takes precedence on replay.
+     */
+    private void seed(VoteJournalWriter target) {
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streaming.setFetchSize(SEED_FETCH_SIZE);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                seed(streaming, target, VoteTargetType.POST, "SELECT user_id, post_id, value FROM post_votes");
+                seed(streaming, target, VoteTargetType.COMMENT,
+                        "SELECT user_id, comment_id, value FROM comment_votes");
+            });
+            target.force();
+            log.info("Seeded vote journal with {} existing votes", target.nextSequence());
+        } catch (DataAccessException | UncheckedIOException ex) {
+            log.warn("Could not seed vote journal, replay will only rebuild deltas: {}", ex.getMessage());
+        }
+    }
+
+    private void seed(JdbcTemplate streaming, VoteJournalWriter target, VoteTargetType targetType, String sql) {
+        streaming.query(sql, rs -> {
+            VoteJournalRecord record = new VoteJournalRecord(rs.getLong(1), rs.getLong(2), targetType,
+                    (byte) 0, (byte) rs.getShort(3), 0L);
+            try {
+                target.append(record);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.javaddit.features.vote.journal;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Settings of the {@link VoteJournal}.
+ *
+ * @param enabled          whether accepted vote mutations are journaled
+ * @param directory        directory holding the segment files of this instance
+ * @param segmentRecords   records per segment file (32 bytes each)
+ * @param syncIntervalMs   delay between two flushes of the current segment to disk
+ * @param seedFromDatabase write the existing votes into an empty journal at startup, so that
+ *                         replay can rebuild absolute scores
+ */
+@ConfigurationProperties(prefix = "app.votes.journal")
+@Validated
+public record VoteJournalProperties(
+        boolean enabled,
+        @NotBlank String directory,
+        @Positive int segmentRecords,
+        @Positive long syncIntervalMs,
+        boolean seedFromDatabase
+) {
+}
@@ -0,0 +1,79 @@
+package com.example.javaddit.features.vote.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Sequential reader over all segments of a vote journal directory.
+ * A segment is read up to its first invalid record: unwritten space, a torn tail after a crash
+ * or a corrupted record all end it.
+ */
+public final class VoteJournalReader {
+
+    private VoteJournalReader() {
+    }
+
+    /**
+     * Feed every valid record of the journal to {@code consumer}, in sequence order.
+     */
+    public static ReadStats read(Path directory, Consumer<VoteJournalRecord> consumer) throws IOException {
+        List<Path> segments = VoteJournalSegments.list(directory);
+        CRC32C crc = new CRC32C();
+        long records = 0;
+        int truncatedSegments = 0;
+
+        for (int i = 0; i < segments.size(); i++) {
+            try (FileChannel channel = FileChannel.open(segments.get(i), StandardOpenOption.READ)) {
+                MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                segment.order(ByteOrder.LITTLE_ENDIAN);
+
+                int capacity = segment.capacity() / VoteJournalRecord.SIZE;
+                int read = 0;
+                VoteJournalRecord record;
+                while (read < capacity
+                        && (record = VoteJournalRecord.readAt(segment, read * VoteJournalRecord.SIZE, crc)) != null) {
+                    consumer.accept(record);
+                    read++;
+                }
+                records += read;
+
+                boolean last = i == segments.size() - 1;
+                if (!last && read < capacity) {
+                    truncatedSegments++;
+                }
+            }
+        }
+        return new ReadStats(segments.size(), records, truncatedSegments);
+    }
+
+    /**
+     * Number of valid records at the start of a mapped segment.
+     */
+    static int countValidRecords(ByteBuffer segment) {
+        CRC32C crc = new CRC32C();
+        int capacity = segment.capacity() / VoteJournalRecord.SIZE;
+        int count = 0;
+        while (count < capacity && VoteJournalRecord.readAt(segment, count * VoteJournalRecord.SIZE, crc) != null) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Summary of a read.
+     *
+     * @param segments          number of segment files
+     * @param records           number of valid records read
+     * @param truncatedSegments sealed segments that ended early because of an invalid record
+     */
+    public record ReadStats(int segments, long records, int truncatedSegments) {
+    }
+}
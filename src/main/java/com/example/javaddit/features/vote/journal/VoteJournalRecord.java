@@ -0,0 +1,93 @@
+package com.example.javaddit.features.vote.journal;
+
+import com.example.javaddit.features.vote.entity.VoteTargetType;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+
+/**
+ * One accepted vote mutation as stored in the vote journal.
+ * <p>
+ * Records are fixed-width, {@value #SIZE} bytes, little endian:
+ * <pre>
+ *  0  user id          long
+ *  8  target id        long
+ * 16  timestamp        long, epoch milliseconds
+ * 24  target type      byte, {@link VoteTargetType} ordinal
+ * 25  previous value   byte, -1 / 0 / 1
+ * 26  value            byte, -1 / 0 / 1 (0 = vote removed)
+ * 27  format version   byte
+ * 28  CRC32C of bytes 0..27
+ * </pre>
+ * Keeping the previous value makes every record a self-contained score delta.
+ */
+public record VoteJournalRecord(long userId,
+                                long targetId,
+                                VoteTargetType targetType,
+                                byte previousValue,
+                                byte value,
+                                long timestampMillis) {
+
+    public static final int SIZE = 32;
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final int CRC_OFFSET = 28;
+    private static final VoteTargetType[] TARGET_TYPES = VoteTargetType.values();
+
+    /**
+     * Score change caused by this mutation.
+     */
+    public int delta() {
+        return value - previousValue;
+    }
+
+    /**
+     * Write this record at the buffer's position and advance it by {@link #SIZE}.
+     * {@code scratch} must be a {@link #SIZE}-byte little endian heap buffer owned by the caller.
+     */
+    void writeTo(ByteBuffer target, ByteBuffer scratch, CRC32C crc) {
+        scratch.clear();
+        scratch.putLong(userId)
+                .putLong(targetId)
+                .putLong(timestampMillis)
+                .put((byte) targetType.ordinal())
+                .put(previousValue)
+                .put(value)
+                .put(FORMAT_VERSION);
+
+        crc.reset();
+        crc.update(scratch.array(), 0, CRC_OFFSET);
+        scratch.putInt((int) crc.getValue());
+
+        target.put(scratch.array(), 0, SIZE);
+    }
+
+    /**
+     * Read the record at {@code offset}, or return null if the bytes there are not a valid record
+     * (never written, torn by a crash or corrupted).
+     */
+    static VoteJournalRecord readAt(ByteBuffer source, int offset, CRC32C crc) {
+        if (source.get(offset + 27) != FORMAT_VERSION) {
+            return null;
+        }
+        crc.reset();
+        for (int i = 0; i < CRC_OFFSET; i++) {
+            crc.update(source.get(offset + i));
+        }
+        if (source.getInt(offset + CRC_OFFSET) != (int) crc.getValue()) {
+            return null;
+        }
+
+        int targetType = source.get(offset + 24);
+        if (targetType < 0 || targetType >= TARGET_TYPES.length) {
+            return null;
+        }
+        return new VoteJournalRecord(
+                source.getLong(offset),
+                source.getLong(offset + 8),
+                TARGET_TYPES[targetType],
+                source.get(offset + 25),
+                source.get(offset + 26),
+                source.getLong(offset + 16));
+    }
+}
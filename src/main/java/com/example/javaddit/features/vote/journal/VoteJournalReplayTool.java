@@ -0,0 +1,78 @@
+package com.example.javaddit.features.vote.journal;
+
+import com.example.javaddit.features.vote.entity.VoteTargetType;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line entry point that turns vote journals into a SQL script restoring
+ * {@code posts.score} and {@code comments.score}.
+ * <pre>
+ * java -cp javaddit.jar -Dloader.main=com.example.javaddit.features.vote.journal.VoteJournalReplayTool \
+ *     org.springframework.boot.loader.launch.PropertiesLauncher [--since=2025-01-01T00:00:00Z] dir...
+ * </pre>
+ * Without {@code --since} the script sets absolute scores; with it, it adds the changes journaled
+ * since that instant. Run the script with the application stopped, so no buffered score deltas are
+ * flushed on top of it.
+ */
+public final class VoteJournalReplayTool {
+
+    private static final String SINCE = "--since=";
+
+    private VoteJournalReplayTool() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Instant since = null;
+        List<Path> directories = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith(SINCE)) {
+                since = Instant.parse(arg.substring(SINCE.length()));
+            } else {
+                directories.add(Path.of(arg));
+            }
+        }
+        if (directories.isEmpty()) {
+            System.err.println("Usage: VoteJournalReplayTool [--since=<ISO instant>] <journal dir>...");
+            System.exit(2);
+        }
+
+        VoteJournalReplayer.ReplayResult result = since == null
+                ? VoteJournalReplayer.rebuildScores(directories)
+                : VoteJournalReplayer.sumDeltas(directories, since.toEpochMilli());
+        writeScript(result, since == null, System.out);
+
+        System.err.printf("Replayed %d records from %d journal(s)%n", result.records(), directories.size());
+        if (result.truncatedSegments() > 0) {
+            System.err.printf("WARNING: %d sealed segment(s) ended early on an invalid record%n",
+                    result.truncatedSegments());
+        }
+    }
+
+    static void writeScript(VoteJournalReplayer.ReplayResult result, boolean absolute, PrintStream out) {
+        out.println("BEGIN;");
+        for (Map.Entry<VoteTargetType, Map<Long, Long>> byType : result.scores().entrySet()) {
+            String table = byType.getKey() == VoteTargetType.POST ? "posts" : "comments";
+            String counters = byType.getKey() == VoteTargetType.POST ? "post_counters" : "comment_counters";
+            String counterColumn = byType.getKey() == VoteTargetType.POST ? "post_id" : "comment_id";
+
+            for (Map.Entry<Long, Long> score : byType.getValue().entrySet()) {
+                if (absolute) {
+                    out.printf("UPDATE %s SET score = %d WHERE id = %d;%n", table, score.getValue(), score.getKey());
+                    out.printf("UPDATE %s SET score_delta = 0 WHERE %s = %d;%n",
+                            counters, counterColumn, score.getKey());
+                } else {
+                    out.printf("UPDATE %s SET score = score + %d WHERE id = %d;%n",
+                            table, score.getValue(), score.getKey());
+                }
+            }
+        }
+        out.println("COMMIT;");
+    }
+}
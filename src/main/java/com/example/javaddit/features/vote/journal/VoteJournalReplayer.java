@@ -0,0 +1,85 @@
+package com.example.javaddit.features.vote.journal;
+
+import com.example.javaddit.features.vote.entity.VoteTargetType;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Rebuilds vote scores from one or more journal directories (one per application instance).
+ * <p>
+ * {@link #rebuildScores} computes absolute scores from the final vote of every user on every target,
+ * taking the record with the latest timestamp when several instances journaled the same pair. It is
+ * exact for every target whose votes are all covered by the journals, which holds once a journal has
+ * been seeded from the votes table. {@link #sumDeltas} instead adds up the score changes recorded
+ * since a point in time, for replaying on top of a restored backup.
+ */
+public final class VoteJournalReplayer {
+
+    private VoteJournalReplayer() {
+    }
+
+    public static ReplayResult rebuildScores(List<Path> directories) throws IOException {
+        Map<VoteKey, FinalVote> finalVotes = new HashMap<>();
+        long records = 0;
+        int truncatedSegments = 0;
+
+        for (Path directory : directories) {
+            VoteJournalReader.ReadStats stats = VoteJournalReader.read(directory, record -> finalVotes.merge(
+                    new VoteKey(record.targetType(), record.userId(), record.targetId()),
+                    new FinalVote(record.timestampMillis(), record.value()),
+                    (existing, candidate) -> candidate.timestampMillis() >= existing.timestampMillis()
+                            ? candidate
+                            : existing));
+            records += stats.records();
+            truncatedSegments += stats.truncatedSegments();
+        }
+
+        Map<VoteTargetType, Map<Long, Long>> scores = emptyScores();
+        finalVotes.forEach((key, vote) -> scores.get(key.targetType())
+                .merge(key.targetId(), (long) vote.value(), Long::sum));
+        return new ReplayResult(scores, records, truncatedSegments);
+    }
+
+    public static ReplayResult sumDeltas(List<Path> directories, long sinceMillis) throws IOException {
+        Map<VoteTargetType, Map<Long, Long>> deltas = emptyScores();
+        long records = 0;
+        int truncatedSegments = 0;
+
+        for (Path directory : directories) {
+            VoteJournalReader.ReadStats stats = VoteJournalReader.read(directory, record -> {
+                if (record.timestampMillis() >= sinceMillis && record.delta() != 0) {
+                    deltas.get(record.targetType()).merge(record.targetId(), (long) record.delta(), Long::sum);
+                }
+            });
+            records += stats.records();
+            truncatedSegments += stats.truncatedSegments();
+        }
+        return new ReplayResult(deltas, records, truncatedSegments);
+    }
+
+    private static Map<VoteTargetType, Map<Long, Long>> emptyScores() {
+        Map<VoteTargetType, Map<Long, Long>> scores = new EnumMap<>(VoteTargetType.class);
+        for (VoteTargetType type : VoteTargetType.values()) {
+            scores.put(type, new TreeMap<>());
+        }
+        return scores;
+    }
+
+    private record VoteKey(VoteTargetType targetType, long userId, long targetId) {
+    }
+
+    private record FinalVote(long timestampMillis, byte value) {
+    }
+
+    /**
+     * Scores (or deltas) per target type and target id, in id order.
+     */
+    public record ReplayResult(Map<VoteTargetType, Map<Long, Long>> scores, long records, int truncatedSegments) {
+    }
+}
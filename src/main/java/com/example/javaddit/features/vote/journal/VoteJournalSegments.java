@@ -0,0 +1,46 @@
+package com.example.javaddit.features.vote.journal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Naming of journal segment files: {@code votes-<first sequence, 20 digits>.journal}, so that
+ * lexical order is sequence order.
+ */
+final class VoteJournalSegments {
+
+    private static final String PREFIX = "votes-";
+    private static final String SUFFIX = ".journal";
+
+    private VoteJournalSegments() {
+    }
+
+    static Path path(Path directory, long firstSequence) {
+        return directory.resolve(PREFIX + String.format("%020d", firstSequence) + SUFFIX);
+    }
+
+    static long firstSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    /**
+     * Segments of a journal directory in sequence order; empty if the directory does not exist.
+     */
+    static List<Path> list(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+}
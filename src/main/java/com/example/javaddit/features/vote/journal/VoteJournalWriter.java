@@ -0,0 +1,164 @@
+package com.example.javaddit.features.vote.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Appends {@link VoteJournalRecord}s to memory-mapped, fixed-size segment files.
+ * <p>
+ * A record is in the page cache as soon as {@link #append} returns, so it survives a crash of the
+ * process; {@link #force()} makes it survive a crash of the machine. When the current segment is
+ * full a new one is created and mapped. Reopening a directory continues after the last valid
+ * record of the last segment, discarding a torn tail.
+ */
+public final class VoteJournalWriter implements Closeable {
+
+    private final Path directory;
+    private final int segmentRecords;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ByteBuffer scratch = ByteBuffer.allocate(VoteJournalRecord.SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final CRC32C crc = new CRC32C();
+
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private long nextSequence;
+
+    private VoteJournalWriter(Path directory, int segmentRecords) {
+        this.directory = directory;
+        this.segmentRecords = segmentRecords;
+    }
+
+    /**
+     * Open a journal directory for appending, creating it if needed.
+     *
+     * @param segmentRecords number of records per newly created segment
+     */
+    public static VoteJournalWriter open(Path directory, int segmentRecords) throws IOException {
+        if (segmentRecords <= 0) {
+            throw new IllegalArgumentException("segmentRecords must be positive");
+        }
+        Files.createDirectories(directory);
+        VoteJournalWriter writer = new VoteJournalWriter(directory, segmentRecords);
+
+        List<Path> segments = VoteJournalSegments.list(directory);
+        if (segments.isEmpty()) {
+            writer.startSegment(0);
+        } else {
+            writer.resume(segments.get(segments.size() - 1));
+        }
+        return writer;
+    }
+
+    /**
+     * Append a record and return its sequence number.
+     */
+    public long append(VoteJournalRecord record) throws IOException {
+        lock.lock();
+        try {
+            if (segment == null) {
+                throw new IOException("Vote journal is closed");
+            }
+            if (segment.remaining() < VoteJournalRecord.SIZE) {
+                finishSegment();
+                startSegment(nextSequence);
+            }
+            record.writeTo(segment, scratch, crc);
+            return nextSequence++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sequence number the next appended record will get; 0 for an empty journal.
+     */
+    public long nextSequence() {
+        lock.lock();
+        try {
+            return nextSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Flush the current segment to the storage device.
+     */
+    public void force() {
+        MappedByteBuffer current;
+        lock.lock();
+        try {
+            current = segment;
+        } finally {
+            lock.unlock();
+        }
+        if (current != null) {
+            current.force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (segment != null) {
+                finishSegment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void resume(Path last) throws IOException {
+        long firstSequence = VoteJournalSegments.firstSequence(last);
+        channel = FileChannel.open(last, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        segment.order(ByteOrder.LITTLE_ENDIAN);
+
+        int records = VoteJournalReader.countValidRecords(segment);
+        clearFrom(records * VoteJournalRecord.SIZE);
+        segment.position(records * VoteJournalRecord.SIZE);
+        nextSequence = firstSequence + records;
+    }
+
+    /**
+     * Zero everything after the last valid record, so that valid-looking records behind a torn or
+     * corrupted one cannot resurface once new records are appended in front of them.
+     */
+    private void clearFrom(int offset) {
+        int end = segment.capacity();
+        int position = offset;
+        for (; position + Long.BYTES <= end; position += Long.BYTES) {
+            segment.putLong(position, 0L);
+        }
+        for (; position < end; position++) {
+            segment.put(position, (byte) 0);
+        }
+    }
+
+    private void startSegment(long firstSequence) throws IOException {
+        Path path = VoteJournalSegments.path(directory, firstSequence);
+        channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) segmentRecords * VoteJournalRecord.SIZE);
+        segment.order(ByteOrder.LITTLE_ENDIAN);
+        nextSequence = firstSequence;
+    }
+
+    private void finishSegment() throws IOException {
+        segment.force();
+        channel.close();
+        segment = null;
+        channel = null;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.javaddit.features.vote.repository;
+
+import com.example.javaddit.features.vote.entity.CommentVote;
+import com.example.javaddit.features.vote.entity.CommentVoteId;
+import com.example.javaddit.features.vote.entity.VoteType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository for votes on comments. Like {@link PostVoteRepository}, every query filters on
+ * {@code user_id}.
+ */
+@Repository
+public interface CommentVoteRepository extends JpaRepository<CommentVote, CommentVoteId> {
+
+    /**
+     * Find the current vote type of a user on a comment.
+     */
+    @Query("SELECT v.voteType FROM CommentVote v WHERE v.id.userId = :userId AND v.id.commentId = :commentId")
+    Optional<VoteType> findVoteTypeByUserIdAndCommentId(@Param("userId") Long userId,
+            @Param("commentId") Long commentId);
+
+    /**
+     * Toggle a vote on a comment in one statement, see {@link PostVoteRepository#toggleVote}.
+     * Returns no row if the comment does not exist.
+     */
+    @Query(nativeQuery = true, value = """
+            WITH target AS (
+                SELECT c.id, c.score, p.community_id FROM comments c
+                JOIN posts p ON p.id = c.post_id
+                WHERE c.id = :commentId
+            ),
+            existing AS (
+                SELECT v.value FROM comment_votes v
+                WHERE v.user_id = :userId AND v.comment_id = :commentId
+                FOR UPDATE
+            ),
+            removed AS (
+                DELETE FROM comment_votes v USING existing e
+                WHERE v.user_id = :userId AND v.comment_id = :commentId AND e.value = :value
+            ),
+            changed AS (
+                UPDATE comment_votes v SET value = :value FROM existing e
+                WHERE v.user_id = :userId AND v.comment_id = :commentId AND e.value <> :value
+            ),
+            inserted AS (
+                INSERT INTO comment_votes (user_id, comment_id, value)
+                SELECT :userId, t.id, :value FROM target t
+                WHERE NOT EXISTS (SELECT 1 FROM existing)
+                ON CONFLICT (user_id, comment_id) DO NOTHING
+                RETURNING 1
+            )
+            SELECT t.score AS "score",
+                   (SELECT e.value FROM existing e) AS "previousValue",
+                   EXISTS (SELECT 1 FROM inserted) AS "inserted",
+                   t.community_id AS "communityId"
+            FROM target t
+            """)
+    Optional<VoteMutationResult> toggleVote(@Param("userId") Long userId,
+            @Param("commentId") Long commentId,
+            @Param("value") int value);
+
+    /**
+     * Remove a user's vote from a comment in one statement, see {@link PostVoteRepository#removeVote}.
+     */
+    @Query(nativeQuery = true, value = """
+            WITH target AS (
+                SELECT c.id, c.score, p.community_id FROM comments c
+                JOIN posts p ON p.id = c.post_id
+                WHERE c.id = :commentId
+            ),
+            removed AS (
+                DELETE FROM comment_votes v
+                WHERE v.user_id = :userId AND v.comment_id = :commentId
+                RETURNING v.value
+            )
+            SELECT t.score AS "score",
+                   (SELECT r.value FROM removed r) AS "previousValue",
+                   false AS "inserted",
+                   t.community_id AS "communityId"
+            FROM target t
+            """)
+    Optional<VoteMutationResult> removeVote(@Param("userId") Long userId,
+            @Param("commentId") Long commentId);
+}
@@ -0,0 +1,148 @@
+package com.example.javaddit.features.vote.repository;
+
+import com.example.javaddit.features.vote.entity.VoteTargetType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JDBC access to the {@code post_counters}/{@code comment_counters} shard tables of hot targets.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CounterShardRepository {
+
+    private static final String COMPACT_POSTS_SQL = """
+            WITH folded AS (
+                DELETE FROM post_counters RETURNING post_id, score_delta, comments_delta
+            ),
+            totals AS (
+                SELECT post_id, SUM(score_delta) AS score_delta, SUM(comments_delta) AS comments_delta
+                FROM folded GROUP BY post_id
+            )
+            UPDATE posts p
+            SET score = p.score + t.score_delta,
+                comments_count = GREATEST(p.comments_count + t.comments_delta, 0)
+            FROM totals t
+            WHERE p.id = t.post_id
+            """;
+
+    private static final String COMPACT_COMMENTS_SQL = """
+            WITH folded AS (
+                DELETE FROM comment_counters RETURNING comment_id, score_delta
+            ),
+            totals AS (
+                SELECT comment_id, SUM(score_delta) AS score_delta FROM folded GROUP BY comment_id
+            )
+            UPDATE comments c
+            SET score = c.score + t.score_delta
+            FROM totals t
+            WHERE c.id = t.comment_id
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Ids of all targets that are currently in sharded mode.
+     */
+    public Set<Long> findShardedTargetIds(VoteTargetType targetType) {
+        String sql = "SELECT id FROM " + targetTable(targetType) + " WHERE counter_shards > 0";
+        return new HashSet<>(jdbcTemplate.queryForList(sql, Map.of(), Long.class));
+    }
+
+    /**
+     * Switch a target to sharded mode, or back with {@code shards = 0}.
+     */
+    public void setShards(VoteTargetType targetType, Collection<Long> targetIds, int shards) {
+        if (targetIds.isEmpty()) {
+            return;
+        }
+        String sql = "UPDATE " + targetTable(targetType) + " SET counter_shards = :shards"
+                + " WHERE id IN (:ids) AND counter_shards <> :shards";
+        jdbcTemplate.update(sql, Map.of("shards", shards, "ids", targetIds));
+    }
+
+    /**
+     * Add score deltas to the given shards, one JDBC batch for all targets.
+     *
+     * @param deltas rows of target id, shard and delta
+     */
+    public void addScoreDeltas(VoteTargetType targetType, List<ShardDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        String table = counterTable(targetType);
+        String column = targetColumn(targetType);
+        String sql = "INSERT INTO " + table + " (" + column + ", shard, score_delta)"
+                + " VALUES (:targetId, :shard, :delta)"
+                + " ON CONFLICT (" + column + ", shard)"
+                + " DO UPDATE SET score_delta = " + table + ".score_delta + EXCLUDED.score_delta";
+
+        SqlParameterSource[] parameters = new SqlParameterSource[deltas.size()];
+        for (int i = 0; i < parameters.length; i++) {
+            ShardDelta delta = deltas.get(i);
+            parameters[i] = new MapSqlParameterSource()
+                    .addValue("targetId", delta.targetId())
+                    .addValue("shard", delta.shard())
+                    .addValue("delta", delta.delta());
+        }
+        jdbcTemplate.batchUpdate(sql, parameters);
+    }
+
+    /**
+     * Sum the shards of the given targets; targets without shard rows are absent from the result.
+     */
+    public Map<Long, CounterShardTotals> findTotals(VoteTargetType targetType, Collection<Long> targetIds) {
+        if (targetIds.isEmpty()) {
+            return Map.of();
+        }
+        String column = targetColumn(targetType);
+        String commentsDelta = targetType == VoteTargetType.POST ? "SUM(comments_delta)" : "0";
+        String sql = "SELECT " + column + " AS target_id, SUM(score_delta) AS score_delta, "
+                + commentsDelta + " AS comments_delta FROM " + counterTable(targetType)
+                + " WHERE " + column + " IN (:ids) GROUP BY " + column;
+
+        Map<Long, CounterShardTotals> totals = new HashMap<>();
+        jdbcTemplate.query(sql, Map.of("ids", targetIds), rs -> {
+            totals.put(rs.getLong("target_id"),
+                    new CounterShardTotals(rs.getInt("score_delta"), rs.getInt("comments_delta")));
+        });
+        return totals;
+    }
+
+    /**
+     * Fold every shard row back into its target row and delete it. Returns the number of
+     * targets updated.
+     */
+    public int compact(VoteTargetType targetType) {
+        return jdbcTemplate.update(targetType == VoteTargetType.POST ? COMPACT_POSTS_SQL : COMPACT_COMMENTS_SQL,
+                Map.of());
+    }
+
+    private String targetTable(VoteTargetType targetType) {
+        return targetType == VoteTargetType.POST ? "posts" : "comments";
+    }
+
+    private String counterTable(VoteTargetType targetType) {
+        return targetType == VoteTargetType.POST ? "post_counters" : "comment_counters";
+    }
+
+    private String targetColumn(VoteTargetType targetType) {
+        return targetType == VoteTargetType.POST ? "post_id" : "comment_id";
+    }
+
+    /**
+     * A delta for one shard of one target.
+     */
+    public record ShardDelta(long targetId, int shard, long delta) {
+    }
+}
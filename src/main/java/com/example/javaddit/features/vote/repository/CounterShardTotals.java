@@ -0,0 +1,12 @@
+package com.example.javaddit.features.vote.repository;
+
+/**
+ * Sum of the not yet compacted counter shards of one target.
+ *
+ * @param scoreDelta    pending score change
+ * @param commentsDelta pending comments count change, always 0 for comments
+ */
+public record CounterShardTotals(int scoreDelta, int commentsDelta) {
+
+    public static final CounterShardTotals EMPTY = new CounterShardTotals(0, 0);
+}
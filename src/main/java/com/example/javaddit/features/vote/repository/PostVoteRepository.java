@@ -0,0 +1,87 @@
+package com.example.javaddit.features.vote.repository;
+
+import com.example.javaddit.features.vote.entity.PostVote;
+import com.example.javaddit.features.vote.entity.PostVoteId;
+import com.example.javaddit.features.vote.entity.VoteType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository for votes on posts.
+ * Every query filters on {@code user_id}, so it touches a single partition once the table is hash
+ * partitioned (see {@code VotePartitionMigrator}).
+ */
+@Repository
+public interface PostVoteRepository extends JpaRepository<PostVote, PostVoteId> {
+
+    /**
+     * Find the current vote type of a user on a post.
+     */
+    @Query("SELECT v.voteType FROM PostVote v WHERE v.id.userId = :userId AND v.id.postId = :postId")
+    Optional<VoteType> findVoteTypeByUserIdAndPostId(@Param("userId") Long userId, @Param("postId") Long postId);
+
+    /**
+     * Toggle a vote on a post in one statement: remove it when the same value is submitted again,
+     * flip it when the value differs, insert it otherwise. The existing row is locked so concurrent
+     * toggles serialize on it, and a concurrent first vote is absorbed by the primary key
+     * ({@code ON CONFLICT DO NOTHING}) instead of failing. Returns no row if the post does not exist.
+     */
+    @Query(nativeQuery = true, value = """
+            WITH target AS (
+                SELECT p.id, p.score, p.community_id FROM posts p WHERE p.id = :postId
+            ),
+            existing AS (
+                SELECT v.value FROM post_votes v
+                WHERE v.user_id = :userId AND v.post_id = :postId
+                FOR UPDATE
+            ),
+            removed AS (
+                DELETE FROM post_votes v USING existing e
+                WHERE v.user_id = :userId AND v.post_id = :postId AND e.value = :value
+            ),
+            changed AS (
+                UPDATE post_votes v SET value = :value FROM existing e
+                WHERE v.user_id = :userId AND v.post_id = :postId AND e.value <> :value
+            ),
+            inserted AS (
+                INSERT INTO post_votes (user_id, post_id, value)
+                SELECT :userId, t.id, :value FROM target t
+                WHERE NOT EXISTS (SELECT 1 FROM existing)
+                ON CONFLICT (user_id, post_id) DO NOTHING
+                RETURNING 1
+            )
+            SELECT t.score AS "score",
+                   (SELECT e.value FROM existing e) AS "previousValue",
+                   EXISTS (SELECT 1 FROM inserted) AS "inserted",
+                   t.community_id AS "communityId"
+            FROM target t
+            """)
+    Optional<VoteMutationResult> toggleVote(@Param("userId") Long userId,
+            @Param("postId") Long postId,
+            @Param("value") int value);
+
+    /**
+     * Remove a user's vote from a post in one statement. Returns no row if the post does not exist;
+     * the previous value is null if there was nothing to remove.
+     */
+    @Query(nativeQuery = true, value = """
+            WITH target AS (
+                SELECT p.id, p.score, p.community_id FROM posts p WHERE p.id = :postId
+            ),
+            removed AS (
+                DELETE FROM post_votes v
+                WHERE v.user_id = :userId AND v.post_id = :postId
+                RETURNING v.value
+            )
+            SELECT t.score AS "score",
+                   (SELECT r.value FROM removed r) AS "previousValue",
+                   false AS "inserted",
+                   t.community_id AS "communityId"
+            FROM target t
+            """)
+    Optional<VoteMutationResult> removeVote(@Param("userId") Long userId, @Param("postId") Long postId);
+}
@@ -0,0 +1,11 @@
+package com.example.javaddit.features.vote.repository;
+
+/**
+ * A target whose stored score (column plus counter shards) differs from its votes.
+ */
+public record ScoreMismatch(long targetId, long storedScore, long upvotes, long downvotes) {
+
+    public long actualScore() {
+        return upvotes - downvotes;
+    }
+}
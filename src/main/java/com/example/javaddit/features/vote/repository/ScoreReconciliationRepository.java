@@ -0,0 +1,154 @@
+package com.example.javaddit.features.vote.repository;
+
+import com.example.javaddit.features.vote.entity.VoteTargetType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC queries of the score reconciliation job. Scores are compared per range of target ids,
+ * aggregating the votes of that range through the {@code post_votes(post_id)} /
+ * {@code comment_votes(comment_id)} indexes; only mismatching targets are returned.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ScoreReconciliationRepository {
+
+    private static final String MISMATCH_SQL = """
+            SELECT t.id AS target_id,
+                   t.score + COALESCE(c.score_delta, 0) AS stored_score,
+                   COALESCE(v.upvotes, 0) AS upvotes,
+                   COALESCE(v.downvotes, 0) AS downvotes
+            FROM %1$s t
+            LEFT JOIN (
+                SELECT %2$s AS target_id, SUM(score_delta) AS score_delta
+                FROM %3$s
+                WHERE %2$s %4$s
+                GROUP BY %2$s
+            ) c ON c.target_id = t.id
+            LEFT JOIN (
+                SELECT %2$s AS target_id,
+                       COUNT(*) FILTER (WHERE value = 1) AS upvotes,
+                       COUNT(*) FILTER (WHERE value = -1) AS downvotes
+                FROM %5$s
+                WHERE %2$s %4$s
+                GROUP BY %2$s
+            ) v ON v.target_id = t.id
+            WHERE t.id %4$s
+              AND t.score + COALESCE(c.score_delta, 0) <> COALESCE(v.upvotes, 0) - COALESCE(v.downvotes, 0)
+            """;
+
+    private static final RowMapper<ScoreMismatch> MISMATCH_MAPPER = (rs, rowNum) -> new ScoreMismatch(
+            rs.getLong("target_id"), rs.getLong("stored_score"), rs.getLong("upvotes"), rs.getLong("downvotes"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Last id of the next {@code limit} targets after {@code afterId}, or null if there are none.
+     */
+    public Long findRangeEnd(VoteTargetType targetType, long afterId, int limit) {
+        String sql = "SELECT MAX(id) FROM (SELECT id FROM " + targetTable(targetType)
+                + " WHERE id > :afterId ORDER BY id LIMIT :limit) window_ids";
+        return jdbcTemplate.queryForObject(sql, Map.of("afterId", afterId, "limit", limit), Long.class);
+    }
+
+    public long findMaxId(VoteTargetType targetType) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + targetTable(targetType), Map.of(),
+                Long.class);
+        return maxId != null ? maxId : 0;
+    }
+
+    /**
+     * Mismatching targets with ids in {@code [fromId, toId]}.
+     */
+    public List<ScoreMismatch> findMismatches(VoteTargetType targetType, long fromId, long toId) {
+        return jdbcTemplate.query(mismatchSql(targetType, "BETWEEN :fromId AND :toId"),
+                Map.of("fromId", fromId, "toId", toId), MISMATCH_MAPPER);
+    }
+
+    /**
+     * Mismatching targets among the given ids.
+     */
+    public List<ScoreMismatch> findMismatches(VoteTargetType targetType, Collection<Long> targetIds) {
+        if (targetIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(mismatchSql(targetType, "IN (:ids)"), Map.of("ids", targetIds), MISMATCH_MAPPER);
+    }
+
+    /**
+     * Lock the rows of the given targets, in id order, until the end of the transaction.
+     */
+    public void lockTargets(VoteTargetType targetType, Collection<Long> targetIds) {
+        if (targetIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.queryForList("SELECT id FROM " + targetTable(targetType)
+                + " WHERE id IN (:ids) ORDER BY id FOR UPDATE", Map.of("ids", targetIds), Long.class);
+    }
+
+    /**
+     * Add a correction to the score column of each target, one JDBC batch. Corrections are relative
+     * so that score deltas flushed concurrently are kept.
+     */
+    public void addScoreCorrections(VoteTargetType targetType, Map<Long, Long> corrections) {
+        if (corrections.isEmpty()) {
+            return;
+        }
+        String sql = "UPDATE " + targetTable(targetType) + " SET score = score + :correction WHERE id = :id";
+        SqlParameterSource[] parameters = corrections.entrySet().stream()
+                .map(correction -> new MapSqlParameterSource()
+                        .addValue("id", correction.getKey())
+                        .addValue("correction", correction.getValue()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(sql, parameters);
+    }
+
+    /**
+     * Lock the checkpoint row of a target type and return its last id, or null when another
+     * instance holds the lock. Must run in a transaction.
+     */
+    public Long lockCheckpoint(VoteTargetType targetType) {
+        List<Long> checkpoints = jdbcTemplate.queryForList("""
+                        SELECT last_id
+                        FROM score_reconciliation_checkpoints
+                        WHERE target_type = :targetType
+                        FOR UPDATE SKIP LOCKED
+                        """,
+                Map.of("targetType", targetType.name()), Long.class);
+        return checkpoints.isEmpty() ? null : checkpoints.get(0);
+    }
+
+    /**
+     * Store the checkpoint of a target type; {@code passCompleted} also counts a finished pass.
+     */
+    public void saveCheckpoint(VoteTargetType targetType, long lastId, boolean passCompleted) {
+        jdbcTemplate.update("""
+                        UPDATE score_reconciliation_checkpoints
+                        SET last_id = :lastId,
+                            passes = passes + CASE WHEN :passCompleted THEN 1 ELSE 0 END,
+                            updated_at = NOW()
+                        WHERE target_type = :targetType
+                        """,
+                Map.of("lastId", lastId, "passCompleted", passCompleted, "targetType", targetType.name()));
+    }
+
+    private String mismatchSql(VoteTargetType targetType, String idPredicate) {
+        return MISMATCH_SQL.formatted(targetTable(targetType),
+                targetType == VoteTargetType.POST ? "post_id" : "comment_id",
+                targetType == VoteTargetType.POST ? "post_counters" : "comment_counters",
+                idPredicate,
+                targetType == VoteTargetType.POST ? "post_votes" : "comment_votes");
+    }
+
+    private String targetTable(VoteTargetType targetType) {
+        return targetType == VoteTargetType.POST ? "posts" : "comments";
+    }
+}
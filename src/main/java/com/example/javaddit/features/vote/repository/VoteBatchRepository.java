@@ -0,0 +1,162 @@
+package com.example.javaddit.features.vote.repository;
+
+import com.example.javaddit.features.vote.entity.VoteTargetType;
+import com.example.javaddit.features.vote.entity.VoteType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JDBC access for applying many votes of one user in a single transaction.
+ * Writes go through {@link NamedParameterJdbcTemplate#batchUpdate} so a whole batch costs one
+ * round trip per statement kind instead of one per vote.
+ */
+@Repository
+@RequiredArgsConstructor
+public class VoteBatchRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Persisted scores of the given targets; ids that do not exist are absent from the result.
+     */
+    public Map<Long, Integer> findScores(VoteTargetType targetType, Collection<Long> targetIds) {
+        String sql = "SELECT id, score FROM " + targetTable(targetType) + " WHERE id IN (:ids)";
+        Map<Long, Integer> scores = new HashMap<>();
+        jdbcTemplate.query(sql, Map.of("ids", targetIds), rs -> {
+            scores.put(rs.getLong("id"), rs.getInt("score"));
+        });
+        return scores;
+    }
+
+    /**
+     * Community of each of the given targets, for a comment the community of its post.
+     */
+    public Map<Long, Long> findCommunityIds(VoteTargetType targetType, Collection<Long> targetIds) {
+        String sql = targetType == VoteTargetType.POST
+                ? "SELECT id, community_id FROM posts WHERE id IN (:ids)"
+                : "SELECT c.id, p.community_id FROM comments c JOIN posts p ON p.id = c.post_id WHERE c.id IN (:ids)";
+        Map<Long, Long> communityIds = new HashMap<>();
+        jdbcTemplate.query(sql, Map.of("ids", targetIds), rs -> {
+            communityIds.put(rs.getLong(1), rs.getLong(2));
+        });
+        return communityIds;
+    }
+
+    /**
+     * Votes of the user on the given targets; targets without a vote are absent from the result.
+     */
+    public Map<Long, VoteType> findVotesByUserAndTargets(long userId, VoteTargetType targetType,
+            Collection<Long> targetIds) {
+        return queryVotes(userId, targetType, targetIds, "");
+    }
+
+    /**
+     * Current votes of the user on the given targets. Rows are locked in id order so that
+     * concurrent batches of the same user cannot deadlock.
+     */
+    public Map<Long, VoteType> lockVotes(long userId, VoteTargetType targetType, Collection<Long> targetIds) {
+        return queryVotes(userId, targetType, targetIds, " ORDER BY v." + targetColumn(targetType) + " FOR UPDATE");
+    }
+
+    private Map<Long, VoteType> queryVotes(long userId, VoteTargetType targetType, Collection<Long> targetIds,
+            String suffix) {
+        if (targetIds.isEmpty()) {
+            return Map.of();
+        }
+        String column = targetColumn(targetType);
+        String sql = "SELECT v." + column + " AS target_id, v.value FROM " + voteTable(targetType) + " v"
+                + " WHERE v.user_id = :userId AND v." + column + " IN (:ids)" + suffix;
+
+        Map<Long, VoteType> votes = new HashMap<>();
+        jdbcTemplate.query(sql, Map.of("userId", userId, "ids", targetIds), rs -> {
+            votes.put(rs.getLong("target_id"), VoteType.fromValue(rs.getShort("value")));
+        });
+        return votes;
+    }
+
+    /**
+     * Insert new votes. A vote that a concurrent request inserted first is skipped by the primary
+     * key; the ids of such targets are returned so the caller can re-read them.
+     */
+    public Set<Long> insertVotes(long userId, VoteTargetType targetType, Map<Long, VoteType> votes) {
+        if (votes.isEmpty()) {
+            return Set.of();
+        }
+        String column = targetColumn(targetType);
+        String sql = "INSERT INTO " + voteTable(targetType) + " (user_id, " + column + ", value)"
+                + " VALUES (:userId, :targetId, :value)"
+                + " ON CONFLICT (user_id, " + column + ") DO NOTHING";
+
+        List<Long> targetIds = List.copyOf(votes.keySet());
+        int[] counts = jdbcTemplate.batchUpdate(sql, toParameters(userId, targetIds, votes));
+
+        Set<Long> skipped = new HashSet<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                skipped.add(targetIds.get(i));
+            }
+        }
+        return skipped;
+    }
+
+    /**
+     * Change the type of existing votes.
+     */
+    public void updateVotes(long userId, VoteTargetType targetType, Map<Long, VoteType> votes) {
+        if (votes.isEmpty()) {
+            return;
+        }
+        String column = targetColumn(targetType);
+        String sql = "UPDATE " + voteTable(targetType) + " SET value = :value"
+                + " WHERE user_id = :userId AND " + column + " = :targetId";
+
+        jdbcTemplate.batchUpdate(sql, toParameters(userId, List.copyOf(votes.keySet()), votes));
+    }
+
+    /**
+     * Delete the user's votes on the given targets.
+     */
+    public void deleteVotes(long userId, VoteTargetType targetType, Collection<Long> targetIds) {
+        if (targetIds.isEmpty()) {
+            return;
+        }
+        String column = targetColumn(targetType);
+        String sql = "DELETE FROM " + voteTable(targetType) + " WHERE user_id = :userId AND " + column + " IN (:ids)";
+
+        jdbcTemplate.update(sql, Map.of("userId", userId, "ids", targetIds));
+    }
+
+    private SqlParameterSource[] toParameters(long userId, List<Long> targetIds, Map<Long, VoteType> votes) {
+        SqlParameterSource[] parameters = new SqlParameterSource[targetIds.size()];
+        for (int i = 0; i < parameters.length; i++) {
+            Long targetId = targetIds.get(i);
+            parameters[i] = new MapSqlParameterSource()
+                    .addValue("userId", userId)
+                    .addValue("targetId", targetId)
+                    .addValue("value", votes.get(targetId).getValue());
+        }
+        return parameters;
+    }
+
+    private String targetTable(VoteTargetType targetType) {
+        return targetType == VoteTargetType.POST ? "posts" : "comments";
+    }
+
+    private String targetColumn(VoteTargetType targetType) {
+        return targetType == VoteTargetType.POST ? "post_id" : "comment_id";
+    }
+
+    private String voteTable(VoteTargetType targetType) {
+        return targetType == VoteTargetType.POST ? "post_votes" : "comment_votes";
+    }
+}
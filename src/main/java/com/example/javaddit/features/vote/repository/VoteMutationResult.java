@@ -0,0 +1,29 @@
+package com.example.javaddit.features.vote.repository;
+
+/**
+ * Projection returned by the single-statement vote mutations in {@link PostVoteRepository} and
+ * {@link CommentVoteRepository}.
+ */
+public interface VoteMutationResult {
+
+    /**
+     * Persisted score of the target, without the delta of this mutation.
+     */
+    Integer getScore();
+
+    /**
+     * Vote value (+1 / -1) the user had before the mutation, null if there was no vote.
+     */
+    Short getPreviousValue();
+
+    /**
+     * Whether a new vote row was inserted. False together with a null previous value
+     * means a concurrent request inserted the same vote first.
+     */
+    Boolean getInserted();
+
+    /**
+     * Community of the target, for a comment the community of its post.
+     */
+    Long getCommunityId();
+}
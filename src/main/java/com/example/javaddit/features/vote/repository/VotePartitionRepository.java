@@ -0,0 +1,66 @@
+package com.example.javaddit.features.vote.repository;
+
+import com.example.javaddit.features.vote.entity.VoteTargetType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Calls the partitioning functions installed by V10 for the vote table of a target type.
+ */
+@Repository
+@RequiredArgsConstructor
+public class VotePartitionRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Whether the vote table is already a partitioned table.
+     */
+    public boolean isPartitioned(VoteTargetType targetType) {
+        Boolean partitioned = jdbcTemplate.queryForObject(
+                "SELECT relkind = 'p' FROM pg_class WHERE oid = to_regclass(?)", Boolean.class,
+                voteTable(targetType));
+        return Boolean.TRUE.equals(partitioned);
+    }
+
+    /**
+     * Create the partitioned copy and start mirroring writes into it. Returns false if that was
+     * already done.
+     */
+    public boolean prepare(VoteTargetType targetType, int partitions) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT prepare_vote_partitioning(?, ?, ?, ?)", Boolean.class,
+                voteTable(targetType), targetColumn(targetType), targetTable(targetType), partitions));
+    }
+
+    /**
+     * Copy the next batch of existing votes; returns 0 once the copy has caught up.
+     */
+    public int copyBatch(VoteTargetType targetType, int batchSize) {
+        Integer copied = jdbcTemplate.queryForObject("SELECT copy_votes_batch(?, ?, ?)", Integer.class,
+                voteTable(targetType), targetColumn(targetType), batchSize);
+        return copied != null ? copied : 0;
+    }
+
+    /**
+     * Copy what is left and swap the partitioned copy in. Returns false if already finished.
+     */
+    public boolean finish(VoteTargetType targetType) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT finish_vote_partitioning(?, ?)", Boolean.class,
+                voteTable(targetType), targetColumn(targetType)));
+    }
+
+    private String voteTable(VoteTargetType targetType) {
+        return targetType == VoteTargetType.POST ? "post_votes" : "comment_votes";
+    }
+
+    private String targetColumn(VoteTargetType targetType) {
+        return targetType == VoteTargetType.POST ? "post_id" : "comment_id";
+    }
+
+    private String targetTable(VoteTargetType targetType) {
+        return targetType == VoteTargetType.POST ? "posts" : "comments";
+    }
+}
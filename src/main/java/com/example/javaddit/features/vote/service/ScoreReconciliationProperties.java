@@ -0,0 +1,28 @@
+package com.example.javaddit.features.vote.service;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Tuning for {@link ScoreReconciliationService}.
+ *
+ * @param enabled          whether the reconciliation job runs
+ * @param intervalMs       delay between two runs; must exceed the write-behind flush interval so
+ *                         suspects are confirmed after buffered deltas had a chance to land
+ * @param chunkSize        target ids checked by one query
+ * @param chunksPerRun     chunks checked per run, spread over the worker pool
+ * @param parallelism      number of worker threads (and database connections) used by a run
+ * @param repairBatchSize  corrections written per JDBC batch
+ */
+@ConfigurationProperties(prefix = "app.votes.reconciliation")
+@Validated
+public record ScoreReconciliationProperties(
+        boolean enabled,
+        @Positive long intervalMs,
+        @Positive int chunkSize,
+        @Positive int chunksPerRun,
+        @Positive int parallelism,
+        @Positive int repairBatchSize
+) {
+}
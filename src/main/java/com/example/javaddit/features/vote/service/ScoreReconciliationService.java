@@ -0,0 +1,309 @@
+package com.example.javaddit.features.vote.service;
+
+import com.example.javaddit.features.vote.entity.VoteTargetType;
+import com.example.javaddit.features.vote.repository.ScoreMismatch;
+import com.example.javaddit.features.vote.repository.ScoreReconciliationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background job that finds and repairs drift between {@code posts.score}/{@code comments.score}
+ * and the votes they are derived from.
+ * <p>
+ * Each run checks the next {@code chunk-size * chunks-per-run} targets after a persisted
+ * checkpoint, splitting that id range fork-join style into chunks that are compared in parallel,
+ * one aggregate query per chunk. After the last target the checkpoint wraps to 0 and a new pass
+ * begins.
+ * <p>
+ * A score counts as drifted when votes minus stored score minus the deltas this instance still
+ * buffers is non-zero. That can also be a transient effect of a flush or a vote racing the query,
+ * or of deltas buffered by another instance, so a mismatch is only a suspect: it is checked again
+ * on the next run and repaired only if the same difference is still there. Repairs lock the
+ * drifted rows, check the difference once more and add it to the score column, in small batches,
+ * so concurrently flushed deltas are kept.
+ * <p>
+ * A run of a target type holds the lock of its checkpoint row for its whole transaction; an
+ * instance that finds the row locked skips the run, so no two instances check the same range or
+ * repair the same target.
+ */
+@Service
+@Slf4j
+public class ScoreReconciliationService {
+
+    private static final String METRIC_PREFIX = "javaddit.votes.reconciliation.";
+
+    private final ScoreReconciliationRepository repository;
+    private final VoteScoreAggregator scoreAggregator;
+    private final ScoreReconciliationProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ForkJoinPool pool;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Map<VoteTargetType, TypeState> states = new EnumMap<>(VoteTargetType.class);
+
+    public ScoreReconciliationService(ScoreReconciliationRepository repository,
+                                      VoteScoreAggregator scoreAggregator,
+                                      ScoreReconciliationProperties properties,
+                                      TransactionTemplate transactionTemplate,
+                                      MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.scoreAggregator = scoreAggregator;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+        this.pool = new ForkJoinPool(properties.parallelism());
+        for (VoteTargetType targetType : VoteTargetType.values()) {
+            states.put(targetType, new TypeState(targetType, meterRegistry));
+        }
+    }
+
+    /**
+     * Start a run on the worker pool unless the previous one is still going, so the shared
+     * scheduler thread is never blocked by reconciliation queries.
+     */
+    @Scheduled(fixedDelayString = "${app.votes.reconciliation.interval-ms}")
+    public void reconcile() {
+        if (!properties.enabled() || !running.compareAndSet(false, true)) {
+            return;
+        }
+        pool.execute(() -> {
+            try {
+                for (TypeState state : states.values()) {
+                    state.runTimer.record(() -> transactionTemplate.executeWithoutResult(status -> run(state)));
+                }
+            } catch (DataAccessException | TransactionException ex) {
+                log.warn("Score reconciliation run failed, resuming from checkpoint on next run: {}",
+                        ex.getMessage());
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Runs of this instance are serialized by {@link #running}, so the state of a target type is
+     * only ever touched by one thread at a time; runs of other instances by the checkpoint lock.
+     * Must run in a transaction.
+     */
+    private void run(TypeState state) {
+        VoteTargetType targetType = state.targetType;
+        Long checkpoint = repository.lockCheckpoint(targetType);
+        if (checkpoint == null) {
+            log.debug("Score reconciliation of {} targets is running on another instance", targetType);
+            return;
+        }
+        // Repaired last, so the target rows are only locked for the end of the transaction
+        Map<Long, Long> corrections = confirmSuspects(state);
+
+        Long rangeEnd = repository.findRangeEnd(targetType, checkpoint,
+                Math.multiplyExact(properties.chunkSize(), properties.chunksPerRun()));
+        if (rangeEnd == null) {
+            repository.saveCheckpoint(targetType, 0, true);
+            state.checkpoint.set(0);
+            state.passes.increment();
+            log.debug("Score reconciliation pass over {} targets completed", targetType);
+        } else {
+            Map<Long, Long> found = pool.invoke(new RangeCheck(targetType, checkpoint + 1, rangeEnd));
+            state.suspects.putAll(found);
+            state.suspectsFound.increment(found.size());
+
+            repository.saveCheckpoint(targetType, rangeEnd, false);
+            state.checkpoint.set(rangeEnd);
+            state.maxId.set(repository.findMaxId(targetType));
+        }
+
+        repair(state, corrections);
+    }
+
+    /**
+     * Check the suspects of the previous run again and return the corrections of the ones whose
+     * difference did not change. Suspects whose difference changed stay suspects for one more run.
+     */
+    private Map<Long, Long> confirmSuspects(TypeState state) {
+        if (state.suspects.isEmpty()) {
+            return Map.of();
+        }
+        VoteTargetType targetType = state.targetType;
+        List<Long> ids = new ArrayList<>(state.suspects.keySet());
+        Map<Long, Long> corrections = new LinkedHashMap<>();
+        Map<Long, Long> stillSuspect = new HashMap<>();
+
+        for (int from = 0; from < ids.size(); from += properties.chunkSize()) {
+            List<Long> chunk = ids.subList(from, Math.min(from + properties.chunkSize(), ids.size()));
+            for (ScoreMismatch mismatch : repository.findMismatches(targetType, chunk)) {
+                long difference = difference(targetType, mismatch);
+                if (difference == 0) {
+                    continue;
+                }
+                if (state.suspects.get(mismatch.targetId()) == difference) {
+                    corrections.put(mismatch.targetId(), difference);
+                } else {
+                    stillSuspect.put(mismatch.targetId(), difference);
+                }
+            }
+        }
+
+        state.suspects.clear();
+        state.suspects.putAll(stillSuspect);
+        return corrections;
+    }
+
+    private void repair(TypeState state, Map<Long, Long> corrections) {
+        if (corrections.isEmpty()) {
+            return;
+        }
+        int repaired = 0;
+        Map<Long, Long> batch = new LinkedHashMap<>();
+        for (Map.Entry<Long, Long> correction : corrections.entrySet()) {
+            batch.put(correction.getKey(), correction.getValue());
+            if (batch.size() == properties.repairBatchSize()) {
+                repaired += repairBatch(state, batch);
+                batch.clear();
+            }
+        }
+        repaired += repairBatch(state, batch);
+        log.info("Repaired {} drifted {} scores", repaired, state.targetType);
+    }
+
+    /**
+     * Lock the rows of a batch and correct the ones whose difference is still the confirmed one.
+     * A difference that changed since it was confirmed makes the target a suspect again.
+     */
+    private int repairBatch(TypeState state, Map<Long, Long> batch) {
+        VoteTargetType targetType = state.targetType;
+        repository.lockTargets(targetType, batch.keySet());
+        Map<Long, Long> corrections = new LinkedHashMap<>();
+        for (ScoreMismatch mismatch : repository.findMismatches(targetType, batch.keySet())) {
+            long difference = difference(targetType, mismatch);
+            if (batch.get(mismatch.targetId()) == difference) {
+                corrections.put(mismatch.targetId(), difference);
+            } else if (difference != 0) {
+                state.suspects.put(mismatch.targetId(), difference);
+            }
+        }
+        repository.addScoreCorrections(targetType, corrections);
+        state.repaired.increment(corrections.size());
+        return corrections.size();
+    }
+
+    private long difference(VoteTargetType targetType, ScoreMismatch mismatch) {
+        return mismatch.actualScore() - mismatch.storedScore()
+                - scoreAggregator.pendingDelta(targetType, mismatch.targetId());
+    }
+
+    /**
+     * Checks a range of target ids, splitting it in halves until it fits in one chunk.
+     * Returns the differences of the mismatching targets.
+     */
+    private class RangeCheck extends RecursiveTask<Map<Long, Long>> {
+
+        private final VoteTargetType targetType;
+        private final long fromId;
+        private final long toId;
+
+        RangeCheck(VoteTargetType targetType, long fromId, long toId) {
+            this.targetType = targetType;
+            this.fromId = fromId;
+            this.toId = toId;
+        }
+
+        @Override
+        protected Map<Long, Long> compute() {
+            if (toId - fromId < properties.chunkSize()) {
+                Map<Long, Long> differences = new HashMap<>();
+                for (ScoreMismatch mismatch : repository.findMismatches(targetType, fromId, toId)) {
+                    long difference = difference(targetType, mismatch);
+                    if (difference != 0) {
+                        differences.put(mismatch.targetId(), difference);
+                    }
+                }
+                return differences;
+            }
+
+            long middle = fromId + (toId - fromId) / 2;
+            RangeCheck upper = new RangeCheck(targetType, middle + 1, toId);
+            upper.fork();
+            Map<Long, Long> differences = new RangeCheck(targetType, fromId, middle).compute();
+            differences.putAll(upper.join());
+            return differences;
+        }
+    }
+
+    /**
+     * Checkpoint, suspects and meters of one target type.
+     */
+    private static final class TypeState {
+
+        private final VoteTargetType targetType;
+        private final Map<Long, Long> suspects = new ConcurrentHashMap<>();
+        private final AtomicLong checkpoint = new AtomicLong();
+        private final AtomicLong maxId = new AtomicLong();
+        private final Counter suspectsFound;
+        private final Counter repaired;
+        private final Counter passes;
+        private final Timer runTimer;
+
+        TypeState(VoteTargetType targetType, MeterRegistry registry) {
+            this.targetType = targetType;
+            String type = targetType.name().toLowerCase();
+
+            this.suspectsFound = Counter.builder(METRIC_PREFIX + "suspects")
+                    .description("Targets found with a score that differs from their votes")
+                    .tag("type", type)
+                    .register(registry);
+            this.repaired = Counter.builder(METRIC_PREFIX + "repaired")
+                    .description("Drifted scores confirmed and repaired")
+                    .tag("type", type)
+                    .register(registry);
+            this.passes = Counter.builder(METRIC_PREFIX + "passes")
+                    .description("Completed passes over all targets")
+                    .tag("type", type)
+                    .register(registry);
+            this.runTimer = Timer.builder(METRIC_PREFIX + "run")
+                    .description("Duration of one reconciliation run")
+                    .tag("type", type)
+                    .register(registry);
+            Gauge.builder(METRIC_PREFIX + "checkpoint", checkpoint, AtomicLong::get)
+                    .description("Last target id checked in the current pass")
+                    .tag("type", type)
+                    .register(registry);
+            Gauge.builder(METRIC_PREFIX + "progress", this, TypeState::progress)
+                    .description("Fraction of the id space checked in the current pass")
+                    .tag("type", type)
+                    .register(registry);
+            Gauge.builder(METRIC_PREFIX + "pending.suspects", suspects, Map::size)
+                    .description("Suspects waiting for confirmation")
+                    .tag("type", type)
+                    .register(registry);
+        }
+
+        private double progress() {
+            long max = maxId.get();
+            return max > 0 ? Math.min(1.0, (double) checkpoint.get() / max) : 0.0;
+        }
+    }
+}
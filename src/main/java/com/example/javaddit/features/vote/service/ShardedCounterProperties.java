@@ -0,0 +1,26 @@
+package com.example.javaddit.features.vote.service;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Tuning for {@link ShardedCounterService}.
+ *
+ * @param enabled              whether hot targets may be switched to sharded counters
+ * @param shards               number of counter rows per sharded target
+ * @param heatThreshold        mutations per heat window that switch a target to sharded mode;
+ *                             a sharded target falling below a quarter of it is switched back
+ * @param heatWindowMs         length of the window in which target activity is counted
+ * @param compactionIntervalMs delay between two compactions of the shard tables
+ */
+@ConfigurationProperties(prefix = "app.votes.sharded-counters")
+@Validated
+public record ShardedCounterProperties(
+        boolean enabled,
+        @Positive int shards,
+        @Positive int heatThreshold,
+        @Positive long heatWindowMs,
+        @Positive long compactionIntervalMs
+) {
+}
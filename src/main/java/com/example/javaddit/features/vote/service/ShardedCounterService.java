@@ -0,0 +1,209 @@
+package com.example.javaddit.features.vote.service;
+
+import com.example.javaddit.features.vote.entity.VoteTargetType;
+import com.example.javaddit.features.vote.repository.CounterShardRepository;
+import com.example.javaddit.features.vote.repository.CounterShardRepository.ShardDelta;
+import com.example.javaddit.features.vote.repository.CounterShardTotals;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sharded counter mode for hot posts and comments.
+ * <p>
+ * A target whose activity (vote mutations, and new comments for posts) crosses
+ * {@code heat-threshold} within one heat window is switched to sharded mode: its score deltas
+ * (and, through the V6 trigger, its comments count changes) go to one of N random rows of
+ * {@code post_counters}/{@code comment_counters} instead of the single target row. Reads add the
+ * shard sums, and a periodic compaction folds the shards back into {@code score} and
+ * {@code comments_count}. Targets that cool down are switched back.
+ * <p>
+ * The set of sharded targets is cached in memory and refreshed from the database every heat
+ * window, so instances converge on the same set. A sharded target without any mutation on this
+ * instance during a window counts as cold, whichever instance sharded it.
+ */
+@Service
+@Slf4j
+public class ShardedCounterService {
+
+    private final CounterShardRepository counterShardRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardedCounterProperties properties;
+
+    private final Set<Long> shardedPosts = ConcurrentHashMap.newKeySet();
+    private final Set<Long> shardedComments = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<Long, LongAdder> postHeat = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, LongAdder> commentHeat = new ConcurrentHashMap<>();
+
+    public ShardedCounterService(CounterShardRepository counterShardRepository,
+                                 TransactionTemplate transactionTemplate,
+                                 ShardedCounterProperties properties) {
+        this.counterShardRepository = counterShardRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+    }
+
+    /**
+     * Count one mutation of a target towards its heat.
+     */
+    public void recordActivity(VoteTargetType targetType, long targetId) {
+        if (properties.enabled()) {
+            heat(targetType).computeIfAbsent(targetId, id -> new LongAdder()).increment();
+        }
+    }
+
+    public boolean isSharded(VoteTargetType targetType, long targetId) {
+        return sharded(targetType).contains(targetId);
+    }
+
+    /**
+     * Build shard rows for score deltas of sharded targets, each on a random shard.
+     */
+    public ShardDelta toShardDelta(long targetId, long delta) {
+        return new ShardDelta(targetId, ThreadLocalRandom.current().nextInt(properties.shards()), delta);
+    }
+
+    /**
+     * Pending shard sums of the given targets. Only targets in sharded mode are queried, so
+     * nothing hits the database unless one of them is hot.
+     */
+    public Map<Long, CounterShardTotals> findTotals(VoteTargetType targetType, Collection<Long> targetIds) {
+        Set<Long> sharded = sharded(targetType);
+        if (sharded.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> shardedIds = targetIds.stream().filter(sharded::contains).toList();
+        return shardedIds.isEmpty() ? Map.of() : counterShardRepository.findTotals(targetType, shardedIds);
+    }
+
+    /**
+     * Pending shard score sum of a single target.
+     */
+    public int findScoreDelta(VoteTargetType targetType, long targetId) {
+        if (!isSharded(targetType, targetId)) {
+            return 0;
+        }
+        return counterShardRepository.findTotals(targetType, List.of(targetId))
+                .getOrDefault(targetId, CounterShardTotals.EMPTY)
+                .scoreDelta();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadShardedTargets() {
+        try {
+            refreshShardedTargets(VoteTargetType.POST);
+            refreshShardedTargets(VoteTargetType.COMMENT);
+        } catch (DataAccessException ex) {
+            log.warn("Could not load sharded counter targets: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Switch targets between plain and sharded mode according to their heat in the last window,
+     * then pick up switches made by other instances.
+     */
+    @Scheduled(fixedDelayString = "${app.votes.sharded-counters.heat-window-ms}")
+    public void evaluateHeat() {
+        if (!properties.enabled()) {
+            return;
+        }
+        try {
+            evaluateHeat(VoteTargetType.POST);
+            evaluateHeat(VoteTargetType.COMMENT);
+        } catch (DataAccessException ex) {
+            log.warn("Sharded counter heat evaluation failed: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Fold all counter shards back into their target rows.
+     */
+    @Scheduled(fixedDelayString = "${app.votes.sharded-counters.compaction-interval-ms}")
+    public void compact() {
+        if (!properties.enabled() && shardedPosts.isEmpty() && shardedComments.isEmpty()) {
+            return;
+        }
+        try {
+            int posts = compact(VoteTargetType.POST);
+            int comments = compact(VoteTargetType.COMMENT);
+            if (posts > 0 || comments > 0) {
+                log.debug("Compacted counter shards of {} posts and {} comments", posts, comments);
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Counter shard compaction failed: {}", ex.getMessage());
+        }
+    }
+
+    private void evaluateHeat(VoteTargetType targetType) {
+        Map<Long, LongAdder> heat = heat(targetType);
+        Set<Long> sharded = sharded(targetType);
+        List<Long> promote = new ArrayList<>();
+        Set<Long> demote = new HashSet<>();
+
+        // Sharded by another instance or before a restart, and not mutated here for a whole window
+        for (Long targetId : sharded) {
+            if (!heat.containsKey(targetId)) {
+                demote.add(targetId);
+            }
+        }
+        for (Map.Entry<Long, LongAdder> entry : heat.entrySet()) {
+            long mutations = entry.getValue().sumThenReset();
+            if (mutations == 0) {
+                heat.remove(entry.getKey(), entry.getValue());
+            }
+            boolean isSharded = sharded.contains(entry.getKey());
+            if (!isSharded && mutations >= properties.heatThreshold()) {
+                promote.add(entry.getKey());
+            } else if (isSharded && mutations < properties.heatThreshold() / 4) {
+                demote.add(entry.getKey());
+            }
+        }
+
+        if (!promote.isEmpty() || !demote.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> {
+                counterShardRepository.setShards(targetType, promote, properties.shards());
+                counterShardRepository.setShards(targetType, demote, 0);
+            });
+            log.info("Sharded counters for {}: {} promoted, {} demoted", targetType, promote.size(), demote.size());
+        }
+
+        refreshShardedTargets(targetType);
+        if (!demote.isEmpty()) {
+            compact(targetType);
+        }
+    }
+
+    private void refreshShardedTargets(VoteTargetType targetType) {
+        Set<Long> current = counterShardRepository.findShardedTargetIds(targetType);
+        Set<Long> sharded = sharded(targetType);
+        sharded.addAll(current);
+        sharded.retainAll(current);
+    }
+
+    private int compact(VoteTargetType targetType) {
+        Integer updated = transactionTemplate.execute(status -> counterShardRepository.compact(targetType));
+        return updated != null ? updated : 0;
+    }
+
+    private Set<Long> sharded(VoteTargetType targetType) {
+        return targetType == VoteTargetType.POST ? shardedPosts : shardedComments;
+    }
+
+    private Map<Long, LongAdder> heat(VoteTargetType targetType) {
+        return targetType == VoteTargetType.POST ? postHeat : commentHeat;
+    }
+}
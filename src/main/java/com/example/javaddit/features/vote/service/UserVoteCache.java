@@ -0,0 +1,223 @@
+package com.example.javaddit.features.vote.service;
+
+import com.example.javaddit.core.util.TransactionCallbacks;
+import com.example.javaddit.features.vote.entity.VoteTargetType;
+import com.example.javaddit.features.vote.entity.VoteType;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-user cache of "how did I vote" state used to render feeds and threads.
+ * <p>
+ * Known votes of a user are kept per target type as a sorted {@code long[]} of target ids with a
+ * parallel {@code byte[]} of values (1 upvote, -1 downvote, 0 known to have no vote): about nine
+ * bytes per entry instead of a boxed key, a boxed value and a map node. Tables are immutable and
+ * replaced on write, so lookups never lock.
+ * <p>
+ * Coherence: every write through {@link VoteService} calls {@link #recordVote}, which applies after
+ * commit. Read-through loads take a {@link #version} before querying the database and
+ * {@link #fill} drops their result if a vote of that user (stripe) committed in between, so a slow
+ * load can never overwrite a newer vote.
+ */
+@Component
+public class UserVoteCache {
+
+    private static final int VERSION_STRIPES = 1024;
+    private static final byte NO_VOTE = 0;
+
+    private final UserVoteCacheProperties properties;
+    private final ConcurrentHashMap<Long, UserVotes> users = new ConcurrentHashMap<>();
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    public UserVoteCache(UserVoteCacheProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Version to pass to {@link #fill} for a load started now.
+     */
+    public long version(long userId) {
+        return versions.get(stripe(userId));
+    }
+
+    /**
+     * Copy the cached votes for the given targets into {@code votes}, leaving out targets the user
+     * did not vote on, and return the targets that are not cached yet.
+     */
+    public List<Long> collect(long userId, VoteTargetType targetType, Collection<Long> targetIds,
+                              Map<Long, VoteType> votes) {
+        UserVotes user = users.get(userId);
+        if (user == null) {
+            return new ArrayList<>(targetIds);
+        }
+        user.lastAccess = System.nanoTime();
+
+        VoteTable table = user.table(targetType);
+        List<Long> missing = new ArrayList<>();
+        for (Long targetId : targetIds) {
+            int index = table.indexOf(targetId);
+            if (index < 0) {
+                missing.add(targetId);
+            } else if (table.values[index] != NO_VOTE) {
+                votes.put(targetId, toVoteType(table.values[index]));
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Cache the result of a database load. Targets of {@code targetIds} that are absent from
+     * {@code loaded} are cached as having no vote.
+     */
+    public void fill(long userId, long version, VoteTargetType targetType, Collection<Long> targetIds,
+                     Map<Long, VoteType> loaded) {
+        if (targetIds.isEmpty()) {
+            return;
+        }
+        long[] ids = targetIds.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+        byte[] values = new byte[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            values[i] = (byte) VoteType.scoreOf(loaded.get(ids[i]));
+        }
+
+        UserVotes user = users.computeIfAbsent(userId, id -> new UserVotes());
+        user.lastAccess = System.nanoTime();
+        synchronized (user) {
+            if (versions.get(stripe(userId)) != version) {
+                return;
+            }
+            user.setTable(targetType, user.table(targetType).merge(ids, values, properties.maxEntriesPerUser()));
+        }
+        evictIfNeeded();
+    }
+
+    /**
+     * Record the vote state of a target after a write, null meaning the vote was removed.
+     * Inside a transaction it is applied after commit.
+     */
+    public void recordVote(long userId, VoteTargetType targetType, long targetId, VoteType voteType) {
+        TransactionCallbacks.afterCommit(() -> applyVote(userId, targetType, targetId, voteType));
+    }
+
+    private void applyVote(long userId, VoteTargetType targetType, long targetId, VoteType voteType) {
+        versions.incrementAndGet(stripe(userId));
+
+        UserVotes user = users.get(userId);
+        if (user == null) {
+            return;
+        }
+        synchronized (user) {
+            VoteTable table = user.table(targetType);
+            user.setTable(targetType, table.merge(new long[]{targetId},
+                    new byte[]{(byte) VoteType.scoreOf(voteType)}, properties.maxEntriesPerUser()));
+        }
+    }
+
+    /**
+     * Drop the least recently used tenth of the users once the cache is over its bound.
+     */
+    private void evictIfNeeded() {
+        int size = users.size();
+        if (size <= properties.maxUsers() || !evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            long[] accessTimes = users.values().stream().mapToLong(user -> user.lastAccess).sorted().toArray();
+            int toEvict = Math.min(accessTimes.length, accessTimes.length - properties.maxUsers() * 9 / 10);
+            if (toEvict <= 0) {
+                return;
+            }
+            long cutoff = accessTimes[toEvict - 1];
+            users.values().removeIf(user -> user.lastAccess <= cutoff);
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static int stripe(long userId) {
+        return (int) ((userId ^ (userId >>> 32)) & (VERSION_STRIPES - 1));
+    }
+
+    private static VoteType toVoteType(byte value) {
+        if (value == NO_VOTE) {
+            return null;
+        }
+        return value > 0 ? VoteType.UPVOTE : VoteType.DOWNVOTE;
+    }
+
+    private static final class UserVotes {
+        private volatile VoteTable posts = VoteTable.EMPTY;
+        private volatile VoteTable comments = VoteTable.EMPTY;
+        private volatile long lastAccess;
+
+        private VoteTable table(VoteTargetType targetType) {
+            return targetType == VoteTargetType.POST ? posts : comments;
+        }
+
+        private void setTable(VoteTargetType targetType, VoteTable table) {
+            if (targetType == VoteTargetType.POST) {
+                posts = table;
+            } else {
+                comments = table;
+            }
+        }
+    }
+
+    /**
+     * Immutable sorted id to vote value table.
+     */
+    private static final class VoteTable {
+        private static final VoteTable EMPTY = new VoteTable(new long[0], new byte[0]);
+
+        private final long[] ids;
+        private final byte[] values;
+
+        private VoteTable(long[] ids, byte[] values) {
+            this.ids = ids;
+            this.values = values;
+        }
+
+        private int indexOf(long targetId) {
+            return Arrays.binarySearch(ids, targetId);
+        }
+
+        /**
+         * Merge sorted entries into a new table, the new values winning. When the result would
+         * exceed {@code maxEntries} only the new entries are kept, since they are the freshest.
+         */
+        private VoteTable merge(long[] newIds, byte[] newValues, int maxEntries) {
+            long[] mergedIds = new long[ids.length + newIds.length];
+            byte[] mergedValues = new byte[mergedIds.length];
+            int i = 0;
+            int j = 0;
+            int n = 0;
+            while (i < ids.length || j < newIds.length) {
+                if (j == newIds.length || (i < ids.length && ids[i] < newIds[j])) {
+                    mergedIds[n] = ids[i];
+                    mergedValues[n++] = values[i++];
+                } else {
+                    if (i < ids.length && ids[i] == newIds[j]) {
+                        i++;
+                    }
+                    mergedIds[n] = newIds[j];
+                    mergedValues[n++] = newValues[j++];
+                }
+            }
+
+            if (n > maxEntries) {
+                int keep = Math.min(newIds.length, maxEntries);
+                return new VoteTable(Arrays.copyOf(newIds, keep), Arrays.copyOf(newValues, keep));
+            }
+            return new VoteTable(Arrays.copyOf(mergedIds, n), Arrays.copyOf(mergedValues, n));
+        }
+    }
+}
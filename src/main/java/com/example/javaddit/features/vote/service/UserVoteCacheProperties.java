@@ -0,0 +1,19 @@
+package com.example.javaddit.features.vote.service;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Bounds for {@link UserVoteCache}.
+ *
+ * @param maxUsers           number of users whose votes are cached at most
+ * @param maxEntriesPerUser  number of cached targets per user and target type at most
+ */
+@ConfigurationProperties(prefix = "app.votes.user-cache")
+@Validated
+public record UserVoteCacheProperties(
+        @Positive int maxUsers,
+        @Positive int maxEntriesPerUser
+) {
+}
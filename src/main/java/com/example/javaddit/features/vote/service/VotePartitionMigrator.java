@@ -0,0 +1,62 @@
+package com.example.javaddit.features.vote.service;
+
+import com.example.javaddit.features.vote.entity.VoteTargetType;
+import com.example.javaddit.features.vote.repository.VotePartitionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Migrates {@code post_votes} and {@code comment_votes} to hash partitioning on user id while the
+ * application keeps serving votes, one small batch per tick (see V10 for the mechanics).
+ * <p>
+ * Every step is idempotent and serialized in the database, so the migrator can be enabled on
+ * several instances and survives restarts; progress lives in {@code vote_partition_migration}.
+ * Writes cost twice as much while a table is being copied because of the mirror trigger.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VotePartitionMigrator {
+
+    private final VotePartitionRepository repository;
+    private final VotePartitioningProperties properties;
+
+    private final Set<VoteTargetType> finished = EnumSet.noneOf(VoteTargetType.class);
+
+    @Scheduled(fixedDelayString = "${app.votes.partitioning.interval-ms}")
+    public void migrate() {
+        if (!properties.migrate() || finished.size() == VoteTargetType.values().length) {
+            return;
+        }
+        try {
+            for (VoteTargetType targetType : VoteTargetType.values()) {
+                if (!finished.contains(targetType)) {
+                    step(targetType);
+                }
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Vote partition migration step failed, retrying: {}", ex.getMessage());
+        }
+    }
+
+    private void step(VoteTargetType targetType) {
+        if (repository.isPartitioned(targetType)) {
+            finished.add(targetType);
+            return;
+        }
+        if (repository.prepare(targetType, properties.partitions())) {
+            log.info("Started partitioning of {} votes into {} partitions", targetType, properties.partitions());
+            return;
+        }
+        if (repository.copyBatch(targetType, properties.batchSize()) == 0 && repository.finish(targetType)) {
+            log.info("{} votes are now hash partitioned", targetType);
+            finished.add(targetType);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.javaddit.features.vote.service;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Settings of the {@link VotePartitionMigrator}.
+ *
+ * @param migrate    whether this instance migrates the vote tables to hash partitioning
+ * @param partitions number of hash partitions (on user id) per vote table
+ * @param batchSize  rows copied per batch
+ * @param intervalMs delay between two batches, to bound the load on the database
+ */
+@ConfigurationProperties(prefix = "app.votes.partitioning")
+@Validated
+public record VotePartitioningProperties(
+        boolean migrate,
+        @Positive int partitions,
+        @Positive int batchSize,
+        @Positive long intervalMs
+) {
+}
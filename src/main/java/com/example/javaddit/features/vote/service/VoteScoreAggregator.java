@@ -0,0 +1,264 @@
+package com.example.javaddit.features.vote.service;
+
+import com.example.javaddit.core.util.TransactionCallbacks;
+import com.example.javaddit.features.vote.entity.VoteTargetType;
+import com.example.javaddit.features.vote.repository.CounterShardRepository;
+import com.example.javaddit.features.vote.repository.CounterShardRepository.ShardDelta;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for post and comment scores.
+ * <p>
+ * Vote mutations record their score delta here once their transaction commits, instead of
+ * rewriting the hot {@code posts}/{@code comments} row inline. Deltas are accumulated in
+ * striped {@link LongAdder} counters per target id, so concurrent voters on the same target
+ * never wait on each other, and are applied with batched {@code score = score + ?} updates
+ * by a periodic flush, or earlier once {@code flush-threshold} mutations are buffered.
+ * Readers get the merged "persisted + pending" view through {@link #mergedScore}. Deltas of targets
+ * in sharded mode go to their counter shards instead (see {@link ShardedCounterService}).
+ * <p>
+ * Crash semantics: {@code votes} rows are still written synchronously and stay the source of
+ * truth; only the denormalized score lags, by at most one flush interval. A failed flush puts
+ * its deltas back and they are retried on the next run, and a graceful shutdown flushes
+ * everything that is pending. Deltas still buffered when the process dies are lost from
+ * {@code score} (never from {@code votes}), so after a crash the affected scores have to be
+ * recomputed from {@code votes}.
+ */
+@Component
+@Slf4j
+public class VoteScoreAggregator {
+
+    private static final String POST_SCORE_SQL = "UPDATE posts SET score = score + ? WHERE id = ?";
+    private static final String COMMENT_SCORE_SQL = "UPDATE comments SET score = score + ? WHERE id = ?";
+
+    /**
+     * Number of consecutive empty flushes after which an idle target entry is dropped.
+     */
+    private static final int IDLE_FLUSHES_BEFORE_EVICTION = 2;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CounterShardRepository counterShardRepository;
+    private final ShardedCounterService shardedCounters;
+    private final VoteWriteBehindProperties properties;
+
+    private final ConcurrentHashMap<Long, PendingScore> postScores = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, PendingScore> commentScores = new ConcurrentHashMap<>();
+
+    private final LongAdder bufferedSinceFlush = new LongAdder();
+    private final AtomicBoolean earlyFlushScheduled = new AtomicBoolean();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ExecutorService earlyFlushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "vote-score-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public VoteScoreAggregator(JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               CounterShardRepository counterShardRepository,
+                               ShardedCounterService shardedCounters,
+                               VoteWriteBehindProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.counterShardRepository = counterShardRepository;
+        this.shardedCounters = shardedCounters;
+        this.properties = properties;
+    }
+
+    /**
+     * Buffer a score delta for a target. Inside a transaction the delta only becomes visible
+     * after commit, so rolled back votes never reach the score.
+     */
+    public void recordDelta(VoteTargetType targetType, long targetId, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> buffer(targetType, targetId, delta));
+    }
+
+    /**
+     * Delta that is recorded for a target but not yet committed to its score column.
+     */
+    public long pendingDelta(VoteTargetType targetType, long targetId) {
+        PendingScore pending = scores(targetType).get(targetId);
+        return pending != null ? pending.delta.sum() + pending.inFlight.get() : 0;
+    }
+
+    /**
+     * Score as readers should see it: the persisted column plus everything still buffered.
+     */
+    public int mergedScore(VoteTargetType targetType, long targetId, int persistedScore) {
+        return (int) (persistedScore + pendingDelta(targetType, targetId));
+    }
+
+    /**
+     * Apply all buffered deltas to the database.
+     */
+    @Scheduled(fixedDelayString = "${app.votes.write-behind.flush-interval-ms}")
+    public void flush() {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            flushAll();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Flush whatever is still pending before the datasource goes away.
+     */
+    @PreDestroy
+    public void shutdown() {
+        earlyFlushExecutor.shutdownNow();
+        flushLock.lock();
+        try {
+            flushAll();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushAll() {
+        earlyFlushScheduled.set(false);
+        bufferedSinceFlush.reset();
+        flushScores(VoteTargetType.POST);
+        flushScores(VoteTargetType.COMMENT);
+    }
+
+    private void buffer(VoteTargetType targetType, long targetId, long delta) {
+        addToLiveEntry(scores(targetType), targetId, delta);
+        shardedCounters.recordActivity(targetType, targetId);
+
+        bufferedSinceFlush.increment();
+        if (bufferedSinceFlush.sum() >= properties.flushThreshold()
+                && earlyFlushScheduled.compareAndSet(false, true)) {
+            earlyFlushExecutor.execute(this::flush);
+        }
+    }
+
+    /**
+     * Add a delta to the entry currently mapped for the target. An entry evicted concurrently
+     * by the flusher hands its remainder over to the live entry; {@link LongAdder#sumThenReset()}
+     * drains every cell atomically, so each unit is moved exactly once.
+     */
+    private void addToLiveEntry(ConcurrentHashMap<Long, PendingScore> scores, long targetId, long delta) {
+        PendingScore pending = scores.computeIfAbsent(targetId, id -> new PendingScore());
+        pending.delta.add(delta);
+
+        while (scores.get(targetId) != pending) {
+            long orphaned = pending.delta.sumThenReset();
+            if (orphaned == 0) {
+                break;
+            }
+            pending = scores.computeIfAbsent(targetId, id -> new PendingScore());
+            pending.delta.add(orphaned);
+        }
+    }
+
+    private void flushScores(VoteTargetType targetType) {
+        ConcurrentHashMap<Long, PendingScore> scores = scores(targetType);
+        List<DrainedDelta> batch = new ArrayList<>(Math.min(properties.maxBatchSize(), scores.size()));
+
+        for (Map.Entry<Long, PendingScore> entry : scores.entrySet()) {
+            PendingScore pending = entry.getValue();
+            long delta = pending.delta.sumThenReset();
+
+            if (delta == 0) {
+                if (pending.inFlight.get() == 0 && ++pending.idleFlushes >= IDLE_FLUSHES_BEFORE_EVICTION) {
+                    evict(scores, entry.getKey(), pending);
+                }
+                continue;
+            }
+
+            pending.idleFlushes = 0;
+            pending.inFlight.addAndGet(delta);
+            batch.add(new DrainedDelta(entry.getKey(), pending, delta));
+
+            if (batch.size() >= properties.maxBatchSize()) {
+                writeBatch(targetType, scores, batch);
+                batch.clear();
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            writeBatch(targetType, scores, batch);
+        }
+    }
+
+    private void writeBatch(VoteTargetType targetType,
+                            ConcurrentHashMap<Long, PendingScore> scores,
+                            List<DrainedDelta> batch) {
+        String sql = targetType == VoteTargetType.POST ? POST_SCORE_SQL : COMMENT_SCORE_SQL;
+        List<Object[]> args = new ArrayList<>(batch.size());
+        List<ShardDelta> shardDeltas = new ArrayList<>();
+        for (DrainedDelta drained : batch) {
+            if (shardedCounters.isSharded(targetType, drained.targetId())) {
+                shardDeltas.add(shardedCounters.toShardDelta(drained.targetId(), drained.delta()));
+            } else {
+                args.add(new Object[]{drained.delta(), drained.targetId()});
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!args.isEmpty()) {
+                    jdbcTemplate.batchUpdate(sql, args);
+                }
+                counterShardRepository.addScoreDeltas(targetType, shardDeltas);
+            });
+            for (DrainedDelta drained : batch) {
+                drained.pending().inFlight.addAndGet(-drained.delta());
+            }
+        } catch (DataAccessException | TransactionException ex) {
+            log.warn("Failed to flush {} {} score deltas, retrying on next flush: {}",
+                    batch.size(), targetType, ex.getMessage());
+            for (DrainedDelta drained : batch) {
+                addToLiveEntry(scores, drained.targetId(), drained.delta());
+                drained.pending().inFlight.addAndGet(-drained.delta());
+            }
+        }
+    }
+
+    private void evict(ConcurrentHashMap<Long, PendingScore> scores, long targetId, PendingScore pending) {
+        if (scores.remove(targetId, pending)) {
+            long late = pending.delta.sumThenReset();
+            if (late != 0) {
+                addToLiveEntry(scores, targetId, late);
+            }
+        }
+    }
+
+    private ConcurrentHashMap<Long, PendingScore> scores(VoteTargetType targetType) {
+        return targetType == VoteTargetType.POST ? postScores : commentScores;
+    }
+
+    private static final class PendingScore {
+        private final LongAdder delta = new LongAdder();
+        private final AtomicLong inFlight = new AtomicLong();
+        private int idleFlushes;
+    }
+
+    private record DrainedDelta(long targetId, PendingScore pending, long delta) {
+    }
+}
@@ -2,34 +2,64 @@
 
 import com.example.javaddit.core.exception.NotFoundException;
 import com.example.javaddit.core.exception.ValidationException;
-import com.example.javaddit.features.comment.entity.Comment;
-import com.example.javaddit.features.comment.repository.CommentRepository;
-import com.example.javaddit.features.post.entity.Post;
-import com.example.javaddit.features.post.repository.PostRepository;
-import com.example.javaddit.features.user.entity.User;
-import com.example.javaddit.features.user.repository.UserRepository;
+import com.example.javaddit.features.community.trending.TrendingCommunities;
+import com.example.javaddit.features.post.ranking.HotRankingService;
+import com.example.javaddit.features.post.ranking.RisingRankingService;
+import com.example.javaddit.features.post.ranking.TopRankingService;
+import com.example.javaddit.features.post.service.CommunityFeedCache;
+import com.example.javaddit.features.vote.dto.BatchVoteItem;
+import com.example.javaddit.features.vote.dto.BatchVoteItemResponse;
+import com.example.javaddit.features.vote.dto.BatchVoteResponse;
 import com.example.javaddit.features.vote.dto.VoteResponse;
-import com.example.javaddit.features.vote.entity.Vote;
+import com.example.javaddit.features.vote.dto.VoteScoreResponse;
+import com.example.javaddit.features.vote.entity.VoteTargetType;
 import com.example.javaddit.features.vote.entity.VoteType;
-import com.example.javaddit.features.vote.repository.VoteRepository;
+import com.example.javaddit.features.vote.journal.VoteJournal;
+import com.example.javaddit.features.vote.repository.CommentVoteRepository;
+import com.example.javaddit.features.vote.repository.PostVoteRepository;
+import com.example.javaddit.features.vote.repository.VoteBatchRepository;
+import com.example.javaddit.features.vote.repository.VoteMutationResult;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Objects;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Supplier;
 
 /**
  * Service for handling vote operations on posts and comments.
+ * Every mutation is a single SQL statement (see {@link PostVoteRepository}). Score changes are not
+ * written here; they are handed to {@link VoteScoreAggregator} as deltas and the returned score
+ * is the merged "persisted + pending" view; post vote changes also feed the
+ * {@link HotRankingService}, {@link TopRankingService} and {@link RisingRankingService}. Every
+ * accepted mutation is also appended to the {@link VoteJournal}.
  */
 @Service
 @RequiredArgsConstructor
 public class VoteService {
 
-    private final VoteRepository voteRepository;
-    private final PostRepository postRepository;
-    private final CommentRepository commentRepository;
-    private final UserRepository userRepository;
+    private final PostVoteRepository postVoteRepository;
+    private final CommentVoteRepository commentVoteRepository;
+    private final VoteBatchRepository voteBatchRepository;
+    private final VoteScoreAggregator scoreAggregator;
+    private final UserVoteCache userVoteCache;
+    private final ShardedCounterService shardedCounters;
+    private final VoteJournal voteJournal;
+    private final HotRankingService hotRanking;
+    private final TopRankingService topRanking;
+    private final RisingRankingService risingRanking;
+    private final CommunityFeedCache communityFeedCache;
+    private final TrendingCommunities trendingCommunities;
 
     /**
      * Vote on a post. If the user already voted with the same type, remove the vote
@@ -46,47 +76,11 @@ public VoteResponse voteOnPost(Long userId, Long postId, VoteType voteType) {
             throw new ValidationException("User ID cannot be null");
         }
 
-        Post post = postRepository.findById(postId)
+        VoteMutationResult result = postVoteRepository.toggleVote(userId, postId, voteType.getValue())
                 .orElseThrow(() -> new NotFoundException("Post not found: " + postId));
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User not found: " + userId));
-
-        Optional<Vote> existingVote = voteRepository.findByUserIdAndPostId(userId, postId);
-
-        VoteType resultVoteType;
-        String message;
-
-        if (existingVote.isPresent()) {
-            Vote vote = existingVote.get();
-
-            if (vote.getVoteType() == voteType) {
-                voteRepository.delete(vote);
-                resultVoteType = null;
-                message = "Vote removed";
-            } else {
-                vote.setVoteType(voteType);
-                voteRepository.save(vote);
-                resultVoteType = voteType;
-                message = "Vote updated";
-            }
-        } else {
-            Vote newVote = new Vote();
-            newVote.setUser(user);
-            newVote.setPost(post);
-            newVote.setVoteType(voteType);
-            voteRepository.save(newVote);
-            resultVoteType = voteType;
-            message = "Vote recorded";
-        }
-
-        voteRepository.flush();
-        Integer score = postRepository.findScoreById(postId);
-        if (score == null) {
-            throw new IllegalStateException("Post not found after voting");
-        }
-
-        return new VoteResponse(message, score, resultVoteType);
+        return applyToggle(userId, VoteTargetType.POST, postId, voteType, result,
+                () -> postVoteRepository.findVoteTypeByUserIdAndPostId(userId, postId));
     }
 
     /**
@@ -104,47 +98,11 @@ public VoteResponse voteOnComment(Long userId, Long commentId, VoteType voteType
             throw new ValidationException("User ID cannot be null");
         }
 
-        Comment comment = commentRepository.findById(commentId)
+        VoteMutationResult result = commentVoteRepository.toggleVote(userId, commentId, voteType.getValue())
                 .orElseThrow(() -> new NotFoundException("Comment not found: " + commentId));
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User not found: " + userId));
-
-        Optional<Vote> existingVote = voteRepository.findByUserIdAndCommentId(userId, commentId);
-
-        VoteType resultVoteType;
-        String message;
-
-        if (existingVote.isPresent()) {
-            Vote vote = existingVote.get();
-
-            if (vote.getVoteType() == voteType) {
-                voteRepository.delete(vote);
-                resultVoteType = null;
-                message = "Vote removed";
-            } else {
-                vote.setVoteType(voteType);
-                voteRepository.save(vote);
-                resultVoteType = voteType;
-                message = "Vote updated";
-            }
-        } else {
-            Vote newVote = new Vote();
-            newVote.setUser(user);
-            newVote.setComment(comment);
-            newVote.setVoteType(voteType);
-            voteRepository.save(newVote);
-            resultVoteType = voteType;
-            message = "Vote recorded";
-        }
-
-        voteRepository.flush();
-        Integer score = commentRepository.findScoreById(commentId);
-        if (score == null) {
-            throw new IllegalStateException("Comment not found after voting");
-        }
-
-        return new VoteResponse(message, score, resultVoteType);
+        return applyToggle(userId, VoteTargetType.COMMENT, commentId, voteType, result,
+                () -> commentVoteRepository.findVoteTypeByUserIdAndCommentId(userId, commentId));
     }
 
     /**
@@ -159,20 +117,10 @@ public VoteResponse removeVoteFromPost(Long userId, Long postId) {
             throw new ValidationException("User ID cannot be null");
         }
 
-        postRepository.findById(postId)
+        VoteMutationResult result = postVoteRepository.removeVote(userId, postId)
                 .orElseThrow(() -> new NotFoundException("Post not found: " + postId));
 
-        Vote vote = voteRepository.findByUserIdAndPostId(userId, postId)
-                .orElseThrow(() -> new NotFoundException("Vote not found"));
-
-        voteRepository.delete(Objects.requireNonNull(vote));
-        voteRepository.flush();
-        Integer score = postRepository.findScoreById(postId);
-        if (score == null) {
-            throw new IllegalStateException("Post not found after removing vote");
-        }
-
-        return new VoteResponse("Vote removed", score, null);
+        return applyRemoval(userId, VoteTargetType.POST, postId, result);
     }
 
     /**
@@ -187,19 +135,262 @@ public VoteResponse removeVoteFromComment(Long userId, Long commentId) {
             throw new ValidationException("User ID cannot be null");
         }
 
-        commentRepository.findById(commentId)
+        VoteMutationResult result = commentVoteRepository.removeVote(userId, commentId)
                 .orElseThrow(() -> new NotFoundException("Comment not found: " + commentId));
 
-        Vote vote = voteRepository.findByUserIdAndCommentId(userId, commentId)
-                .orElseThrow(() -> new NotFoundException("Vote not found"));
+        return applyRemoval(userId, VoteTargetType.COMMENT, commentId, result);
+    }
+
+    /**
+     * Find how a user voted on each of the given targets, served from {@link UserVoteCache} with
+     * a single query for the targets that are not cached yet.
+     * Targets the user did not vote on are absent from the result.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, VoteType> findVotesByUserAndTargets(Long userId, VoteTargetType targetType,
+                                                         Collection<Long> targetIds) {
+        if (userId == null || targetIds == null || targetIds.isEmpty()) {
+            return Map.of();
+        }
+
+        long version = userVoteCache.version(userId);
+        Map<Long, VoteType> votes = new HashMap<>();
+        List<Long> missing = userVoteCache.collect(userId, targetType, targetIds, votes);
+        if (!missing.isEmpty()) {
+            Map<Long, VoteType> loaded = voteBatchRepository.findVotesByUserAndTargets(userId, targetType, missing);
+            votes.putAll(loaded);
+            userVoteCache.fill(userId, version, targetType, missing, loaded);
+        }
+        return votes;
+    }
+
+    /**
+     * Apply a list of votes of one user in a single transaction.
+     * Items are applied in order with the same toggle semantics as {@link #voteOnPost} and
+     * {@link #voteOnComment}, so voting twice on the same target inside a batch toggles it.
+     * Only the net change per target is written, with one JDBC batch per statement kind.
+     * Items whose target does not exist are reported as not applied.
+     */
+    @Transactional
+    public BatchVoteResponse voteBatch(Long userId, List<BatchVoteItem> items) {
+        if (userId == null) {
+            throw new ValidationException("User ID cannot be null");
+        }
+        if (items == null || items.isEmpty()) {
+            throw new ValidationException("At least one vote is required");
+        }
+
+        Map<VoteTargetType, Set<Long>> targetIds = new EnumMap<>(VoteTargetType.class);
+        for (BatchVoteItem item : items) {
+            if (item.getTargetType() == null || item.getTargetId() == null || item.getVoteType() == null) {
+                throw new ValidationException("Target type, target ID and vote type are required");
+            }
+            targetIds.computeIfAbsent(item.getTargetType(), type -> new TreeSet<>()).add(item.getTargetId());
+        }
 
-        voteRepository.delete(Objects.requireNonNull(vote));
-        voteRepository.flush();
-        Integer score = commentRepository.findScoreById(commentId);
-        if (score == null) {
-            throw new IllegalStateException("Comment not found after removing vote");
+        Map<VoteTarget, Integer> persistedScores = new LinkedHashMap<>();
+        Map<VoteTarget, VoteType> initialVotes = new HashMap<>();
+        targetIds.forEach((targetType, ids) -> {
+            voteBatchRepository.findScores(targetType, ids)
+                    .forEach((id, score) -> persistedScores.put(new VoteTarget(targetType, id), score));
+            voteBatchRepository.lockVotes(userId, targetType, ids)
+                    .forEach((id, voteType) -> initialVotes.put(new VoteTarget(targetType, id), voteType));
+        });
+
+        Map<VoteTarget, VoteType> currentVotes = new HashMap<>(initialVotes);
+        List<BatchVoteItemResponse> results = new ArrayList<>(items.size());
+        for (BatchVoteItem item : items) {
+            VoteTarget target = new VoteTarget(item.getTargetType(), item.getTargetId());
+            if (!persistedScores.containsKey(target)) {
+                results.add(new BatchVoteItemResponse(target.type(), target.id(), false,
+                        notFoundMessage(target.type(), target.id()), null));
+                continue;
+            }
+
+            VoteType previousVoteType = currentVotes.get(target);
+            VoteType resultVoteType = toggledVoteType(previousVoteType, item.getVoteType());
+            currentVotes.put(target, resultVoteType);
+            results.add(new BatchVoteItemResponse(target.type(), target.id(), true,
+                    toggleMessage(previousVoteType, item.getVoteType()), resultVoteType));
+        }
+
+        Set<VoteTarget> lostRaces = new HashSet<>();
+        for (VoteTargetType targetType : targetIds.keySet()) {
+            writeNetChanges(userId, targetType, initialVotes, currentVotes)
+                    .forEach(id -> lostRaces.add(new VoteTarget(targetType, id)));
+        }
+        // Like the single-vote path, items on a target whose insert lost a race report the vote that won
+        for (BatchVoteItemResponse result : results) {
+            VoteTarget target = new VoteTarget(result.getTargetType(), result.getTargetId());
+            if (result.isApplied() && lostRaces.contains(target)) {
+                result.setMessage(toggleMessage(null, currentVotes.get(target)));
+                result.setUserVote(currentVotes.get(target));
+            }
         }
+        recordTrendingVotes(initialVotes, currentVotes);
+
+        List<VoteScoreResponse> scores = new ArrayList<>(persistedScores.size());
+        persistedScores.forEach((target, persistedScore) -> {
+            int delta = recordScoreChange(target.type(), target.id(), initialVotes.get(target),
+                    currentVotes.get(target));
+            userVoteCache.recordVote(userId, target.type(), target.id(), currentVotes.get(target));
+            voteJournal.record(userId, target.type(), target.id(), initialVotes.get(target), currentVotes.get(target));
+            scores.add(new VoteScoreResponse(target.type(), target.id(),
+                    mergedScore(target.type(), target.id(), persistedScore, delta)));
+        });
+
+        return new BatchVoteResponse(results, scores);
+    }
+
+    /**
+     * Count one vote of trending activity per target whose vote changed, looking up the communities
+     * of those targets in one query per target type.
+     */
+    private void recordTrendingVotes(Map<VoteTarget, VoteType> initialVotes, Map<VoteTarget, VoteType> currentVotes) {
+        Map<VoteTargetType, Set<Long>> changed = new EnumMap<>(VoteTargetType.class);
+        currentVotes.forEach((target, current) -> {
+            if (current != initialVotes.get(target)) {
+                changed.computeIfAbsent(target.type(), type -> new TreeSet<>()).add(target.id());
+            }
+        });
+        changed.forEach((targetType, ids) -> voteBatchRepository.findCommunityIds(targetType, ids).values()
+                .forEach(trendingCommunities::recordVote));
+    }
+
+    /**
+     * Write the difference between the initial and final vote of every target of one type.
+     * Targets whose first vote lost an insert race keep the concurrently inserted vote, exactly
+     * like the single-vote path; their initial and final state is reset to it so no delta is
+     * recorded for them. Returns the ids of those targets.
+     */
+    private Set<Long> writeNetChanges(Long userId, VoteTargetType targetType,
+                                 Map<VoteTarget, VoteType> initialVotes, Map<VoteTarget, VoteType> currentVotes) {
+        Map<Long, VoteType> inserts = new HashMap<>();
+        Map<Long, VoteType> updates = new HashMap<>();
+        List<Long> deletes = new ArrayList<>();
+
+        currentVotes.forEach((target, current) -> {
+            if (target.type() != targetType) {
+                return;
+            }
+            VoteType initial = initialVotes.get(target);
+            if (initial == current) {
+                return;
+            }
+            if (initial == null) {
+                inserts.put(target.id(), current);
+            } else if (current == null) {
+                deletes.add(target.id());
+            } else {
+                updates.put(target.id(), current);
+            }
+        });
+
+        voteBatchRepository.deleteVotes(userId, targetType, deletes);
+        voteBatchRepository.updateVotes(userId, targetType, updates);
+        Set<Long> skipped = voteBatchRepository.insertVotes(userId, targetType, inserts);
+
+        if (!skipped.isEmpty()) {
+            Map<Long, VoteType> winners = voteBatchRepository.lockVotes(userId, targetType, skipped);
+            for (Long id : skipped) {
+                VoteTarget target = new VoteTarget(targetType, id);
+                initialVotes.put(target, winners.get(id));
+                currentVotes.put(target, winners.get(id));
+            }
+        }
+        return skipped;
+    }
+
+    /**
+     * Derive the outcome of a toggle statement and buffer its score delta.
+     * When a concurrent request inserted the first vote (double click), the statement changed
+     * nothing; the response reports the vote that won and the score is left untouched.
+     */
+    private VoteResponse applyToggle(Long userId, VoteTargetType targetType, Long targetId, VoteType voteType,
+                                     VoteMutationResult result, Supplier<Optional<VoteType>> currentVote) {
+        VoteType previousVoteType = VoteType.fromValue(result.getPreviousValue());
+        String message = toggleMessage(previousVoteType, voteType);
+        VoteType resultVoteType;
+
+        if (previousVoteType == null && !Boolean.TRUE.equals(result.getInserted())) {
+            resultVoteType = currentVote.get().orElse(null);
+            previousVoteType = resultVoteType;
+        } else {
+            resultVoteType = toggledVoteType(previousVoteType, voteType);
+        }
+
+        int delta = recordScoreChange(targetType, targetId, previousVoteType, resultVoteType);
+        if (resultVoteType != previousVoteType) {
+            trendingCommunities.recordVote(result.getCommunityId());
+        }
+        userVoteCache.recordVote(userId, targetType, targetId, resultVoteType);
+        voteJournal.record(userId, targetType, targetId, previousVoteType, resultVoteType);
+
+        return new VoteResponse(message, mergedScore(targetType, targetId, result.getScore(), delta), resultVoteType);
+    }
+
+    private VoteResponse applyRemoval(Long userId, VoteTargetType targetType, Long targetId,
+                                      VoteMutationResult result) {
+        VoteType previousVoteType = VoteType.fromValue(result.getPreviousValue());
+        if (previousVoteType == null) {
+            throw new NotFoundException("Vote not found");
+        }
+
+        int delta = recordScoreChange(targetType, targetId, previousVoteType, null);
+        trendingCommunities.recordVote(result.getCommunityId());
+        userVoteCache.recordVote(userId, targetType, targetId, null);
+        voteJournal.record(userId, targetType, targetId, previousVoteType, null);
+
+        return new VoteResponse("Vote removed", mergedScore(targetType, targetId, result.getScore(), delta), null);
+    }
+
+    /**
+     * Hand the score delta of a vote change to the aggregator and, for posts, the change to the
+     * hot, top and rising rankings and the community feed cache. Returns the delta.
+     */
+    private int recordScoreChange(VoteTargetType targetType, Long targetId, VoteType previous, VoteType current) {
+        int delta = VoteType.scoreOf(current) - VoteType.scoreOf(previous);
+        scoreAggregator.recordDelta(targetType, targetId, delta);
+        if (targetType == VoteTargetType.POST) {
+            hotRanking.recordScoreChange(targetId, delta);
+            if (delta != 0) {
+                risingRanking.recordVote(targetId);
+            }
+            topRanking.recordVote(targetId, previous, current);
+            communityFeedCache.recordScoreChange(targetId, delta);
+        }
+        return delta;
+    }
+
+    /**
+     * The delta of the current transaction is only buffered after commit, so add it on top
+     * of the merged view explicitly, together with the shard sum of hot targets.
+     */
+    private int mergedScore(VoteTargetType targetType, Long targetId, int persistedScore, int delta) {
+        return scoreAggregator.mergedScore(targetType, targetId, persistedScore)
+                + shardedCounters.findScoreDelta(targetType, targetId)
+                + delta;
+    }
+
+    /**
+     * Toggle rule shared by all vote paths: the same type removes the vote, a different type
+     * replaces it, and no previous vote records the requested one.
+     */
+    private static VoteType toggledVoteType(VoteType previousVoteType, VoteType requestedVoteType) {
+        return previousVoteType == requestedVoteType ? null : requestedVoteType;
+    }
+
+    private static String toggleMessage(VoteType previousVoteType, VoteType requestedVoteType) {
+        if (previousVoteType == null) {
+            return "Vote recorded";
+        }
+        return previousVoteType == requestedVoteType ? "Vote removed" : "Vote updated";
+    }
+
+    private static String notFoundMessage(VoteTargetType targetType, Long targetId) {
+        return (targetType == VoteTargetType.POST ? "Post" : "Comment") + " not found: " + targetId;
+    }
 
-        return new VoteResponse("Vote removed", score, null);
+    private record VoteTarget(VoteTargetType type, long id) {
     }
 }
@@ -0,0 +1,21 @@
+package com.example.javaddit.features.vote.service;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Tuning for {@link VoteScoreAggregator}.
+ *
+ * @param flushIntervalMs delay between two periodic flushes of buffered score deltas
+ * @param maxBatchSize    maximum number of target rows updated per JDBC batch
+ * @param flushThreshold  number of buffered vote mutations that triggers an early flush
+ */
+@ConfigurationProperties(prefix = "app.votes.write-behind")
+@Validated
+public record VoteWriteBehindProperties(
+        @Positive long flushIntervalMs,
+        @Positive int maxBatchSize,
+        @Positive int flushThreshold
+) {
+}
@@ -0,0 +1,211 @@
+-- Flyway V10: Online migration of post_votes / comment_votes to hash partitioning
+-- Database: PostgreSQL
+
+BEGIN;
+
+-- =============================
+-- Overview
+-- =============================
+-- Nothing is partitioned by this migration itself; it installs the tooling
+-- that VotePartitionMigrator (or an operator with psql) drives online:
+--
+--   1. prepare_vote_partitioning('post_votes', 'post_id', 'posts', 16)
+--      creates post_votes_partitioned, PARTITION BY HASH (user_id) with
+--      16 partitions, and a trigger mirroring every write on post_votes
+--      into it.
+--   2. copy_votes_batch('post_votes', 'post_id', 5000), repeated until it
+--      returns 0, copies existing rows in primary key order.
+--   3. finish_vote_partitioning('post_votes', 'post_id') blocks writes for
+--      a moment, copies what is left, drops the mirror and swaps the tables.
+--      The old table stays as post_votes_unpartitioned until dropped by hand.
+--
+-- Hashing on user_id keeps every query of the vote write path (which always
+-- filters on user_id) on a single partition.
+
+-- =============================
+-- Table: vote_partition_migration
+-- =============================
+CREATE TABLE vote_partition_migration (
+    table_name     VARCHAR(32) NOT NULL,
+    partitions     INTEGER     NOT NULL,
+    last_user_id   BIGINT      NOT NULL DEFAULT 0,
+    last_target_id BIGINT      NOT NULL DEFAULT 0,
+    copied_rows    BIGINT      NOT NULL DEFAULT 0,
+    started_at     TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    finished_at    TIMESTAMPTZ,
+
+    CONSTRAINT pk_vote_partition_migration PRIMARY KEY (table_name)
+);
+
+-- =============================
+-- Functions: Mirror writes into the partitioned copy
+-- =============================
+CREATE OR REPLACE FUNCTION mirror_post_votes()
+RETURNS trigger AS $$
+BEGIN
+    IF (TG_OP IN ('UPDATE', 'DELETE')) THEN
+        DELETE FROM post_votes_partitioned WHERE user_id = OLD.user_id AND post_id = OLD.post_id;
+    END IF;
+    IF (TG_OP IN ('INSERT', 'UPDATE')) THEN
+        INSERT INTO post_votes_partitioned (user_id, post_id, value)
+        VALUES (NEW.user_id, NEW.post_id, NEW.value)
+        ON CONFLICT (user_id, post_id) DO UPDATE SET value = EXCLUDED.value;
+        RETURN NEW;
+    END IF;
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION mirror_comment_votes()
+RETURNS trigger AS $$
+BEGIN
+    IF (TG_OP IN ('UPDATE', 'DELETE')) THEN
+        DELETE FROM comment_votes_partitioned WHERE user_id = OLD.user_id AND comment_id = OLD.comment_id;
+    END IF;
+    IF (TG_OP IN ('INSERT', 'UPDATE')) THEN
+        INSERT INTO comment_votes_partitioned (user_id, comment_id, value)
+        VALUES (NEW.user_id, NEW.comment_id, NEW.value)
+        ON CONFLICT (user_id, comment_id) DO UPDATE SET value = EXCLUDED.value;
+        RETURN NEW;
+    END IF;
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+-- =============================
+-- Function: Step 1, create the partitioned copy
+-- =============================
+-- Idempotent: concurrent or repeated calls after the first do nothing.
+CREATE OR REPLACE FUNCTION prepare_vote_partitioning(source_table TEXT, target_column TEXT,
+                                                     referenced_table TEXT, partitions INTEGER)
+RETURNS boolean AS $$
+DECLARE
+    copy_table TEXT := source_table || '_partitioned';
+BEGIN
+    IF partitions < 1 THEN
+        RAISE EXCEPTION 'partitions must be positive, got %', partitions;
+    END IF;
+
+    INSERT INTO vote_partition_migration (table_name, partitions)
+    VALUES (source_table, partitions)
+    ON CONFLICT (table_name) DO NOTHING;
+    IF NOT FOUND THEN
+        RETURN false;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)'
+                   ' PARTITION BY HASH (user_id)', copy_table, source_table);
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I PRIMARY KEY (user_id, %I)',
+                   copy_table, 'pk_' || copy_table, target_column);
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I FOREIGN KEY (user_id)'
+                   ' REFERENCES users(id) ON DELETE CASCADE',
+                   copy_table, 'fk_' || source_table || '_user');
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I FOREIGN KEY (%I)'
+                   ' REFERENCES %I(id) ON DELETE CASCADE',
+                   copy_table, 'fk_' || source_table || '_' || split_part(target_column, '_', 1),
+                   target_column, referenced_table);
+    EXECUTE format('CREATE INDEX %I ON %I (%I)',
+                   copy_table || '_' || target_column || '_idx', copy_table, target_column);
+
+    FOR remainder IN 0..partitions - 1 LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES WITH (MODULUS %s, REMAINDER %s)',
+                       source_table || '_p' || remainder, copy_table, partitions, remainder);
+    END LOOP;
+
+    EXECUTE format('CREATE TRIGGER %I AFTER INSERT OR UPDATE OR DELETE ON %I'
+                   ' FOR EACH ROW EXECUTE FUNCTION %I()',
+                   'trg_' || source_table || '_mirror', source_table, 'mirror_' || source_table);
+    RETURN true;
+END;
+$$ LANGUAGE plpgsql;
+
+-- =============================
+-- Function: Step 2, copy one batch
+-- =============================
+-- Source rows are read FOR SHARE, so a concurrent delete or update waits
+-- for the copy and is then mirrored onto the copied row instead of being
+-- overtaken by a stale copy. Rows already mirrored are left alone.
+-- Returns the number of rows read; 0 means the copy has caught up.
+CREATE OR REPLACE FUNCTION copy_votes_batch(source_table TEXT, target_column TEXT, batch_size INTEGER)
+RETURNS INTEGER AS $$
+DECLARE
+    state    vote_partition_migration%ROWTYPE;
+    batch    INTEGER;
+    last_key BIGINT[];
+BEGIN
+    SELECT * INTO state FROM vote_partition_migration WHERE table_name = source_table FOR UPDATE;
+    IF NOT FOUND OR state.finished_at IS NOT NULL THEN
+        RETURN 0;
+    END IF;
+
+    EXECUTE format($copy$
+        WITH batch AS (
+            SELECT user_id, %2$I AS target_id, value FROM %1$I
+            WHERE (user_id, %2$I) > ($1, $2)
+            ORDER BY user_id, %2$I
+            LIMIT $3
+            FOR SHARE
+        ),
+        copied AS (
+            INSERT INTO %3$I (user_id, %2$I, value)
+            SELECT user_id, target_id, value FROM batch
+            ON CONFLICT DO NOTHING
+        )
+        SELECT count(*), max(ARRAY[user_id, target_id]) FROM batch
+        $copy$, source_table, target_column, source_table || '_partitioned')
+    INTO batch, last_key
+    USING state.last_user_id, state.last_target_id, batch_size;
+
+    IF batch > 0 THEN
+        UPDATE vote_partition_migration
+        SET last_user_id = last_key[1],
+            last_target_id = last_key[2],
+            copied_rows = copied_rows + batch
+        WHERE table_name = source_table;
+    END IF;
+    RETURN batch;
+END;
+$$ LANGUAGE plpgsql;
+
+-- =============================
+-- Function: Step 3, swap the tables
+-- =============================
+-- Reads stay possible while the remaining rows are copied; writes wait for
+-- the EXCLUSIVE lock, which is held only until commit.
+CREATE OR REPLACE FUNCTION finish_vote_partitioning(source_table TEXT, target_column TEXT)
+RETURNS boolean AS $$
+DECLARE
+    state      vote_partition_migration%ROWTYPE;
+    copy_table TEXT := source_table || '_partitioned';
+    old_table  TEXT := source_table || '_unpartitioned';
+BEGIN
+    SELECT * INTO state FROM vote_partition_migration WHERE table_name = source_table FOR UPDATE;
+    IF NOT FOUND OR state.finished_at IS NOT NULL THEN
+        RETURN false;
+    END IF;
+
+    EXECUTE format('LOCK TABLE %I IN EXCLUSIVE MODE', source_table);
+    LOOP
+        EXIT WHEN copy_votes_batch(source_table, target_column, 10000) = 0;
+    END LOOP;
+
+    EXECUTE format('DROP TRIGGER %I ON %I', 'trg_' || source_table || '_mirror', source_table);
+
+    EXECUTE format('ALTER TABLE %I RENAME TO %I', source_table, old_table);
+    EXECUTE format('ALTER TABLE %I RENAME CONSTRAINT %I TO %I',
+                   old_table, 'pk_' || source_table, 'pk_' || old_table);
+    EXECUTE format('ALTER INDEX %I RENAME TO %I',
+                   source_table || '_' || target_column || '_idx', old_table || '_' || target_column || '_idx');
+
+    EXECUTE format('ALTER TABLE %I RENAME TO %I', copy_table, source_table);
+    EXECUTE format('ALTER TABLE %I RENAME CONSTRAINT %I TO %I',
+                   source_table, 'pk_' || copy_table, 'pk_' || source_table);
+    EXECUTE format('ALTER INDEX %I RENAME TO %I',
+                   copy_table || '_' || target_column || '_idx', source_table || '_' || target_column || '_idx');
+
+    UPDATE vote_partition_migration SET finished_at = NOW() WHERE table_name = source_table;
+    RETURN true;
+END;
+$$ LANGUAGE plpgsql;
+
+COMMIT;
@@ -0,0 +1,17 @@
+-- Flyway V11: Feed indexes that match the keyset pagination order (created_at DESC, id DESC)
+-- Database: PostgreSQL
+
+BEGIN;
+
+-- =============================
+-- Feed indexes
+-- =============================
+-- Feeds are paged by the (created_at, id) keyset; with id as the last key column a page is a
+-- single index range scan, even when many posts share a timestamp.
+DROP INDEX posts_community_created_at_idx;
+CREATE INDEX posts_community_created_at_idx ON posts (community_id, created_at DESC, id DESC);
+
+DROP INDEX posts_created_at_idx;
+CREATE INDEX posts_created_at_idx           ON posts (created_at DESC, id DESC);
+
+COMMIT;
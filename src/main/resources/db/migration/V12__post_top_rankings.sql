@@ -0,0 +1,106 @@
+-- Flyway V12: Rolling-window "top" rankings with separate upvote/downvote counts
+-- Database: PostgreSQL
+
+BEGIN;
+
+-- =============================
+-- Table: post_vote_buckets
+-- =============================
+-- Upvotes and downvotes a post received per hour. Written by TopRankingService
+-- flushes as deltas (a retracted vote is a negative count in the hour it was
+-- retracted), read only when a bucket leaves a ranking window.
+CREATE TABLE post_vote_buckets (
+    post_id      BIGINT      NOT NULL,
+    bucket_start TIMESTAMPTZ NOT NULL,
+    upvotes      INTEGER     NOT NULL DEFAULT 0,
+    downvotes    INTEGER     NOT NULL DEFAULT 0,
+
+    CONSTRAINT pk_post_vote_buckets PRIMARY KEY (post_id, bucket_start),
+    CONSTRAINT fk_post_vote_buckets_post FOREIGN KEY (post_id)
+        REFERENCES posts(id)
+        ON DELETE CASCADE
+);
+
+CREATE INDEX post_vote_buckets_bucket_start_idx ON post_vote_buckets (bucket_start);
+
+-- =============================
+-- Table: post_top_scores
+-- =============================
+-- One row per window and post with votes in that window: the leaderboard a
+-- "top" feed pages through. New votes are added to every window of their post;
+-- buckets are subtracted again once they leave a window. ALL is never expired
+-- and holds each post's total upvotes and downvotes.
+CREATE TABLE post_top_scores (
+    time_window  VARCHAR(5) NOT NULL,
+    post_id      BIGINT     NOT NULL,
+    community_id BIGINT     NOT NULL,
+    upvotes      INTEGER    NOT NULL DEFAULT 0,
+    downvotes    INTEGER    NOT NULL DEFAULT 0,
+    score        INTEGER    GENERATED ALWAYS AS (upvotes - downvotes) STORED,
+
+    CONSTRAINT pk_post_top_scores PRIMARY KEY (time_window, post_id),
+    CONSTRAINT fk_post_top_scores_post FOREIGN KEY (post_id)
+        REFERENCES posts(id)
+        ON DELETE CASCADE,
+    CONSTRAINT post_top_scores_window_check
+        CHECK (time_window IN ('HOUR', 'DAY', 'WEEK', 'MONTH', 'YEAR', 'ALL'))
+);
+
+-- Keyset pages of the global and per-community leaderboards
+CREATE INDEX post_top_scores_rank_idx
+    ON post_top_scores (time_window, score DESC, post_id DESC);
+CREATE INDEX post_top_scores_community_rank_idx
+    ON post_top_scores (time_window, community_id, score DESC, post_id DESC);
+
+-- =============================
+-- Table: post_top_watermarks
+-- =============================
+-- Per expiring window: buckets starting before expired_before have already
+-- been subtracted from it. The row is locked while a window is expired, so
+-- only one instance advances it.
+CREATE TABLE post_top_watermarks (
+    time_window    VARCHAR(5)  NOT NULL,
+    window_length  INTERVAL    NOT NULL,
+    expired_before TIMESTAMPTZ NOT NULL,
+
+    CONSTRAINT pk_post_top_watermarks PRIMARY KEY (time_window)
+);
+
+INSERT INTO post_top_watermarks (time_window, window_length, expired_before)
+SELECT w.time_window, w.window_length, date_trunc('hour', NOW()) - w.window_length
+FROM (VALUES
+    ('HOUR',  INTERVAL '1 hour'),
+    ('DAY',   INTERVAL '1 day'),
+    ('WEEK',  INTERVAL '7 days'),
+    ('MONTH', INTERVAL '30 days'),
+    ('YEAR',  INTERVAL '365 days')
+) AS w(time_window, window_length);
+
+-- =============================
+-- Backfill
+-- =============================
+-- Existing votes carry no timestamp; they are counted in the hour their post
+-- was created.
+INSERT INTO post_vote_buckets (post_id, bucket_start, upvotes, downvotes)
+SELECT v.post_id,
+       date_trunc('hour', p.created_at),
+       COUNT(*) FILTER (WHERE v.value > 0),
+       COUNT(*) FILTER (WHERE v.value < 0)
+FROM post_votes v
+JOIN posts p ON p.id = v.post_id
+GROUP BY v.post_id, date_trunc('hour', p.created_at);
+
+INSERT INTO post_top_scores (time_window, post_id, community_id, upvotes, downvotes)
+SELECT 'ALL', b.post_id, p.community_id, SUM(b.upvotes), SUM(b.downvotes)
+FROM post_vote_buckets b
+JOIN posts p ON p.id = b.post_id
+GROUP BY b.post_id, p.community_id;
+
+INSERT INTO post_top_scores (time_window, post_id, community_id, upvotes, downvotes)
+SELECT w.time_window, b.post_id, p.community_id, SUM(b.upvotes), SUM(b.downvotes)
+FROM post_top_watermarks w
+JOIN post_vote_buckets b ON b.bucket_start >= w.expired_before
+JOIN posts p ON p.id = b.post_id
+GROUP BY w.time_window, b.post_id, p.community_id;
+
+COMMIT;
@@ -0,0 +1,21 @@
+-- Flyway V13: Indexes for the subscription home feed
+-- Database: PostgreSQL
+
+BEGIN;
+
+-- =============================
+-- Subscriptions by followed user
+-- =============================
+-- The primary key (subscriber_id, subscribed_to_id) answers "whom does a user follow"; fan-out on
+-- write asks the reverse, "who follows this author", for every new post.
+CREATE INDEX user_subscriptions_subscribed_to_idx ON user_subscriptions (subscribed_to_id, subscriber_id);
+
+-- =============================
+-- Posts by author, newest first
+-- =============================
+-- Posts of high-follower authors are merged into home feeds on read, one short index range per
+-- author below the page cursor.
+DROP INDEX posts_author_idx;
+CREATE INDEX posts_author_idx ON posts (author_id, id DESC);
+
+COMMIT;
@@ -0,0 +1,37 @@
+-- Flyway V14: HyperLogLog sketches of post viewers
+-- Database: PostgreSQL
+
+BEGIN;
+
+-- =============================
+-- Utility: register-wise maximum of two sketches
+-- =============================
+-- Merging two HyperLogLog sketches keeps the larger of each pair of registers; the result covers
+-- the viewers of both. Sketches of different sizes cannot be merged, the newer one wins.
+CREATE OR REPLACE FUNCTION hll_merge(a BYTEA, b BYTEA)
+RETURNS BYTEA AS $$
+	SELECT CASE
+		WHEN length(a) <> length(b) THEN b
+		ELSE (
+			SELECT string_agg(set_byte('\x00'::bytea, 0, GREATEST(get_byte(a, i), get_byte(b, i))), ''::bytea ORDER BY i)
+			FROM generate_series(0, length(a) - 1) AS i
+		)
+	END
+$$ LANGUAGE sql IMMUTABLE;
+
+-- =============================
+-- Post view sketches
+-- =============================
+-- One row of 2048 one-byte registers per viewed post, merged into by every instance that counted
+-- views of it. Viewer ids are never stored.
+CREATE TABLE post_view_sketches (
+	post_id    BIGINT      PRIMARY KEY,
+	registers  BYTEA       NOT NULL,
+	updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+
+	CONSTRAINT fk_post_view_sketches_post FOREIGN KEY (post_id)
+		REFERENCES posts(id)
+		ON DELETE CASCADE
+);
+
+COMMIT;
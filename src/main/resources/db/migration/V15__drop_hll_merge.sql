@@ -0,0 +1,13 @@
+-- Flyway V15: Merge post view sketches in the application
+-- Database: PostgreSQL
+
+BEGIN;
+
+-- =============================
+-- Utility: register-wise maximum of two sketches
+-- =============================
+-- hll_merge expanded every merged row into one set_byte call per register. Sketches are now read
+-- FOR UPDATE, merged in Java and written back in one batch, so the function is no longer used.
+DROP FUNCTION hll_merge(BYTEA, BYTEA);
+
+COMMIT;
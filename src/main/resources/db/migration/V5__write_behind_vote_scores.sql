@@ -0,0 +1,22 @@
+-- Flyway V5: Vote scores are maintained by the application (write-behind aggregation)
+-- Database: PostgreSQL
+
+BEGIN;
+
+-- =============================
+-- Drop per-vote score recount triggers
+-- =============================
+-- posts.score and comments.score are now updated with batched deltas
+-- (score = score + ?) by VoteScoreAggregator. The V2 triggers recomputed
+-- SUM(...) over every vote of the target on each mutation and locked the
+-- target row once per click; keeping them would also double count the
+-- application deltas. The functions are left in place for manual recounts.
+DROP TRIGGER IF EXISTS trg_votes_post_after_insert ON votes;
+DROP TRIGGER IF EXISTS trg_votes_post_after_update ON votes;
+DROP TRIGGER IF EXISTS trg_votes_post_after_delete ON votes;
+
+DROP TRIGGER IF EXISTS trg_votes_comment_after_insert ON votes;
+DROP TRIGGER IF EXISTS trg_votes_comment_after_update ON votes;
+DROP TRIGGER IF EXISTS trg_votes_comment_after_delete ON votes;
+
+COMMIT;
@@ -0,0 +1,87 @@
+-- Flyway V6: Optional sharded counters for hot posts and comments
+-- Database: PostgreSQL
+
+BEGIN;
+
+-- =============================
+-- Per-target sharding switch
+-- =============================
+-- 0 means the counters live on the target row itself. A positive value means
+-- score and comment count deltas are spread over that many rows of
+-- post_counters / comment_counters and folded back periodically.
+ALTER TABLE posts    ADD COLUMN counter_shards SMALLINT NOT NULL DEFAULT 0;
+ALTER TABLE comments ADD COLUMN counter_shards SMALLINT NOT NULL DEFAULT 0;
+
+CREATE INDEX posts_counter_shards_idx    ON posts (id) WHERE counter_shards > 0;
+CREATE INDEX comments_counter_shards_idx ON comments (id) WHERE counter_shards > 0;
+
+-- =============================
+-- Counter shards
+-- =============================
+-- No foreign keys on purpose: shard rows are written from comment triggers
+-- that also run while a post is being deleted, and rows of deleted targets
+-- are simply discarded by the next compaction.
+CREATE TABLE post_counters (
+    post_id        BIGINT   NOT NULL,
+    shard          SMALLINT NOT NULL,
+    score_delta    INTEGER  NOT NULL DEFAULT 0,
+    comments_delta INTEGER  NOT NULL DEFAULT 0,
+
+    CONSTRAINT pk_post_counters PRIMARY KEY (post_id, shard)
+);
+
+CREATE TABLE comment_counters (
+    comment_id  BIGINT   NOT NULL,
+    shard       SMALLINT NOT NULL,
+    score_delta INTEGER  NOT NULL DEFAULT 0,
+
+    CONSTRAINT pk_comment_counters PRIMARY KEY (comment_id, shard)
+);
+
+-- =============================
+-- Function: Shard-aware comments_count adjustment
+-- =============================
+CREATE OR REPLACE FUNCTION adjust_post_comments_count(target_post_id BIGINT, delta INTEGER)
+RETURNS void AS $$
+DECLARE
+    shards SMALLINT;
+BEGIN
+    SELECT counter_shards INTO shards FROM posts WHERE id = target_post_id;
+
+    IF shards IS NULL THEN
+        RETURN;
+    END IF;
+
+    IF shards > 0 THEN
+        INSERT INTO post_counters (post_id, shard, comments_delta)
+        VALUES (target_post_id, floor(random() * shards)::SMALLINT, delta)
+        ON CONFLICT (post_id, shard)
+        DO UPDATE SET comments_delta = post_counters.comments_delta + EXCLUDED.comments_delta;
+    ELSE
+        UPDATE posts SET comments_count = GREATEST(comments_count + delta, 0) WHERE id = target_post_id;
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Same semantics as V1, routed through the shard-aware adjustment
+CREATE OR REPLACE FUNCTION update_post_comments_count()
+RETURNS trigger AS $$
+BEGIN
+    IF (TG_OP = 'INSERT') THEN
+        PERFORM adjust_post_comments_count(NEW.post_id, 1);
+        RETURN NEW;
+    ELSIF (TG_OP = 'DELETE') THEN
+        PERFORM adjust_post_comments_count(OLD.post_id, -1);
+        RETURN OLD;
+    ELSIF (TG_OP = 'UPDATE') THEN
+        IF NEW.post_id IS DISTINCT FROM OLD.post_id THEN
+            PERFORM adjust_post_comments_count(OLD.post_id, -1);
+            PERFORM adjust_post_comments_count(NEW.post_id, 1);
+        END IF;
+        RETURN NEW;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+COMMIT;
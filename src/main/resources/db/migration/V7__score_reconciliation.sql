@@ -0,0 +1,23 @@
+-- Flyway V7: Checkpoints of the incremental score reconciliation job
+-- Database: PostgreSQL
+
+BEGIN;
+
+-- =============================
+-- Reconciliation checkpoints
+-- =============================
+-- One row per target type: the highest target id whose score has been checked
+-- in the current pass. The job resumes after it and wraps back to 0 at the end.
+CREATE TABLE score_reconciliation_checkpoints (
+    target_type VARCHAR(10) NOT NULL,
+    last_id     BIGINT      NOT NULL DEFAULT 0,
+    passes      BIGINT      NOT NULL DEFAULT 0,
+    updated_at  TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+
+    CONSTRAINT pk_score_reconciliation_checkpoints PRIMARY KEY (target_type),
+    CONSTRAINT score_reconciliation_target_type_check CHECK (target_type IN ('POST', 'COMMENT'))
+);
+
+INSERT INTO score_reconciliation_checkpoints (target_type) VALUES ('POST'), ('COMMENT');
+
+COMMIT;
@@ -0,0 +1,163 @@
+-- Flyway V8: O(1) delta-based score trigger functions
+-- Database: PostgreSQL
+
+BEGIN;
+
+-- =============================
+-- Function: Score value of a vote type
+-- =============================
+CREATE OR REPLACE FUNCTION vote_value(vote_type VARCHAR)
+RETURNS INTEGER AS $$
+    SELECT CASE vote_type
+        WHEN 'UPVOTE' THEN 1
+        WHEN 'DOWNVOTE' THEN -1
+        ELSE 0
+    END;
+$$ LANGUAGE sql IMMUTABLE;
+
+-- =============================
+-- Functions: Shard-aware score adjustment
+-- =============================
+-- Same routing as adjust_post_comments_count (V6): hot targets take the
+-- delta on a random counter shard, all others on the score column.
+CREATE OR REPLACE FUNCTION adjust_post_score(target_post_id BIGINT, delta INTEGER)
+RETURNS void AS $$
+DECLARE
+    shards SMALLINT;
+BEGIN
+    IF target_post_id IS NULL OR delta = 0 THEN
+        RETURN;
+    END IF;
+
+    SELECT counter_shards INTO shards FROM posts WHERE id = target_post_id;
+
+    IF shards IS NULL THEN
+        RETURN;
+    END IF;
+
+    IF shards > 0 THEN
+        INSERT INTO post_counters (post_id, shard, score_delta)
+        VALUES (target_post_id, floor(random() * shards)::SMALLINT, delta)
+        ON CONFLICT (post_id, shard)
+        DO UPDATE SET score_delta = post_counters.score_delta + EXCLUDED.score_delta;
+    ELSE
+        UPDATE posts SET score = score + delta WHERE id = target_post_id;
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION adjust_comment_score(target_comment_id BIGINT, delta INTEGER)
+RETURNS void AS $$
+DECLARE
+    shards SMALLINT;
+BEGIN
+    IF target_comment_id IS NULL OR delta = 0 THEN
+        RETURN;
+    END IF;
+
+    SELECT counter_shards INTO shards FROM comments WHERE id = target_comment_id;
+
+    IF shards IS NULL THEN
+        RETURN;
+    END IF;
+
+    IF shards > 0 THEN
+        INSERT INTO comment_counters (comment_id, shard, score_delta)
+        VALUES (target_comment_id, floor(random() * shards)::SMALLINT, delta)
+        ON CONFLICT (comment_id, shard)
+        DO UPDATE SET score_delta = comment_counters.score_delta + EXCLUDED.score_delta;
+    ELSE
+        UPDATE comments SET score = score + delta WHERE id = target_comment_id;
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+-- =============================
+-- Function: Recalculate Post Score
+-- =============================
+-- Trigger function, now O(1) per vote: +value on insert, -value on delete,
+-- new - old on update (+/-2 when the vote type flips). Moving a vote to
+-- another post is handled as a delete plus an insert.
+--
+-- The triggers stay detached (V5): scores are maintained by the application
+-- and attaching them would double count. They are kept correct for anyone
+-- who re-attaches them, e.g. for SQL bulk loads that bypass the application.
+CREATE OR REPLACE FUNCTION update_post_score()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF (TG_OP = 'INSERT') THEN
+        PERFORM adjust_post_score(NEW.post_id, vote_value(NEW.vote_type));
+        RETURN NEW;
+    ELSIF (TG_OP = 'DELETE') THEN
+        PERFORM adjust_post_score(OLD.post_id, -vote_value(OLD.vote_type));
+        RETURN OLD;
+    ELSIF (TG_OP = 'UPDATE') THEN
+        IF NEW.post_id IS NOT DISTINCT FROM OLD.post_id THEN
+            PERFORM adjust_post_score(NEW.post_id, vote_value(NEW.vote_type) - vote_value(OLD.vote_type));
+        ELSE
+            PERFORM adjust_post_score(OLD.post_id, -vote_value(OLD.vote_type));
+            PERFORM adjust_post_score(NEW.post_id, vote_value(NEW.vote_type));
+        END IF;
+        RETURN NEW;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- =============================
+-- Function: Recalculate Comment Score
+-- =============================
+CREATE OR REPLACE FUNCTION update_comment_score()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF (TG_OP = 'INSERT') THEN
+        PERFORM adjust_comment_score(NEW.comment_id, vote_value(NEW.vote_type));
+        RETURN NEW;
+    ELSIF (TG_OP = 'DELETE') THEN
+        PERFORM adjust_comment_score(OLD.comment_id, -vote_value(OLD.vote_type));
+        RETURN OLD;
+    ELSIF (TG_OP = 'UPDATE') THEN
+        IF NEW.comment_id IS NOT DISTINCT FROM OLD.comment_id THEN
+            PERFORM adjust_comment_score(NEW.comment_id, vote_value(NEW.vote_type) - vote_value(OLD.vote_type));
+        ELSE
+            PERFORM adjust_comment_score(OLD.comment_id, -vote_value(OLD.vote_type));
+            PERFORM adjust_comment_score(NEW.comment_id, vote_value(NEW.vote_type));
+        END IF;
+        RETURN NEW;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- =============================
+-- Functions: Manual full recount
+-- =============================
+-- The V2 SUM semantics, for one-off repairs. Shard rows of the target are
+-- folded away since the recount already includes them.
+CREATE OR REPLACE FUNCTION recount_post_score(target_post_id BIGINT)
+RETURNS INTEGER AS $$
+DECLARE
+    recounted INTEGER;
+BEGIN
+    SELECT COALESCE(SUM(vote_value(vote_type)), 0) INTO recounted FROM votes WHERE post_id = target_post_id;
+
+    DELETE FROM post_counters WHERE post_id = target_post_id;
+    UPDATE posts SET score = recounted WHERE id = target_post_id;
+    RETURN recounted;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION recount_comment_score(target_comment_id BIGINT)
+RETURNS INTEGER AS $$
+DECLARE
+    recounted INTEGER;
+BEGIN
+    SELECT COALESCE(SUM(vote_value(vote_type)), 0) INTO recounted FROM votes WHERE comment_id = target_comment_id;
+
+    DELETE FROM comment_counters WHERE comment_id = target_comment_id;
+    UPDATE comments SET score = recounted WHERE id = target_comment_id;
+    RETURN recounted;
+END;
+$$ LANGUAGE plpgsql;
+
+COMMIT;
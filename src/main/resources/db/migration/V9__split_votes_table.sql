@@ -0,0 +1,139 @@
+-- Flyway V9: Split votes into compact post_votes / comment_votes tables
+-- Database: PostgreSQL
+
+BEGIN;
+
+-- =============================
+-- Table: post_votes / comment_votes
+-- =============================
+-- One row per user and target: no surrogate id, no XOR pair, no timestamps,
+-- the vote as +1/-1. The primary key serves every per-user lookup; the
+-- secondary index serves per-target aggregation and ON DELETE CASCADE from
+-- the target. Two indexes per table instead of six on votes.
+CREATE TABLE post_votes (
+    user_id BIGINT   NOT NULL,
+    post_id BIGINT   NOT NULL,
+    value   SMALLINT NOT NULL,
+
+    CONSTRAINT pk_post_votes PRIMARY KEY (user_id, post_id),
+    CONSTRAINT fk_post_votes_user FOREIGN KEY (user_id)
+        REFERENCES users(id)
+        ON DELETE CASCADE,
+    CONSTRAINT fk_post_votes_post FOREIGN KEY (post_id)
+        REFERENCES posts(id)
+        ON DELETE CASCADE,
+    CONSTRAINT post_votes_value_check CHECK (value IN (-1, 1))
+);
+
+CREATE TABLE comment_votes (
+    user_id    BIGINT   NOT NULL,
+    comment_id BIGINT   NOT NULL,
+    value      SMALLINT NOT NULL,
+
+    CONSTRAINT pk_comment_votes PRIMARY KEY (user_id, comment_id),
+    CONSTRAINT fk_comment_votes_user FOREIGN KEY (user_id)
+        REFERENCES users(id)
+        ON DELETE CASCADE,
+    CONSTRAINT fk_comment_votes_comment FOREIGN KEY (comment_id)
+        REFERENCES comments(id)
+        ON DELETE CASCADE,
+    CONSTRAINT comment_votes_value_check CHECK (value IN (-1, 1))
+);
+
+-- =============================
+-- Backfill
+-- =============================
+-- Indexes are built after the copy, which is much faster than maintaining
+-- them row by row.
+INSERT INTO post_votes (user_id, post_id, value)
+SELECT user_id, post_id, vote_value(vote_type)
+FROM votes
+WHERE post_id IS NOT NULL;
+
+INSERT INTO comment_votes (user_id, comment_id, value)
+SELECT user_id, comment_id, vote_value(vote_type)
+FROM votes
+WHERE comment_id IS NOT NULL;
+
+CREATE INDEX post_votes_post_id_idx       ON post_votes (post_id);
+CREATE INDEX comment_votes_comment_id_idx ON comment_votes (comment_id);
+
+DROP TABLE votes;
+
+-- =============================
+-- Functions: Score triggers and recounts on the new tables
+-- =============================
+-- Same delta semantics as V8; still not attached, see V5.
+CREATE OR REPLACE FUNCTION update_post_score()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF (TG_OP = 'INSERT') THEN
+        PERFORM adjust_post_score(NEW.post_id, NEW.value);
+        RETURN NEW;
+    ELSIF (TG_OP = 'DELETE') THEN
+        PERFORM adjust_post_score(OLD.post_id, -OLD.value);
+        RETURN OLD;
+    ELSIF (TG_OP = 'UPDATE') THEN
+        IF NEW.post_id = OLD.post_id THEN
+            PERFORM adjust_post_score(NEW.post_id, NEW.value - OLD.value);
+        ELSE
+            PERFORM adjust_post_score(OLD.post_id, -OLD.value);
+            PERFORM adjust_post_score(NEW.post_id, NEW.value);
+        END IF;
+        RETURN NEW;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION update_comment_score()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF (TG_OP = 'INSERT') THEN
+        PERFORM adjust_comment_score(NEW.comment_id, NEW.value);
+        RETURN NEW;
+    ELSIF (TG_OP = 'DELETE') THEN
+        PERFORM adjust_comment_score(OLD.comment_id, -OLD.value);
+        RETURN OLD;
+    ELSIF (TG_OP = 'UPDATE') THEN
+        IF NEW.comment_id = OLD.comment_id THEN
+            PERFORM adjust_comment_score(NEW.comment_id, NEW.value - OLD.value);
+        ELSE
+            PERFORM adjust_comment_score(OLD.comment_id, -OLD.value);
+            PERFORM adjust_comment_score(NEW.comment_id, NEW.value);
+        END IF;
+        RETURN NEW;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION recount_post_score(target_post_id BIGINT)
+RETURNS INTEGER AS $$
+DECLARE
+    recounted INTEGER;
+BEGIN
+    SELECT COALESCE(SUM(value), 0) INTO recounted FROM post_votes WHERE post_id = target_post_id;
+
+    DELETE FROM post_counters WHERE post_id = target_post_id;
+    UPDATE posts SET score = recounted WHERE id = target_post_id;
+    RETURN recounted;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION recount_comment_score(target_comment_id BIGINT)
+RETURNS INTEGER AS $$
+DECLARE
+    recounted INTEGER;
+BEGIN
+    SELECT COALESCE(SUM(value), 0) INTO recounted FROM comment_votes WHERE comment_id = target_comment_id;
+
+    DELETE FROM comment_counters WHERE comment_id = target_comment_id;
+    UPDATE comments SET score = recounted WHERE id = target_comment_id;
+    RETURN recounted;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP FUNCTION vote_value(VARCHAR);
+
+COMMIT;
@@ -0,0 +1,211 @@
+package com.example.javaddit;
+
+import com.example.javaddit.features.comment.dto.CommentResponse;
+import com.example.javaddit.features.comment.entity.Comment;
+import com.example.javaddit.features.comment.repository.CommentRepository;
+import com.example.javaddit.features.comment.service.CommentService;
+import com.example.javaddit.features.community.entity.Community;
+import com.example.javaddit.features.community.repository.CommunityRepository;
+import com.example.javaddit.features.post.dto.PostPageResponse;
+import com.example.javaddit.features.post.entity.Post;
+import com.example.javaddit.features.post.repository.PostRepository;
+import com.example.javaddit.features.post.service.PostService;
+import com.example.javaddit.features.user.entity.User;
+import com.example.javaddit.features.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Read endpoints select projections in a fixed number of statements per request, however many
+ * rows they return, instead of lazily loading the community, author or parent of each row.
+ * Statements are counted at the DataSource, so JdbcTemplate queries count as well as Hibernate's.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {
+    "app.posts.feed-cache.enabled=false",
+    "app.search.enabled=false",
+    "app.posts.views.enabled=false"
+})
+class ReadQueryCountTest {
+
+    private static final int ROWS = 30;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CommunityRepository communityRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private StatementCountingDataSource dataSource;
+
+    private Community community;
+    private Post post;
+
+    @BeforeEach
+    void setUp() {
+        String name = "stmt_" + System.nanoTime();
+        User author = new User();
+        author.setUsername(name);
+        author.setEmail(name + "@example.com");
+        author.setPasswordHash("noop");
+        author = userRepository.save(author);
+
+        community = new Community();
+        community.setName(name);
+        community = communityRepository.save(community);
+
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            Post p = new Post();
+            p.setCommunity(community);
+            p.setAuthor(author);
+            p.setTitle("Post " + i);
+            p.setSlug("post-" + i);
+            p.setContent("content");
+            posts.add(p);
+        }
+        postRepository.saveAll(posts);
+        post = posts.get(0);
+
+        Comment parent = null;
+        for (int i = 0; i < ROWS; i++) {
+            Comment comment = new Comment();
+            comment.setPost(post);
+            comment.setAuthor(author);
+            comment.setParent(i % 2 == 1 ? parent : null);
+            comment.setContent("comment " + i);
+            parent = commentRepository.save(comment);
+        }
+    }
+
+    @Test
+    void communityFeedPageIsPagePlusCommunityAndVoteCountLookups() {
+        dataSource.startCounting();
+
+        PostPageResponse page = postService.getPosts(community.getName(), "new", null, null, ROWS, null);
+
+        assertEquals(ROWS, page.getItems().size());
+        assertEquals(community.getName(), page.getItems().get(0).getCommunityName());
+        assertEquals(3, dataSource.stopCounting());
+    }
+
+    @Test
+    void singlePostIsPostPlusVoteCountLookup() {
+        dataSource.startCounting();
+
+        postService.getPostById(post.getId(), null);
+
+        assertEquals(2, dataSource.stopCounting());
+    }
+
+    @Test
+    void commentThreadIsOneStatementPlusPostCheck() {
+        dataSource.startCounting();
+
+        List<CommentResponse> comments = commentService.getCommentsByPostId(post.getId(), null);
+
+        assertEquals(ROWS, comments.size());
+        assertEquals(comments.get(0).getId(), comments.get(1).getParentId());
+        assertEquals(2, dataSource.stopCounting());
+    }
+
+    @TestConfiguration
+    static class StatementCountingConfig {
+
+        @Bean
+        static BeanPostProcessor statementCountingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && !(bean instanceof StatementCountingDataSource)
+                            ? new StatementCountingDataSource(dataSource)
+                            : bean;
+                }
+            };
+        }
+    }
+
+    /**
+     * Counts the statements the counting thread creates on connections of the wrapped DataSource.
+     * Statements of scheduled jobs on other threads are left out.
+     */
+    static class StatementCountingDataSource extends DelegatingDataSource {
+
+        private static final Set<String> STATEMENT_METHODS = Set.of("createStatement", "prepareStatement",
+                "prepareCall");
+
+        private final AtomicInteger statements = new AtomicInteger();
+        private volatile Thread countingThread;
+
+        StatementCountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        void startCounting() {
+            statements.set(0);
+            countingThread = Thread.currentThread();
+        }
+
+        int stopCounting() {
+            countingThread = null;
+            return statements.get();
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return counting(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return counting(super.getConnection(username, password));
+        }
+
+        private Connection counting(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        if (STATEMENT_METHODS.contains(method.getName())
+                                && Thread.currentThread() == countingThread) {
+                            statements.incrementAndGet();
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException ex) {
+                            throw ex.getCause();
+                        }
+                    });
+        }
+    }
+}
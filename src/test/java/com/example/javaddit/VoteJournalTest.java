@@ -0,0 +1,117 @@
+package com.example.javaddit;
+
+import com.example.javaddit.features.vote.entity.VoteTargetType;
+import com.example.javaddit.features.vote.journal.VoteJournalReader;
+import com.example.javaddit.features.vote.journal.VoteJournalRecord;
+import com.example.javaddit.features.vote.journal.VoteJournalReplayer;
+import com.example.javaddit.features.vote.journal.VoteJournalWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Slf4j
+class VoteJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replayRebuildsScoresAcrossSegmentsAndReopen() throws IOException {
+        try (VoteJournalWriter writer = VoteJournalWriter.open(directory, 4)) {
+            writer.append(vote(1, 10, 0, 1, 1_000));
+            writer.append(vote(2, 10, 0, -1, 1_001));
+            writer.append(vote(1, 10, 1, -1, 1_002));
+            writer.append(vote(3, 11, 0, 1, 1_003));
+            writer.append(vote(3, 11, 1, 0, 1_004));
+        }
+        try (VoteJournalWriter writer = VoteJournalWriter.open(directory, 4)) {
+            assertEquals(5, writer.nextSequence());
+            writer.append(vote(4, 10, 0, -1, 1_005));
+        }
+
+        VoteJournalReplayer.ReplayResult result = VoteJournalReplayer.rebuildScores(List.of(directory));
+
+        assertEquals(6, result.records());
+        assertEquals(-3L, result.scores().get(VoteTargetType.POST).get(10L));
+        assertEquals(0L, result.scores().get(VoteTargetType.POST).get(11L));
+        assertEquals(-3L, VoteJournalReplayer.sumDeltas(List.of(directory), 1_002)
+                .scores().get(VoteTargetType.POST).get(10L));
+    }
+
+    @Test
+    void readerStopsAtTornRecord() throws IOException {
+        try (VoteJournalWriter writer = VoteJournalWriter.open(directory, 16)) {
+            writer.append(vote(1, 10, 0, 1, 1_000));
+            writer.append(vote(2, 10, 0, 1, 1_001));
+            writer.append(vote(3, 10, 0, 1, 1_002));
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(VoteJournalRecord.SIZE + 3);
+            file.write(0x7f);
+        }
+
+        List<VoteJournalRecord> records = new ArrayList<>();
+        VoteJournalReader.read(directory, records::add);
+        assertEquals(1, records.size());
+
+        try (VoteJournalWriter writer = VoteJournalWriter.open(directory, 16)) {
+            assertEquals(1, writer.nextSequence());
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    void appendThroughput() throws Exception {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int perThread = 1_000_000;
+
+        try (VoteJournalWriter writer = VoteJournalWriter.open(directory, 1 << 20)) {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long userId = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        writer.append(vote(userId, i % 10_000, 0, 1, i));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long elapsed = System.nanoTime() - start;
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+
+            long total = (long) threads * perThread;
+            log.info("Vote journal: {} appends on {} threads in {} ms ({} appends/s)",
+                    total, threads, TimeUnit.NANOSECONDS.toMillis(elapsed), Math.round(total * 1e9 / elapsed));
+            assertEquals(total, writer.nextSequence());
+        }
+    }
+
+    private static VoteJournalRecord vote(long userId, long postId, int previous, int value, long timestamp) {
+        return new VoteJournalRecord(userId, postId, VoteTargetType.POST, (byte) previous, (byte) value, timestamp);
+    }
+}
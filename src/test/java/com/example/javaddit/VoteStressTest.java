@@ -0,0 +1,218 @@
+package com.example.javaddit;
+
+import com.example.javaddit.core.exception.NotFoundException;
+import com.example.javaddit.features.vote.dto.BatchVoteItem;
+import com.example.javaddit.features.vote.entity.VoteTargetType;
+import com.example.javaddit.features.vote.entity.VoteType;
+import com.example.javaddit.features.vote.service.ShardedCounterService;
+import com.example.javaddit.features.vote.service.VoteScoreAggregator;
+import com.example.javaddit.features.vote.service.VoteService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fires thousands of concurrent votes from virtual threads through {@link VoteService} against a
+ * local PostgreSQL (see docker-compose.yml) and checks that every stored score, counter shards
+ * included, ends up equal to the sum of its votes. Logs throughput and latency percentiles.
+ * <p>
+ * Run with {@code mvn -Pstress test}; excluded from the default build.
+ */
+@SpringBootTest
+@Tag("stress")
+@Slf4j
+@TestPropertySource(properties = {
+    "spring.datasource.hikari.maximum-pool-size=40",
+    "spring.jpa.show-sql=false",
+    "app.votes.write-behind.flush-interval-ms=100",
+    "app.votes.sharded-counters.enabled=true",
+    "app.votes.sharded-counters.heat-threshold=100",
+    "app.votes.sharded-counters.heat-window-ms=1000",
+    "app.votes.sharded-counters.compaction-interval-ms=500",
+    "app.votes.reconciliation.enabled=false"
+})
+class VoteStressTest {
+
+    private static final int USERS = 200;
+    private static final int OPERATIONS = 10_000;
+
+    @Autowired
+    private VoteService voteService;
+
+    @Autowired
+    private VoteScoreAggregator scoreAggregator;
+
+    @Autowired
+    private ShardedCounterService shardedCounters;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final String runId = Long.toString(System.nanoTime(), 36);
+    private final List<Long> userIds = new ArrayList<>();
+    private final List<Long> postIds = new ArrayList<>();
+    private long communityId;
+
+    @BeforeEach
+    void createFixtures() {
+        for (int i = 0; i < USERS; i++) {
+            String username = "stress_" + runId + "_" + i;
+            userIds.add(jdbcTemplate.queryForObject("""
+                    INSERT INTO users (username, email, password_hash)
+                    VALUES (:username, :email, 'x') RETURNING id
+                    """, Map.of("username", username, "email", username + "@example.com"), Long.class));
+        }
+        communityId = jdbcTemplate.queryForObject(
+                "INSERT INTO communities (name) VALUES (:name) RETURNING id",
+                Map.of("name", "stress_" + runId), Long.class);
+        for (int i = 0; i < 100; i++) {
+            postIds.add(jdbcTemplate.queryForObject("""
+                    INSERT INTO posts (community_id, author_id, title, slug, content)
+                    VALUES (:communityId, :authorId, 'Stress', :slug, 'Stress test post') RETURNING id
+                    """, Map.of("communityId", communityId, "authorId", userIds.get(0), "slug", "stress-" + i),
+                    Long.class));
+        }
+    }
+
+    @AfterEach
+    void removeFixtures() {
+        jdbcTemplate.update("DELETE FROM communities WHERE id = :id", Map.of("id", communityId));
+        jdbcTemplate.update("DELETE FROM users WHERE id IN (:ids)", Map.of("ids", userIds));
+    }
+
+    @Test
+    void concurrentTogglesOnOnePost() throws InterruptedException {
+        long postId = postIds.get(0);
+        int errors = run("single post toggles",
+                operation -> voteService.voteOnPost(randomUser(), postId, randomVoteType()));
+
+        assertEquals(0, errors);
+        assertScoresMatchVotes(List.of(postId));
+    }
+
+    @Test
+    void concurrentTogglesAcrossManyPosts() throws InterruptedException {
+        int errors = run("many post toggles", operation -> {
+            long postId = postIds.get(ThreadLocalRandom.current().nextInt(postIds.size()));
+            if (ThreadLocalRandom.current().nextInt(10) == 0) {
+                try {
+                    voteService.removeVoteFromPost(randomUser(), postId);
+                } catch (NotFoundException ex) {
+                    // Most random user/post pairs have no vote to remove
+                }
+            } else {
+                voteService.voteOnPost(randomUser(), postId, randomVoteType());
+            }
+        });
+
+        assertEquals(0, errors);
+        assertScoresMatchVotes(postIds);
+    }
+
+    @Test
+    void concurrentBatchesAcrossManyPosts() throws InterruptedException {
+        int errors = run("batch votes (10 items)", operation -> {
+            List<BatchVoteItem> items = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                long postId = postIds.get(ThreadLocalRandom.current().nextInt(postIds.size()));
+                items.add(new BatchVoteItem(VoteTargetType.POST, postId, randomVoteType()));
+            }
+            voteService.voteBatch(randomUser(), items);
+        });
+
+        assertEquals(0, errors);
+        assertScoresMatchVotes(postIds);
+    }
+
+    /**
+     * Run {@link #OPERATIONS} operations, each on its own virtual thread, and return the number
+     * that failed.
+     */
+    private int run(String name, IntConsumer operation) throws InterruptedException {
+        long[] latencies = new long[OPERATIONS];
+        AtomicInteger errors = new AtomicInteger();
+
+        long started = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < OPERATIONS; i++) {
+                int index = i;
+                executor.execute(() -> {
+                    long start = System.nanoTime();
+                    try {
+                        operation.accept(index);
+                    } catch (RuntimeException ex) {
+                        errors.incrementAndGet();
+                        log.warn("{}: operation {} failed", name, index, ex);
+                    } finally {
+                        latencies[index] = System.nanoTime() - start;
+                    }
+                });
+            }
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.MINUTES));
+        }
+        long elapsed = System.nanoTime() - started;
+
+        Arrays.sort(latencies);
+        log.info("{}: {} ops in {} ms, {} ops/s, p50 {} us, p99 {} us, {} errors",
+                name, OPERATIONS, TimeUnit.NANOSECONDS.toMillis(elapsed), Math.round(OPERATIONS * 1e9 / elapsed),
+                TimeUnit.NANOSECONDS.toMicros(latencies[OPERATIONS / 2]),
+                TimeUnit.NANOSECONDS.toMicros(latencies[OPERATIONS * 99 / 100]), errors.get());
+        return errors.get();
+    }
+
+    /**
+     * Wait until buffered deltas are flushed, then compare each score (column plus shards) with
+     * the sum of its votes.
+     */
+    private void assertScoresMatchVotes(List<Long> ids) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (ids.stream().anyMatch(id -> scoreAggregator.pendingDelta(VoteTargetType.POST, id) != 0)) {
+            assertTrue(System.nanoTime() < deadline, "Buffered score deltas were not flushed in time");
+            scoreAggregator.flush();
+            Thread.sleep(50);
+        }
+        shardedCounters.compact();
+
+        List<String> mismatches = jdbcTemplate.query("""
+                SELECT p.id, p.score, COALESCE(c.score_delta, 0) AS shards, COALESCE(v.total, 0) AS total
+                FROM posts p
+                LEFT JOIN (SELECT post_id, SUM(score_delta) AS score_delta FROM post_counters
+                           WHERE post_id IN (:ids) GROUP BY post_id) c ON c.post_id = p.id
+                LEFT JOIN (SELECT post_id, SUM(value) AS total FROM post_votes
+                           WHERE post_id IN (:ids) GROUP BY post_id) v ON v.post_id = p.id
+                WHERE p.id IN (:ids) AND p.score + COALESCE(c.score_delta, 0) <> COALESCE(v.total, 0)
+                """, Map.of("ids", ids), (rs, rowNum) -> "post " + rs.getLong("id") + ": score "
+                + rs.getLong("score") + " + shards " + rs.getLong("shards") + " != votes " + rs.getLong("total"));
+
+        assertEquals(List.of(), mismatches);
+    }
+
+    private long randomUser() {
+        return userIds.get(ThreadLocalRandom.current().nextInt(userIds.size()));
+    }
+
+    private static VoteType randomVoteType() {
+        return ThreadLocalRandom.current().nextBoolean() ? VoteType.UPVOTE : VoteType.DOWNVOTE;
+    }
+}